@@ -0,0 +1,64 @@
+package redis.clients.jedis.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.resps.Tuple;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Decoding of already parsed RESP2 replies by the most used {@link BuilderFactory} builders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderFactoryBenchmark {
+
+  private final List<Object> list = new ArrayList<>();
+  private final List<Object> pairs = new ArrayList<>();
+  private final List<Object> scored = new ArrayList<>();
+  private final byte[] score = SafeEncoder.encode("1234.5625");
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < 100; i++) {
+      list.add(SafeEncoder.encode("element:" + i));
+      pairs.add(SafeEncoder.encode("field:" + i));
+      pairs.add(SafeEncoder.encode("value:" + i));
+      scored.add(SafeEncoder.encode("member:" + i));
+      scored.add(SafeEncoder.encode(Double.toString(i * 10.25)));
+    }
+  }
+
+  @Benchmark
+  public String string() {
+    return BuilderFactory.STRING.build(list.get(0));
+  }
+
+  @Benchmark
+  public Double doubleValue() {
+    return BuilderFactory.DOUBLE.build(score);
+  }
+
+  @Benchmark
+  public List<String> stringList() {
+    return BuilderFactory.STRING_LIST.build(list);
+  }
+
+  @Benchmark
+  public Object stringMap() {
+    return BuilderFactory.STRING_MAP.build(pairs);
+  }
+
+  @Benchmark
+  public List<Tuple> tupleList() {
+    return BuilderFactory.TUPLE_LIST.build(scored);
+  }
+}
@@ -0,0 +1,61 @@
+package redis.clients.jedis.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.params.SetParams;
+
+/**
+ * Construction of {@link CommandObject}s by {@link CommandObjects}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandObjectsBenchmark {
+
+  private final CommandObjects commandObjects = new CommandObjects();
+  private final Map<String, String> hash = new HashMap<>();
+  private final Map<String, Double> scores = new HashMap<>();
+  private final SetParams setParams = SetParams.setParams().ex(60).nx();
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < 10; i++) {
+      hash.put("field:" + i, "value:" + i);
+      scores.put("member:" + i, i * 10.25);
+    }
+  }
+
+  @Benchmark
+  public CommandObject<String> get() {
+    return commandObjects.get("key:1");
+  }
+
+  @Benchmark
+  public CommandObject<String> set() {
+    return commandObjects.set("key:1", "value-0123456789");
+  }
+
+  @Benchmark
+  public CommandObject<String> setWithParams() {
+    return commandObjects.set("key:1", "value-0123456789", setParams);
+  }
+
+  @Benchmark
+  public CommandObject<Long> hset() {
+    return commandObjects.hset("hash", hash);
+  }
+
+  @Benchmark
+  public CommandObject<Long> zadd() {
+    return commandObjects.zadd("leaderboard", scores);
+  }
+}
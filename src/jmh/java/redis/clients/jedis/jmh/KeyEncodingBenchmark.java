@@ -0,0 +1,56 @@
+package redis.clients.jedis.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Encoding of keys and values by {@link SafeEncoder} and hashing of keys to cluster slots by
+ * {@link JedisClusterCRC16}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyEncodingBenchmark {
+
+  private final String key = "user:1000:followers";
+  private final String taggedKey = "{user:1000}:followers";
+  private final String unicode = "\u043a\u043b\u044e\u0447:1000:\ud83d\ude00";
+  private final byte[] binaryKey = SafeEncoder.encode(key);
+
+  @Benchmark
+  public byte[] encode() {
+    return SafeEncoder.encode(key);
+  }
+
+  @Benchmark
+  public byte[] encodeUnicode() {
+    return SafeEncoder.encode(unicode);
+  }
+
+  @Benchmark
+  public String decode() {
+    return SafeEncoder.encode(binaryKey);
+  }
+
+  @Benchmark
+  public int slot() {
+    return JedisClusterCRC16.getSlot(key);
+  }
+
+  @Benchmark
+  public int slotHashTag() {
+    return JedisClusterCRC16.getSlot(taggedKey);
+  }
+
+  @Benchmark
+  public int slotBinary() {
+    return JedisClusterCRC16.getSlot(binaryKey);
+  }
+}
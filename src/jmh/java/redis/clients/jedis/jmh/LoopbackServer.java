@@ -0,0 +1,78 @@
+package redis.clients.jedis.jmh;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.util.IOUtils;
+import redis.clients.jedis.util.RedisInputStream;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * An in-process server which answers GET with a fixed bulk string and any other command with
+ * {@code +OK}. Replies are flushed only when no more input is pending, like a Redis server does
+ * for pipelined commands.
+ */
+class LoopbackServer implements AutoCloseable {
+
+  private static final byte[] OK = SafeEncoder.encode("+OK\r\n");
+
+  private final ServerSocket serverSocket;
+  private final byte[] value;
+
+  LoopbackServer(String value) throws IOException {
+    this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    this.value = SafeEncoder.encode("$" + value.length() + "\r\n" + value + "\r\n");
+    Thread acceptor = new Thread(this::accept, "loopback-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  HostAndPort getHostAndPort() {
+    return new HostAndPort(serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort());
+  }
+
+  private void accept() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        Thread handler = new Thread(() -> serve(socket), "loopback-client");
+        handler.setDaemon(true);
+        handler.start();
+      } catch (IOException e) {
+        // closed
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void serve(Socket socket) {
+    try {
+      InputStream in = socket.getInputStream();
+      RedisInputStream ris = new RedisInputStream(in);
+      OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+      while (true) {
+        List<byte[]> command = (List<byte[]>) Protocol.read(ris);
+        out.write(SafeEncoder.encode(command.get(0)).equalsIgnoreCase("GET") ? value : OK);
+        if (in.available() == 0) {
+          out.flush();
+        }
+      }
+    } catch (Exception e) {
+      IOUtils.closeQuietly(socket);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+  }
+}
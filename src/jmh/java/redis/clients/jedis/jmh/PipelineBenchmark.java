@@ -0,0 +1,50 @@
+package redis.clients.jedis.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.Pipeline;
+
+/**
+ * Round trips of pipelines of SET and GET commands against an in-process {@link LoopbackServer},
+ * which covers encoding, socket I/O, parsing and building of the replies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+  @Param({ "1", "100" })
+  public int commands;
+
+  private LoopbackServer server;
+  private Connection connection;
+
+  @Setup
+  public void setup() throws IOException {
+    server = new LoopbackServer("value-0123456789");
+    connection = new Connection(server.getHostAndPort());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    connection.close();
+    server.close();
+  }
+
+  @Benchmark
+  public void sync() {
+    Pipeline pipeline = new Pipeline(connection);
+    for (int i = 0; i < commands; i++) {
+      pipeline.set("key:" + i, "value-0123456789");
+      pipeline.get("key:" + i);
+    }
+    pipeline.sync();
+  }
+}
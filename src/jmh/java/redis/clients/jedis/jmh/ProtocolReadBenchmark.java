@@ -0,0 +1,77 @@
+package redis.clients.jedis.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import redis.clients.jedis.FlatReply;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.util.RedisInputStream;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Parsing of canned RESP2 and RESP3 replies by {@link Protocol#read(RedisInputStream)} and
+ * {@link Protocol#read(RedisInputStream, FlatReply)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolReadBenchmark {
+
+  @Param({ "status", "bulk", "integer", "array", "map", "double" })
+  public String reply;
+
+  private RedisInputStream is;
+  private final FlatReply flatReply = new FlatReply();
+
+  @Setup
+  public void setup() {
+    is = new RedisInputStream(new RepeatingInputStream(SafeEncoder.encode(payload(reply))));
+  }
+
+  static String payload(String reply) {
+    switch (reply) {
+      case "status":
+        return "+OK\r\n";
+      case "bulk":
+        return "$16\r\nvalue-0123456789\r\n";
+      case "integer":
+        return ":1234567\r\n";
+      case "array": { // RESP2, e.g. LRANGE
+        StringBuilder sb = new StringBuilder("*100\r\n");
+        for (int i = 0; i < 100; i++) {
+          String element = "element:" + i;
+          sb.append('$').append(element.length()).append("\r\n").append(element).append("\r\n");
+        }
+        return sb.toString();
+      }
+      case "map": { // RESP3, e.g. HGETALL
+        StringBuilder sb = new StringBuilder("%50\r\n");
+        for (int i = 0; i < 50; i++) {
+          String field = "field:" + i;
+          sb.append('$').append(field.length()).append("\r\n").append(field).append("\r\n");
+          sb.append(':').append(i).append("\r\n");
+        }
+        return sb.toString();
+      }
+      case "double": // RESP3, e.g. ZSCORE
+        return ",1234.5625\r\n";
+      default:
+        throw new IllegalArgumentException(reply);
+    }
+  }
+
+  @Benchmark
+  public Object read() {
+    return Protocol.read(is);
+  }
+
+  @Benchmark
+  public int readFlat() {
+    Protocol.read(is, flatReply);
+    return flatReply.size();
+  }
+}
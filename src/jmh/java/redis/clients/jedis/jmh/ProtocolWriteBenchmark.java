@@ -0,0 +1,72 @@
+package redis.clients.jedis.jmh;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.util.RedisOutputStream;
+
+/**
+ * Encoding of commands by {@link Protocol#sendCommand(RedisOutputStream, CommandArguments)}, into
+ * a stream which discards the bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolWriteBenchmark {
+
+  @Param({ "false", "true" })
+  public boolean encoded;
+
+  private final String value = "value-0123456789";
+  private final byte[] largeValue = new byte[16 * 1024];
+  private RedisOutputStream os;
+
+  @Setup
+  public void setup() {
+    os = new RedisOutputStream(new OutputStream() {
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+      }
+    });
+  }
+
+  @Benchmark
+  public void set() {
+    Protocol.sendCommand(os, new CommandArguments(Command.SET, encoded).key("key:1").add(value));
+  }
+
+  @Benchmark
+  public void setLarge() {
+    Protocol.sendCommand(os, new CommandArguments(Command.SET, encoded).key("key:1").add(largeValue));
+  }
+
+  @Benchmark
+  public void mset() {
+    CommandArguments args = new CommandArguments(Command.MSET, encoded);
+    for (int i = 0; i < 10; i++) {
+      args.key("key:" + i).add(value);
+    }
+    Protocol.sendCommand(os, args);
+  }
+
+  @Benchmark
+  public void zadd() {
+    CommandArguments args = new CommandArguments(Command.ZADD, encoded).key("leaderboard");
+    for (int i = 0; i < 10; i++) {
+      args.add(i * 10.25).add("member:" + i);
+    }
+    Protocol.sendCommand(os, args);
+  }
+}
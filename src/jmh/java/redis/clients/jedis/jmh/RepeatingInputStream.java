@@ -0,0 +1,37 @@
+package redis.clients.jedis.jmh;
+
+import java.io.InputStream;
+
+/**
+ * An endless stream repeating the same bytes, so that a {@link redis.clients.jedis.util.RedisInputStream}
+ * can read canned replies without being recreated for every invocation.
+ */
+class RepeatingInputStream extends InputStream {
+
+  private final byte[] bytes;
+  private int pos = 0;
+
+  RepeatingInputStream(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  @Override
+  public int read() {
+    final int b = bytes[pos++] & 0xff;
+    if (pos == bytes.length) {
+      pos = 0;
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    final int length = Math.min(len, bytes.length - pos);
+    System.arraycopy(bytes, pos, b, off, length);
+    pos += length;
+    if (pos == bytes.length) {
+      pos = 0;
+    }
+    return length;
+  }
+}
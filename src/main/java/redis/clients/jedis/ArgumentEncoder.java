@@ -0,0 +1,294 @@
+package redis.clients.jedis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.args.RawableFactory;
+import redis.clients.jedis.util.NumericEncoder;
+import redis.clients.jedis.util.RedisOutputStream;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Encodes the arguments of a command directly in their wire format ({@code $<len>\r\n<bytes>\r\n})
+ * into a region of a per-thread arena, without wrapping or copying every argument into its own
+ * object.
+ * <p>
+ * The regions are bump-allocated from a chunk which is owned by the current thread. A region is
+ * never handed out twice, so the arguments can be sent (and re-sent) from any thread at any later
+ * time; a chunk becomes garbage as a whole once no arguments refer to it anymore.
+ * <p>
+ * Arguments of at least {@link #LARGE_ARGUMENT_SIZE} bytes are not copied into the regions: they
+ * are kept apart, between the encoded regions before and after them, and written through to the
+ * stream. Like {@link redis.clients.jedis.args.RawableFactory.RawByteBuffer}, a large
+ * {@link ByteBuffer} is not copied at all.
+ */
+final class ArgumentEncoder {
+
+  private static final int CHUNK_SIZE = 32 * 1024;
+  private static final int INITIAL_REGION_SIZE = 64;
+  static final int LARGE_ARGUMENT_SIZE = CHUNK_SIZE >> 2;
+
+  private static final class Arena {
+    private byte[] chunk = new byte[CHUNK_SIZE];
+    private int used = 0;
+  }
+
+  private static final ThreadLocal<Arena> ARENA = ThreadLocal.withInitial(Arena::new);
+
+  private byte[] buf;
+  private int start;
+  private int pos;
+  private int end;
+  private int count = 0;
+
+  /**
+   * The completed regions, each followed by the large argument it ends with; null if there are no
+   * large arguments.
+   */
+  private List<ByteBuffer> segments;
+
+  ArgumentEncoder() {
+    allocate(INITIAL_REGION_SIZE, 0);
+  }
+
+  int size() {
+    return count;
+  }
+
+  void add(final byte[] bytes) {
+    add(bytes, 0, bytes.length);
+  }
+
+  void add(final byte[] bytes, final int offset, final int length) {
+    if (length >= LARGE_ARGUMENT_SIZE) {
+      // copied once, like a Raw, but not into the region
+      addLarge(ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+      return;
+    }
+    ensureCapacity(length + 16);
+    writeHeader(length);
+    System.arraycopy(bytes, offset, buf, pos, length);
+    pos += length;
+    writeCrLf();
+  }
+
+  void add(final ByteBuffer buffer) {
+    final ByteBuffer src = buffer.duplicate();
+    final int length = src.remaining();
+    if (length >= LARGE_ARGUMENT_SIZE) {
+      addLarge(src);
+      return;
+    }
+    ensureCapacity(length + 16);
+    writeHeader(length);
+    src.get(buf, pos, length);
+    pos += length;
+    writeCrLf();
+  }
+
+  private void addLarge(final ByteBuffer value) {
+    ensureCapacity(16);
+    writeHeader(value.remaining());
+    if (segments == null) {
+      segments = new ArrayList<>();
+    }
+    segments.add(ByteBuffer.wrap(buf, start, pos - start));
+    segments.add(value);
+    allocate(INITIAL_REGION_SIZE, 0);
+    writeCrLf();
+  }
+
+  void add(final Rawable raw) {
+    if (raw instanceof RawableFactory.RawByteBuffer) {
+      add(((RawableFactory.RawByteBuffer) raw).getByteBuffer());
+    } else {
+      add(raw.getRaw());
+    }
+  }
+
+  void add(final long value) {
+    final int length = NumericEncoder.stringSize(value);
+    ensureCapacity(length + 16);
+    writeHeader(length);
+    pos = NumericEncoder.write(value, buf, pos);
+    writeCrLf();
+  }
+
+  void add(final double value) {
+    final int fractionDigits = NumericEncoder.fractionDigits(value);
+    if (fractionDigits < 0) {
+      add(Protocol.toByteArray(value));
+      return;
+    }
+    final int length = NumericEncoder.stringSize(value, fractionDigits);
+    ensureCapacity(length + 16);
+    writeHeader(length);
+    pos = NumericEncoder.write(value, fractionDigits, buf, pos);
+    writeCrLf();
+  }
+
+  void add(final String str) {
+    if (SafeEncoder.DEFAULT_CHARSET != StandardCharsets.UTF_8) {
+      add(SafeEncoder.encode(str));
+      return;
+    }
+
+    final int length = utf8Length(str);
+    ensureCapacity(length + 16);
+    writeHeader(length);
+    final byte[] buf = this.buf;
+    int p = pos;
+    for (int i = 0; i < str.length(); i++) {
+      final char c = str.charAt(i);
+      if (c < 0x80) {
+        buf[p++] = (byte) c;
+      } else if (c < 0x800) {
+        buf[p++] = (byte) (0xc0 | (c >> 6));
+        buf[p++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isHighSurrogate(c) && i + 1 < str.length()
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        final int cp = Character.toCodePoint(c, str.charAt(++i));
+        buf[p++] = (byte) (0xf0 | (cp >> 18));
+        buf[p++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+        buf[p++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+        buf[p++] = (byte) (0x80 | (cp & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        buf[p++] = '?'; // malformed, like String#getBytes
+      } else {
+        buf[p++] = (byte) (0xe0 | (c >> 12));
+        buf[p++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buf[p++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+    pos = p;
+    writeCrLf();
+  }
+
+  void writeTo(final RedisOutputStream os) throws IOException {
+    if (segments != null) {
+      for (ByteBuffer segment : segments) {
+        os.write(segment.duplicate());
+      }
+    }
+    os.write(buf, start, pos - start);
+  }
+
+  /**
+   * Decodes the arguments, for the rare callers which have to inspect them.
+   */
+  List<Rawable> toRawables() {
+    final byte[] buf;
+    int p;
+    final int end;
+    if (segments == null) {
+      buf = this.buf;
+      p = start;
+      end = pos;
+    } else {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (ByteBuffer segment : segments) {
+        final byte[] bytes = new byte[segment.remaining()];
+        segment.duplicate().get(bytes);
+        out.write(bytes, 0, bytes.length);
+      }
+      out.write(this.buf, start, pos - start);
+      buf = out.toByteArray();
+      p = 0;
+      end = buf.length;
+    }
+
+    final List<Rawable> list = new ArrayList<>(count);
+    while (p < end) {
+      int length = 0;
+      p++; // '$'
+      while (buf[p] != '\r') {
+        length = length * 10 + buf[p++] - '0';
+      }
+      p += 2;
+      final byte[] bytes = new byte[length];
+      System.arraycopy(buf, p, bytes, 0, length);
+      list.add(RawableFactory.from(bytes));
+      p += length + 2;
+    }
+    return list;
+  }
+
+  private void writeHeader(final int length) {
+    buf[pos++] = Protocol.DOLLAR_BYTE;
+    pos = NumericEncoder.write(length, buf, pos);
+    writeCrLf();
+    count++;
+  }
+
+  private void writeCrLf() {
+    buf[pos++] = '\r';
+    buf[pos++] = '\n';
+  }
+
+  private static int utf8Length(final String str) {
+    int length = 0;
+    for (int i = 0; i < str.length(); i++) {
+      final char c = str.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < str.length()
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        length++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  private void ensureCapacity(final int required) {
+    if (pos + required <= end) {
+      return;
+    }
+
+    final Arena arena = ARENA.get();
+    if (buf == arena.chunk && end == arena.used && pos + required <= buf.length) {
+      // the region is the last one of the chunk of this thread, so it can simply be extended
+      end = Math.min(buf.length, Math.max(pos + required, end + (end - start)));
+      arena.used = end;
+      return;
+    }
+    allocate(Math.max(pos - start + required, (end - start) << 1), pos - start);
+  }
+
+  private void allocate(final int capacity, final int length) {
+    final byte[] target;
+    final int offset;
+    if (capacity > CHUNK_SIZE >> 2) {
+      target = new byte[capacity];
+      offset = 0;
+    } else {
+      final Arena arena = ARENA.get();
+      if (arena.used + capacity > arena.chunk.length) {
+        arena.chunk = new byte[CHUNK_SIZE];
+        arena.used = 0;
+      }
+      target = arena.chunk;
+      offset = arena.used;
+      arena.used += capacity;
+    }
+    if (length > 0) {
+      System.arraycopy(buf, start, target, offset, length);
+    }
+    buf = target;
+    start = offset;
+    pos = offset + length;
+    end = offset + capacity;
+  }
+}
@@ -0,0 +1,531 @@
+package redis.clients.jedis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisValidationException;
+import redis.clients.jedis.util.IOUtils;
+import redis.clients.jedis.util.RedisInputStream;
+import redis.clients.jedis.util.RedisOutputStream;
+
+/**
+ * A non-blocking connection which multiplexes the commands of many concurrent callers over a
+ * single socket.
+ * <p>
+ * Commands are encoded with {@link Protocol} on the calling thread and queued. The first caller
+ * which finds no flush in progress writes everything queued so far with a single gathering write,
+ * so the commands of concurrent callers are coalesced into as few writes as possible. The
+ * {@link SocketChannel} is driven by a dedicated selector thread. Replies are matched to
+ * the commands in FIFO order and converted by the {@link Builder} of each {@link CommandObject},
+ * so every command of {@link CommandObjects} can be used as it is.
+ * <p>
+ * The connection handshake (HELLO/AUTH, CLIENT SETNAME/SETINFO and SELECT) is done exactly like
+ * {@link Connection} before the channel is switched to non-blocking mode. TLS is not supported.
+ * <p>
+ * Note: Blocking commands (e.g. BLPOP) delay the replies of all commands sent after them.
+ * Pub/Sub, MONITOR and transactions must not be used with this connection.
+ */
+public class AsyncConnection implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncConnection.class);
+
+  private static final int COMMAND_BUFFER_SIZE = 256;
+  private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+  private final HostAndPort hostAndPort;
+  private final SocketChannel channel;
+  private final Selector selector;
+  private final RedisProtocol protocol;
+  private final Thread eventLoop;
+
+  private final Object writeLock = new Object();
+  private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+  private final Queue<PendingReply<?>> pendingReplies = new ArrayDeque<>();
+  private boolean flushing = false; // guarded by writeLock
+
+  // accessed only by the event loop thread
+  private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+  private int scannedLimit = 0;
+  private int requiredLimit = 0;
+  private final ScannedBytesInputStream replyBytes = new ScannedBytesInputStream();
+  private final RedisInputStream replyStream = new RedisInputStream(replyBytes);
+
+  private volatile boolean closed = false;
+
+  public AsyncConnection(final HostAndPort hostAndPort) {
+    this(hostAndPort, DefaultJedisClientConfig.builder().build());
+  }
+
+  public AsyncConnection(final HostAndPort hostAndPort, final JedisClientConfig clientConfig) {
+    if (clientConfig.isSsl()) {
+      throw new JedisValidationException("SSL is not supported by " + getClass().getSimpleName());
+    }
+    this.hostAndPort = hostAndPort;
+
+    HostAndPort socketHostAndPort = hostAndPort;
+    HostAndPortMapper mapper = clientConfig.getHostAndPortMapper();
+    if (mapper != null) {
+      HostAndPort mapped = mapper.getHostAndPort(hostAndPort);
+      if (mapped != null) {
+        socketHostAndPort = mapped;
+      }
+    }
+
+    SocketChannel ch = null;
+    Selector sel = null;
+    try {
+      ch = SocketChannel.open();
+      ch.socket().setKeepAlive(true);
+      ch.socket().setTcpNoDelay(true);
+      ch.socket().connect(new InetSocketAddress(socketHostAndPort.getHost(),
+          socketHostAndPort.getPort()), clientConfig.getConnectionTimeoutMillis());
+      ch.socket().setSoTimeout(clientConfig.getSocketTimeoutMillis());
+
+      // handshake in blocking mode, with exactly the same semantics of Connection
+      final SocketChannel handshakeChannel = ch;
+      Connection handshake = new Connection(() -> handshakeChannel.socket(), clientConfig);
+      this.protocol = handshake.getRedisProtocol();
+
+      ch.configureBlocking(false);
+      sel = Selector.open();
+      ch.register(sel, SelectionKey.OP_READ);
+    } catch (IOException ioe) {
+      IOUtils.closeQuietly(sel);
+      IOUtils.closeQuietly(ch);
+      throw new JedisConnectionException("Failed to connect to " + hostAndPort, ioe);
+    } catch (RuntimeException re) {
+      IOUtils.closeQuietly(sel);
+      IOUtils.closeQuietly(ch);
+      throw re;
+    }
+    this.channel = ch;
+    this.selector = sel;
+
+    this.eventLoop = new Thread(this::runEventLoop, "jedis-async-" + hostAndPort);
+    this.eventLoop.setDaemon(true);
+    this.eventLoop.start();
+  }
+
+  @Override
+  public String toString() {
+    return "AsyncConnection{" + hostAndPort + "}";
+  }
+
+  public final HostAndPort getHostAndPort() {
+    return hostAndPort;
+  }
+
+  /**
+   * @return the protocol negotiated during the handshake; {@code null} means the server default
+   */
+  public final RedisProtocol getRedisProtocol() {
+    return protocol;
+  }
+
+  public boolean isConnected() {
+    return !closed && channel.isConnected();
+  }
+
+  public CompletableFuture<Object> executeCommand(final ProtocolCommand cmd) {
+    return executeCommand(new CommandArguments(cmd));
+  }
+
+  public CompletableFuture<Object> executeCommand(final CommandArguments args) {
+    return executeCommand(new CommandObject<>(args, BuilderFactory.RAW_OBJECT));
+  }
+
+  /**
+   * Sends the command without waiting for its reply.
+   * @param <T> type of the reply
+   * @param commandObject command
+   * @return a future which is completed with the built reply, or exceptionally with the error
+   * reply, a failure of the builder or a {@link JedisConnectionException}
+   */
+  public <T> CompletableFuture<T> executeCommand(final CommandObject<T> commandObject) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    final ByteBuffer encoded;
+    try {
+      encoded = encode(commandObject.getArguments());
+    } catch (RuntimeException re) {
+      future.completeExceptionally(re);
+      return future;
+    }
+
+    synchronized (writeLock) {
+      if (closed) {
+        future.completeExceptionally(new JedisConnectionException("Connection is closed."));
+        return future;
+      }
+      pendingReplies.add(new PendingReply<>(commandObject.getBuilder(), future));
+      writeQueue.add(encoded);
+      if (flushing) {
+        return future; // the current flusher picks it up
+      }
+      flushing = true;
+    }
+
+    try {
+      if (!flushQueued()) {
+        selector.wakeup(); // socket buffer is full, let the event loop wait for OP_WRITE
+      }
+    } catch (IOException ioe) {
+      // the event loop will find the broken channel and fail every pending reply
+      synchronized (writeLock) {
+        flushing = false;
+      }
+      selector.wakeup();
+    }
+    return future;
+  }
+
+  /**
+   * Writes the queued commands until the queue is empty or the socket buffer is full. Must only be
+   * called by the thread which has set {@link #flushing}; resets it before returning normally.
+   * @return {@code false} if the socket buffer is full
+   */
+  private boolean flushQueued() throws IOException {
+    while (true) {
+      final ByteBuffer[] batch;
+      synchronized (writeLock) {
+        if (writeQueue.isEmpty()) {
+          flushing = false;
+          return true;
+        }
+        batch = writeQueue.toArray(new ByteBuffer[writeQueue.size()]);
+      }
+
+      channel.write(batch);
+
+      synchronized (writeLock) {
+        ByteBuffer head;
+        while ((head = writeQueue.peek()) != null && !head.hasRemaining()) {
+          writeQueue.poll();
+        }
+        if (batch[batch.length - 1].hasRemaining()) {
+          flushing = false;
+          return false;
+        }
+      }
+    }
+  }
+
+  private static ByteBuffer encode(CommandArguments args) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(COMMAND_BUFFER_SIZE);
+    RedisOutputStream os = new RedisOutputStream(bytes, COMMAND_BUFFER_SIZE);
+    Protocol.sendCommand(os, args);
+    try {
+      os.flush();
+    } catch (IOException ioe) {
+      throw new JedisConnectionException(ioe); // ByteArrayOutputStream doesn't throw
+    }
+    return ByteBuffer.wrap(bytes.toByteArray());
+  }
+
+  @Override
+  public void close() {
+    synchronized (writeLock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    selector.wakeup();
+    if (Thread.currentThread() != eventLoop) {
+      try {
+        eventLoop.join();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void runEventLoop() {
+    Exception failure = null;
+    try {
+      SelectionKey key = channel.keyFor(selector);
+      while (!closed) {
+        synchronized (writeLock) {
+          key.interestOps(writeQueue.isEmpty() || flushing ? SelectionKey.OP_READ
+              : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+        selector.select();
+        if (closed) {
+          break;
+        }
+        Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+        while (selected.hasNext()) {
+          SelectionKey k = selected.next();
+          selected.remove();
+          if (k.isValid() && k.isWritable()) {
+            writeQueued();
+          }
+          if (k.isValid() && k.isReadable()) {
+            readAvailable();
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      log.debug("Error in the event loop of {}", this, e);
+      failure = e;
+    } finally {
+      shutdown(failure);
+    }
+  }
+
+  private void writeQueued() throws IOException {
+    synchronized (writeLock) {
+      if (flushing) {
+        return;
+      }
+      flushing = true;
+    }
+    flushQueued();
+  }
+
+  private void readAvailable() throws IOException {
+    while (true) {
+      if (!readBuffer.hasRemaining()) {
+        growReadBuffer();
+      }
+      int read = channel.read(readBuffer);
+      if (read < 0) {
+        throw new JedisConnectionException("Unexpected end of stream.");
+      }
+      if (read == 0) {
+        return;
+      }
+      processReplies();
+    }
+  }
+
+  /**
+   * The read buffer is kept in write mode: bytes in [0, position) are received, bytes in
+   * [0, scannedLimit) form complete replies and bytes before the read position of
+   * {@link #replyStream} are already consumed.
+   */
+  private void processReplies() {
+    final byte[] buf = readBuffer.array();
+    final int received = readBuffer.position();
+    if (received < requiredLimit) {
+      return; // a bulk reply is still incomplete
+    }
+
+    while (true) {
+      int end = scanReply(buf, scannedLimit, received);
+      if (end < 0) {
+        break;
+      }
+      final boolean push = buf[scannedLimit] == Protocol.GREATER_THAN_BYTE;
+      scannedLimit = end;
+      requiredLimit = 0;
+
+      if (push) {
+        // out-of-band RESP3 push message (e.g. client tracking invalidation)
+        Protocol.read(replyStream);
+        continue;
+      }
+
+      PendingReply<?> pending;
+      synchronized (writeLock) {
+        pending = pendingReplies.poll();
+      }
+      if (pending == null) {
+        throw new JedisConnectionException("Received a reply without a pending command.");
+      }
+      pending.complete(replyStream);
+    }
+  }
+
+  private void growReadBuffer() {
+    final int from = replyBytes.position;
+    final int received = readBuffer.position();
+    final int used = received - from;
+
+    ByteBuffer target = readBuffer;
+    if (from == 0 || used > readBuffer.capacity() / 2) {
+      target = ByteBuffer.allocate(Math.max(readBuffer.capacity() * 2, used + READ_BUFFER_SIZE));
+    }
+    System.arraycopy(readBuffer.array(), from, target.array(), 0, used);
+    ((Buffer) target).position(used);
+    readBuffer = target;
+    scannedLimit -= from;
+    requiredLimit = requiredLimit > 0 ? requiredLimit - from : 0;
+    replyBytes.position = 0;
+  }
+
+  /**
+   * Finds the end of the first complete reply.
+   * @return end offset (exclusive) of the reply starting at {@code start}; or {@code -1} if more
+   * bytes are required
+   */
+  private int scanReply(final byte[] buf, final int start, final int limit) {
+    int pos = start;
+    long pending = 1;
+    while (pending > 0) {
+      if (pos >= limit) {
+        return -1;
+      }
+      final byte type = buf[pos++];
+      final int lineEnd = findCrLf(buf, pos, limit);
+      if (lineEnd < 0) {
+        return -1;
+      }
+      pending--;
+      switch (type) {
+        case Protocol.DOLLAR_BYTE:
+        case Protocol.EQUAL_BYTE:
+        case '!': {
+          final long len = parseLong(buf, pos, lineEnd);
+          pos = lineEnd + 2;
+          if (len >= 0) {
+            if (limit - pos < len + 2) {
+              requiredLimit = (int) (pos + len + 2);
+              return -1;
+            }
+            pos += (int) len + 2;
+          }
+          break;
+        }
+        case Protocol.ASTERISK_BYTE:
+        case Protocol.TILDE_BYTE:
+        case Protocol.GREATER_THAN_BYTE: {
+          final long num = parseLong(buf, pos, lineEnd);
+          if (num > 0) {
+            pending += num;
+          }
+          pos = lineEnd + 2;
+          break;
+        }
+        case Protocol.PERCENT_BYTE: {
+          final long num = parseLong(buf, pos, lineEnd);
+          if (num > 0) {
+            pending += 2 * num;
+          }
+          pos = lineEnd + 2;
+          break;
+        }
+        case '|': { // attributes are followed by the actual reply
+          pending += 2 * parseLong(buf, pos, lineEnd) + 1;
+          pos = lineEnd + 2;
+          break;
+        }
+        default:
+          pos = lineEnd + 2;
+      }
+    }
+    return pos;
+  }
+
+  private static int findCrLf(final byte[] buf, int pos, final int limit) {
+    for (; pos < limit - 1; pos++) {
+      if (buf[pos] == '\r' && buf[pos + 1] == '\n') {
+        return pos;
+      }
+    }
+    return -1;
+  }
+
+  private static long parseLong(final byte[] buf, int pos, final int end) {
+    final boolean negative = buf[pos] == '-';
+    if (negative) {
+      pos++;
+    }
+    long value = 0;
+    for (; pos < end; pos++) {
+      value = value * 10 + (buf[pos] - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  private void shutdown(Exception cause) {
+    synchronized (writeLock) {
+      closed = true;
+    }
+    IOUtils.closeQuietly(channel);
+    IOUtils.closeQuietly(selector);
+
+    JedisConnectionException failure = cause instanceof JedisConnectionException
+        ? (JedisConnectionException) cause : cause != null
+        ? new JedisConnectionException(cause) : new JedisConnectionException("Connection is closed.");
+    synchronized (writeLock) {
+      PendingReply<?> pending;
+      while ((pending = pendingReplies.poll()) != null) {
+        pending.future.completeExceptionally(failure);
+      }
+      writeQueue.clear();
+    }
+  }
+
+  private static class PendingReply<T> {
+
+    private final Builder<T> builder;
+    private final CompletableFuture<T> future;
+
+    PendingReply(Builder<T> builder, CompletableFuture<T> future) {
+      this.builder = builder;
+      this.future = future;
+    }
+
+    void complete(RedisInputStream is) {
+      final Object reply;
+      try {
+        reply = Protocol.read(is);
+      } catch (JedisDataException error) {
+        future.completeExceptionally(error);
+        return;
+      }
+      try {
+        future.complete(builder.build(reply));
+      } catch (RuntimeException re) {
+        future.completeExceptionally(re);
+      }
+    }
+  }
+
+  /**
+   * Serves the bytes of the complete replies in the read buffer, so that {@link Protocol#read}
+   * never has to wait for more data.
+   */
+  private class ScannedBytesInputStream extends InputStream {
+
+    private int position = 0;
+
+    @Override
+    public int read() {
+      if (position >= scannedLimit) {
+        return -1;
+      }
+      return readBuffer.array()[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      final int available = scannedLimit - position;
+      if (available <= 0) {
+        return -1;
+      }
+      final int n = Math.min(available, len);
+      System.arraycopy(readBuffer.array(), position, b, off, n);
+      position += n;
+      return n;
+    }
+  }
+}
@@ -2,15 +2,16 @@ package redis.clients.jedis;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.resps.*;
 import redis.clients.jedis.resps.LCSMatchResult.MatchedPosition;
 import redis.clients.jedis.resps.LCSMatchResult.Position;
-import redis.clients.jedis.util.DoublePrecision;
 import redis.clients.jedis.util.JedisByteHashMap;
 import redis.clients.jedis.util.KeyValue;
+import redis.clients.jedis.util.NumericEncoder;
 import redis.clients.jedis.util.SafeEncoder;
 
 public final class BuilderFactory {
@@ -98,7 +99,10 @@ public final class BuilderFactory {
     public Double build(Object data) {
       if (data == null) return null;
       else if (data instanceof Double) return (Double) data;
-      else return DoublePrecision.parseFloatingPointNumber(STRING.build(data));
+      else {
+        final byte[] bytes = (byte[]) data;
+        return NumericEncoder.decodeDouble(bytes, 0, bytes.length);
+      }
     }
 
     @Override
@@ -178,13 +182,24 @@ public final class BuilderFactory {
     }
   };
 
-  public static final Builder<List<byte[]>> BINARY_LIST = new Builder<List<byte[]>>() {
+  public static final Builder<List<byte[]>> BINARY_LIST = new FlatReplyBuilder<List<byte[]>>() {
     @Override
     @SuppressWarnings("unchecked")
     public List<byte[]> build(Object data) {
       return (List<byte[]>) data;
     }
 
+    @Override
+    public List<byte[]> build(FlatReply reply, int node) {
+      if (reply.isNull(node)) return null;
+      final int count = reply.getElementCount(node);
+      final List<byte[]> list = new ArrayList<>(count);
+      for (int i = 0, child = node + 1; i < count; i++, child = reply.next(child)) {
+        list.add(reply.getBytes(child));
+      }
+      return list;
+    }
+
     @Override
     public String toString() {
       return "List<byte[]>";
@@ -262,7 +277,7 @@ public final class BuilderFactory {
     }
   };
 
-  public static final Builder<List<String>> STRING_LIST = new Builder<List<String>>() {
+  public static final Builder<List<String>> STRING_LIST = new FlatReplyBuilder<List<String>>() {
     @Override
     @SuppressWarnings("unchecked")
     public List<String> build(Object data) {
@@ -270,6 +285,17 @@ public final class BuilderFactory {
       return ((List<Object>) data).stream().map(STRING::build).collect(Collectors.toList());
     }
 
+    @Override
+    public List<String> build(FlatReply reply, int node) {
+      if (reply.isNull(node)) return null;
+      final int count = reply.getElementCount(node);
+      final List<String> list = new ArrayList<>(count);
+      for (int i = 0, child = node + 1; i < count; i++, child = reply.next(child)) {
+        list.add(reply.getString(child));
+      }
+      return list;
+    }
+
     @Override
     public String toString() {
       return "List<String>";
@@ -290,7 +316,7 @@ public final class BuilderFactory {
     }
   };
 
-  public static final Builder<Map<byte[], byte[]>> BINARY_MAP = new Builder<Map<byte[], byte[]>>() {
+  public static final Builder<Map<byte[], byte[]>> BINARY_MAP = new FlatReplyBuilder<Map<byte[], byte[]>>() {
     @Override
     @SuppressWarnings("unchecked")
     public Map<byte[], byte[]> build(Object data) {
@@ -315,13 +341,28 @@ public final class BuilderFactory {
       }
     }
 
+    @Override
+    public Map<byte[], byte[]> build(FlatReply reply, int node) {
+      final int count = reply.getElementCount(node);
+      if (count == 0) return Collections.emptyMap();
+
+      // RESP2 flat list and RESP3 map have the same layout of key and value nodes
+      final Map<byte[], byte[]> map = new JedisByteHashMap();
+      for (int i = 0, child = node + 1; i < count; i += 2) {
+        final int value = reply.next(child);
+        map.put(reply.getBytes(child), reply.getBytes(value));
+        child = reply.next(value);
+      }
+      return map;
+    }
+
     @Override
     public String toString() {
       return "Map<byte[], byte[]>";
     }
   };
 
-  public static final Builder<Map<String, String>> STRING_MAP = new Builder<Map<String, String>>() {
+  public static final Builder<Map<String, String>> STRING_MAP = new FlatReplyBuilder<Map<String, String>>() {
     @Override
     @SuppressWarnings("unchecked")
     public Map<String, String> build(Object data) {
@@ -346,6 +387,21 @@ public final class BuilderFactory {
       }
     }
 
+    @Override
+    public Map<String, String> build(FlatReply reply, int node) {
+      final int count = reply.getElementCount(node);
+      if (count == 0) return Collections.emptyMap();
+
+      // RESP2 flat list and RESP3 map have the same layout of key and value nodes
+      final Map<String, String> map = new HashMap<>(count / 2, 1f);
+      for (int i = 0, child = node + 1; i < count; i += 2) {
+        final int value = reply.next(child);
+        map.put(reply.getString(child), reply.getString(value));
+        child = reply.next(value);
+      }
+      return map;
+    }
+
     @Override
     public String toString() {
       return "Map<String, String>";
@@ -591,6 +647,76 @@ public final class BuilderFactory {
     }
   };
 
+  public static final StreamingBuilder<String> STRING_STREAM = new StreamingBuilder<String>() {
+    @Override
+    public String build(Object element) {
+      return STRING.build(element);
+    }
+
+    @Override
+    public String toString() {
+      return "Stream<String>";
+    }
+  };
+
+  public static final StreamingBuilder<byte[]> BINARY_STREAM = new StreamingBuilder<byte[]>() {
+    @Override
+    public byte[] build(Object element) {
+      return BINARY.build(element);
+    }
+
+    @Override
+    public String toString() {
+      return "Stream<byte[]>";
+    }
+  };
+
+  public static final StreamingBuilder<KeyValue<String, String>> STRING_PAIR_STREAM
+      = new StreamingBuilder<KeyValue<String, String>>() {
+    @Override
+    public Consumer<Object> newElementConsumer(Consumer<? super KeyValue<String, String>> consumer) {
+      return pairing(consumer);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public KeyValue<String, String> build(Object element) {
+      if (element instanceof KeyValue) {
+        KeyValue kv = (KeyValue) element;
+        return KeyValue.of(STRING.build(kv.getKey()), STRING.build(kv.getValue()));
+      }
+      List<Object> l = (List<Object>) element;
+      return KeyValue.of(STRING.build(l.get(0)), STRING.build(l.get(1)));
+    }
+
+    @Override
+    public String toString() {
+      return "Stream<KeyValue<String, String>>";
+    }
+  };
+
+  public static final StreamingBuilder<Tuple> TUPLE_STREAM = new StreamingBuilder<Tuple>() {
+    @Override
+    public Consumer<Object> newElementConsumer(Consumer<? super Tuple> consumer) {
+      return pairing(consumer);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Tuple build(Object element) {
+      if (element instanceof KeyValue) {
+        KeyValue kv = (KeyValue) element;
+        return new Tuple(BINARY.build(kv.getKey()), DOUBLE.build(kv.getValue()));
+      }
+      return TUPLE.build(element);
+    }
+
+    @Override
+    public String toString() {
+      return "Stream<Tuple>";
+    }
+  };
+
   public static final Builder<KeyValue<String, Tuple>> KEYED_TUPLE = new Builder<KeyValue<String, Tuple>>() {
     @Override
     @SuppressWarnings("unchecked")
@@ -12,6 +12,10 @@ public class ClusterCommandArguments extends CommandArguments {
     super(command);
   }
 
+  public ClusterCommandArguments(ProtocolCommand command, boolean encoded) {
+    super(command, encoded);
+  }
+
   public int getCommandHashSlot() {
     return commandHashSlot;
   }
@@ -1,8 +1,11 @@
 package redis.clients.jedis;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
 import redis.clients.jedis.providers.ClusterConnectionProvider;
 import redis.clients.jedis.util.IOUtils;
 
@@ -36,7 +39,7 @@ public class ClusterPipeline extends MultiNodePipelineBase {
   }
 
   public ClusterPipeline(ClusterConnectionProvider provider, ClusterCommandObjects commandObjects) {
-    super(commandObjects);
+    super(commandObjects, true);
     this.provider = provider;
   }
 
@@ -65,6 +68,21 @@ public class ClusterPipeline extends MultiNodePipelineBase {
     return provider.getConnection(nodeKey);
   }
 
+  @Override
+  protected void renewSlotCache(List<JedisMovedDataException> redirections) {
+    for (JedisMovedDataException moved : redirections) {
+      if (!provider.assignMovedSlot(moved)) {
+        provider.renewSlotCache();
+        return;
+      }
+    }
+  }
+
+  @Override
+  protected ExecutorService getSyncExecutor() {
+    return provider.getPipelineExecutor();
+  }
+
   /**
    * This method must be called after constructor, if graph commands are going to be used.
    */
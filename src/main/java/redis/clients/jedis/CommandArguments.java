@@ -1,5 +1,6 @@
 package redis.clients.jedis;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -12,49 +13,98 @@ import redis.clients.jedis.search.RediSearchUtil;
 
 public class CommandArguments implements Iterable<Rawable> {
 
-  private final ArrayList<Rawable> args;
+  private static final boolean ENCODED_BY_DEFAULT = Boolean.parseBoolean(
+      System.getProperty("jedis.arguments.encoded", "false"));
+
+  private final ProtocolCommand command;
+  private final ArrayList<Rawable> args; // null if encoded
+  private final ArgumentEncoder encoded; // null if not encoded
 
   private boolean blocking;
 
+  private PreparedCommand prepared;
+
   private CommandArguments() {
     throw new InstantiationError();
   }
 
   public CommandArguments(ProtocolCommand command) {
-    args = new ArrayList<>();
-    args.add(command);
+    this(command, ENCODED_BY_DEFAULT);
+  }
+
+  /**
+   * @param command the command
+   * @param encoded if true, the arguments are encoded right away into a per-thread arena instead of
+   * being kept as separate {@link Rawable}s; this avoids allocating a wrapper and a byte array for
+   * every argument. The default is set by the system property {@code jedis.arguments.encoded}.
+   */
+  public CommandArguments(ProtocolCommand command, boolean encoded) {
+    this.command = command;
+    if (encoded) {
+      this.args = null;
+      this.encoded = new ArgumentEncoder();
+      this.encoded.add(command);
+    } else {
+      this.args = new ArrayList<>();
+      this.encoded = null;
+      args.add(command);
+    }
   }
 
   public ProtocolCommand getCommand() {
-    return (ProtocolCommand) args.get(0);
+    return command;
   }
 
   public CommandArguments add(Object arg) {
     if (arg == null) {
       throw new IllegalArgumentException("null is not a valid argument.");
     } else if (arg instanceof Rawable) {
-      args.add((Rawable) arg);
+      append((Rawable) arg);
     } else if (arg instanceof byte[]) {
-      args.add(RawableFactory.from((byte[]) arg));
+      append((byte[]) arg);
+    } else if (arg instanceof ByteBuffer) {
+      if (encoded != null) encoded.add((ByteBuffer) arg);
+      else args.add(RawableFactory.from((ByteBuffer) arg));
     } else if (arg instanceof Integer) {
-      args.add(RawableFactory.from((Integer) arg));
+      if (encoded != null) encoded.add((Integer) arg);
+      else args.add(RawableFactory.from((Integer) arg));
+    } else if (arg instanceof Long) {
+      if (encoded != null) encoded.add((Long) arg);
+      else args.add(RawableFactory.from((Long) arg));
     } else if (arg instanceof Double) {
-      args.add(RawableFactory.from((Double) arg));
+      if (encoded != null) encoded.add((Double) arg);
+      else args.add(RawableFactory.from((Double) arg));
     } else if (arg instanceof Boolean) {
-      args.add(RawableFactory.from((Boolean) arg ? 1 : 0));
+      if (encoded != null) encoded.add((Boolean) arg ? 1 : 0);
+      else args.add(RawableFactory.from((Boolean) arg ? 1 : 0));
     } else if (arg instanceof float[]) {
-      args.add(RawableFactory.from(RediSearchUtil.toByteArray((float[]) arg)));
+      append(RediSearchUtil.toByteArray((float[]) arg));
     } else if (arg instanceof String) {
-      args.add(RawableFactory.from((String) arg));
+      append((String) arg);
     } else if (arg instanceof GeoCoordinate) {
       GeoCoordinate geo = (GeoCoordinate) arg;
-      args.add(RawableFactory.from(geo.getLongitude() + "," + geo.getLatitude()));
+      append(geo.getLongitude() + "," + geo.getLatitude());
     } else {
-      args.add(RawableFactory.from(String.valueOf(arg)));
+      append(String.valueOf(arg));
     }
     return this;
   }
 
+  private void append(Rawable raw) {
+    if (encoded != null) encoded.add(raw);
+    else args.add(raw);
+  }
+
+  private void append(byte[] raw) {
+    if (encoded != null) encoded.add(raw);
+    else args.add(RawableFactory.from(raw));
+  }
+
+  private void append(String raw) {
+    if (encoded != null) encoded.add(raw);
+    else args.add(RawableFactory.from(raw));
+  }
+
   public CommandArguments addObjects(Object... args) {
     for (Object arg : args) {
       add(arg);
@@ -71,15 +121,15 @@ public class CommandArguments implements Iterable<Rawable> {
     if (key instanceof Rawable) {
       Rawable raw = (Rawable) key;
       processKey(raw.getRaw());
-      args.add(raw);
+      append(raw);
     } else if (key instanceof byte[]) {
       byte[] raw = (byte[]) key;
       processKey(raw);
-      args.add(RawableFactory.from(raw));
+      append(raw);
     } else if (key instanceof String) {
       String raw = (String) key;
       processKey(raw);
-      args.add(RawableFactory.from(raw));
+      append(raw);
     } else {
       throw new IllegalArgumentException("\"" + key.toString() + "\" is not a valid argument.");
     }
@@ -128,12 +178,33 @@ public class CommandArguments implements Iterable<Rawable> {
   }
 
   public int size() {
-    return args.size();
+    return encoded != null ? encoded.size() : args.size();
   }
 
+  /**
+   * In encoded mode, the arguments are decoded for the iteration, so this should be avoided on hot
+   * paths.
+   */
   @Override
   public Iterator<Rawable> iterator() {
-    return args.iterator();
+    return encoded != null ? encoded.toRawables().iterator() : args.iterator();
+  }
+
+  ArgumentEncoder getEncoded() {
+    return encoded;
+  }
+
+  /**
+   * Sends these arguments with the pre-encoded parts of the template, if they have its size.
+   * @see PreparedCommand
+   */
+  public CommandArguments prepared(PreparedCommand prepared) {
+    this.prepared = prepared;
+    return this;
+  }
+
+  public PreparedCommand getPreparedCommand() {
+    return prepared;
   }
 
   public boolean isBlocking() {
@@ -3,6 +3,7 @@ package redis.clients.jedis;
 import static redis.clients.jedis.Protocol.Command.*;
 import static redis.clients.jedis.Protocol.Keyword.*;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
@@ -61,6 +62,16 @@ public class CommandObjects {
     return new CommandArguments(command);
   }
 
+  // templates of the hottest commands, see PreparedCommand
+  private static final PreparedCommand GET_TEMPLATE = new PreparedCommand(Command.GET,
+      PreparedCommand.VARIABLE);
+  private static final PreparedCommand SET_TEMPLATE = new PreparedCommand(Command.SET,
+      PreparedCommand.VARIABLE, PreparedCommand.VARIABLE);
+  private static final PreparedCommand HGET_TEMPLATE = new PreparedCommand(HGET,
+      PreparedCommand.VARIABLE, PreparedCommand.VARIABLE);
+  private static final PreparedCommand HSET_TEMPLATE = new PreparedCommand(HSET,
+      PreparedCommand.VARIABLE, PreparedCommand.VARIABLE, PreparedCommand.VARIABLE);
+
   private final CommandObject<String> PING_COMMAND_OBJECT = new CommandObject<>(commandArguments(PING), BuilderFactory.STRING);
 
   public final CommandObject<String> ping() {
@@ -421,7 +432,7 @@ public class CommandObjects {
 
   // String commands
   public final CommandObject<String> set(String key, String value) {
-    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value), BuilderFactory.STRING);
+    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).prepared(SET_TEMPLATE), BuilderFactory.STRING);
   }
 
   public final CommandObject<String> set(String key, String value, SetParams params) {
@@ -429,7 +440,11 @@ public class CommandObjects {
   }
 
   public final CommandObject<String> set(byte[] key, byte[] value) {
-    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value), BuilderFactory.STRING);
+    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).prepared(SET_TEMPLATE), BuilderFactory.STRING);
+  }
+
+  public final CommandObject<String> set(byte[] key, ByteBuffer value) {
+    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).prepared(SET_TEMPLATE), BuilderFactory.STRING);
   }
 
   public final CommandObject<String> set(byte[] key, byte[] value, SetParams params) {
@@ -437,7 +452,7 @@ public class CommandObjects {
   }
 
   public final CommandObject<String> get(String key) {
-    return new CommandObject<>(commandArguments(Command.GET).key(key), BuilderFactory.STRING);
+    return new CommandObject<>(commandArguments(Command.GET).key(key).prepared(GET_TEMPLATE), BuilderFactory.STRING);
   }
 
   public final CommandObject<String> setGet(String key, String value) {
@@ -458,7 +473,7 @@ public class CommandObjects {
   }
 
   public final CommandObject<byte[]> get(byte[] key) {
-    return new CommandObject<>(commandArguments(Command.GET).key(key), BuilderFactory.BINARY);
+    return new CommandObject<>(commandArguments(Command.GET).key(key).prepared(GET_TEMPLATE), BuilderFactory.BINARY);
   }
 
   public final CommandObject<byte[]> setGet(byte[] key, byte[] value) {
@@ -985,7 +1000,7 @@ public class CommandObjects {
 
   // Hash commands
   public final CommandObject<Long> hset(String key, String field, String value) {
-    return new CommandObject<>(commandArguments(HSET).key(key).add(field).add(value), BuilderFactory.LONG);
+    return new CommandObject<>(commandArguments(HSET).key(key).add(field).add(value).prepared(HSET_TEMPLATE), BuilderFactory.LONG);
   }
 
   public final CommandObject<Long> hset(String key, Map<String, String> hash) {
@@ -993,7 +1008,7 @@ public class CommandObjects {
   }
 
   public final CommandObject<String> hget(String key, String field) {
-    return new CommandObject<>(commandArguments(HGET).key(key).add(field), BuilderFactory.STRING);
+    return new CommandObject<>(commandArguments(HGET).key(key).add(field).prepared(HGET_TEMPLATE), BuilderFactory.STRING);
   }
 
   public final CommandObject<Long> hsetnx(String key, String field, String value) {
@@ -1009,7 +1024,11 @@ public class CommandObjects {
   }
 
   public final CommandObject<Long> hset(byte[] key, byte[] field, byte[] value) {
-    return new CommandObject<>(commandArguments(HSET).key(key).add(field).add(value), BuilderFactory.LONG);
+    return new CommandObject<>(commandArguments(HSET).key(key).add(field).add(value).prepared(HSET_TEMPLATE), BuilderFactory.LONG);
+  }
+
+  public final CommandObject<Long> hset(byte[] key, byte[] field, ByteBuffer value) {
+    return new CommandObject<>(commandArguments(HSET).key(key).add(field).add(value).prepared(HSET_TEMPLATE), BuilderFactory.LONG);
   }
 
   public final CommandObject<Long> hset(byte[] key, Map<byte[], byte[]> hash) {
@@ -1017,7 +1036,7 @@ public class CommandObjects {
   }
 
   public final CommandObject<byte[]> hget(byte[] key, byte[] field) {
-    return new CommandObject<>(commandArguments(HGET).key(key).add(field), BuilderFactory.BINARY);
+    return new CommandObject<>(commandArguments(HGET).key(key).add(field).prepared(HGET_TEMPLATE), BuilderFactory.BINARY);
   }
 
   public final CommandObject<Long> hsetnx(byte[] key, byte[] field, byte[] value) {
@@ -3111,7 +3130,7 @@ public class CommandObjects {
 
   // RediSearch commands
   public final CommandObject<Long> hsetObject(String key, String field, Object value) {
-    return new CommandObject<>(commandArguments(HSET).key(key).add(field).add(value), BuilderFactory.LONG);
+    return new CommandObject<>(commandArguments(HSET).key(key).add(field).add(value).prepared(HSET_TEMPLATE), BuilderFactory.LONG);
   }
 
   public final CommandObject<Long> hsetObject(String key, Map<String, Object> hash) {
@@ -11,6 +11,9 @@ import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 import redis.clients.jedis.Protocol.Command;
@@ -37,6 +40,10 @@ public class Connection implements Closeable {
   private int soTimeout = 0;
   private int infiniteSoTimeout = 0;
   private boolean broken = false;
+  private FlatReply flatReply = null;
+  private int ignoredReplies = 0;
+  private boolean replied = false;
+  private long lastReplyNanos;
 
   public Connection() {
     this(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT);
@@ -134,11 +141,11 @@ public class Connection implements Closeable {
     final CommandArguments args = commandObject.getArguments();
     sendCommand(args);
     if (!args.isBlocking()) {
-      return commandObject.getBuilder().build(getOne());
+      return readReply(commandObject.getBuilder());
     } else {
       try {
         setTimeoutInfinite();
-        return commandObject.getBuilder().build(getOne());
+        return readReply(commandObject.getBuilder());
       } finally {
         rollbackTimeout();
       }
@@ -149,6 +156,16 @@ public class Connection implements Closeable {
     sendCommand(new CommandArguments(cmd));
   }
 
+  /**
+   * Sends ASKING without waiting for its reply, so that it is written in one flush with the next
+   * command. Its reply is read, and discarded, right before the reply of that command; so there must
+   * not be replies of pipelined commands left to read.
+   */
+  public void sendAsking() {
+    sendCommand(Protocol.Command.ASKING);
+    ignoredReplies++;
+  }
+
   public void sendCommand(final ProtocolCommand cmd, Rawable keyword) {
     sendCommand(new CommandArguments(cmd).add(keyword));
   }
@@ -198,6 +215,8 @@ public class Connection implements Closeable {
         inputStream = new RedisInputStream(socket.getInputStream());
 
         broken = false; // unset broken status when connection is (re)initialized
+        ignoredReplies = 0;
+        replied = false;
 
       } catch (JedisConnectionException jce) {
 
@@ -263,6 +282,36 @@ public class Connection implements Closeable {
     broken = true;
   }
 
+  /**
+   * Checks the connection without a round trip to the server: it must be connected and not broken,
+   * and there must be no unread data, which could only be the reply of some earlier command. A
+   * connection closed by the server is only noticed by reading from it.
+   * @return {@code true} if the connection looks usable
+   */
+  public boolean isHealthy() {
+    if (broken || ignoredReplies > 0 || !isConnected()) {
+      return false;
+    }
+    try {
+      return inputStream.available() == 0;
+    } catch (IOException ioe) {
+      return false;
+    }
+  }
+
+  /**
+   * @param millis period to look back
+   * @return {@code true} if a reply was read from the server within the period
+   */
+  public boolean hasReplyWithin(final long millis) {
+    return replied && System.nanoTime() - lastReplyNanos < TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  private void replied() {
+    lastReplyNanos = System.nanoTime();
+    replied = true;
+  }
+
   public String getStatusCodeReply() {
     flush();
     final byte[] resp = (byte[]) readProtocolWithCheckingBroken();
@@ -332,13 +381,114 @@ public class Connection implements Closeable {
     return readProtocolWithCheckingBroken();
   }
 
-  protected void flush() {
+  /**
+   * Sends the command and passes every item of its reply to the consumer as soon as the item is
+   * read, without building the whole reply.
+   * <p>
+   * If the consumer throws, the rest of the reply can't be read anymore and the connection is marked
+   * as broken.
+   * @return number of elements of the reply, or -1 if the reply is null
+   */
+  public <E> int executeCommand(final CommandArguments args, final StreamingBuilder<E> builder,
+      final Consumer<? super E> consumer) {
+    sendCommand(args);
+    if (!args.isBlocking()) {
+      return readStreaming(builder, consumer);
+    } else {
+      try {
+        setTimeoutInfinite();
+        return readStreaming(builder, consumer);
+      } finally {
+        rollbackTimeout();
+      }
+    }
+  }
+
+  /**
+   * Sends the command and reads its bulk reply, or every bulk element of its aggregate reply,
+   * straight into the buffers given by the supplier.
+   * @see Protocol#readBulkReplies(RedisInputStream, IntFunction, Consumer)
+   */
+  public int executeCommand(final CommandArguments args, final IntFunction<ByteBuffer> bufferSupplier,
+      final Consumer<ByteBuffer> consumer) {
+    sendCommand(args);
+    flush();
+    if (broken) {
+      throw new JedisConnectionException("Attempting to read from a broken connection");
+    }
+
+    try {
+      final int count = Protocol.readBulkReplies(inputStream, bufferSupplier, consumer);
+      replied();
+      return count;
+    } catch (JedisConnectionException exc) {
+      broken = true;
+      throw exc;
+    }
+  }
+
+  private <E> int readStreaming(final StreamingBuilder<E> builder, final Consumer<? super E> consumer) {
+    flush();
+    if (broken) {
+      throw new JedisConnectionException("Attempting to read from a broken connection");
+    }
+
+    final Consumer<Object> elementConsumer = builder.newElementConsumer(consumer);
+    try {
+      final int count = Protocol.readStreaming(inputStream, element -> {
+        try {
+          elementConsumer.accept(element);
+        } catch (RuntimeException e) {
+          broken = true;
+          throw e;
+        }
+      });
+      replied();
+      return count;
+    } catch (JedisConnectionException exc) {
+      broken = true;
+      throw exc;
+    }
+  }
+
+  private <T> T readReply(final Builder<T> builder) {
+    if (flatReply != null && builder instanceof FlatReplyBuilder) {
+      flush();
+      readFlatReplyWithCheckingBroken();
+      return ((FlatReplyBuilder<T>) builder).build(flatReply, 0);
+    }
+    return builder.build(getOne());
+  }
+
+  private void readFlatReplyWithCheckingBroken() {
+    if (broken) {
+      throw new JedisConnectionException("Attempting to read from a broken connection");
+    }
+
+    try {
+      Protocol.read(inputStream, flatReply);
+      replied();
+    } catch (JedisConnectionException exc) {
+      broken = true;
+      throw exc;
+    }
+  }
+
+  public void flush() {
     try {
       outputStream.flush();
     } catch (IOException ex) {
       broken = true;
       throw new JedisConnectionException(ex);
     }
+    while (ignoredReplies > 0) {
+      ignoredReplies--;
+      try {
+        readProtocolWithCheckingBroken();
+      } catch (JedisDataException ignored) {
+        // the reply of the next command tells what went wrong
+      }
+    }
   }
 
   protected Object readProtocolWithCheckingBroken() {
@@ -347,7 +497,9 @@ public class Connection implements Closeable {
     }
 
     try {
-      return Protocol.read(inputStream);
+      final Object reply = Protocol.read(inputStream);
+      replied();
+      return reply;
 //      Object read = Protocol.read(inputStream);
 //      System.out.println(SafeEncoder.encodeObject(read));
 //      return read;
@@ -387,23 +539,32 @@ public class Connection implements Closeable {
     return true;
   }
 
+  /**
+   * Sends all commands of the handshake before reading any reply, so that it takes a single round
+   * trip. The replies of HELLO, AUTH and SELECT are checked; errors replied to CLIENT SETNAME and
+   * CLIENT SETINFO are ignored, like before.
+   */
   private void initializeFromClientConfig(final JedisClientConfig config) {
+    if (config.isFlatReplies()) {
+      flatReply = new FlatReply();
+    }
     try {
       connect();
 
       protocol = config.getRedisProtocol();
 
+      final int authReplies;
       final Supplier<RedisCredentials> credentialsProvider = config.getCredentialsProvider();
       if (credentialsProvider instanceof RedisCredentialsProvider) {
         final RedisCredentialsProvider redisCredentialsProvider = (RedisCredentialsProvider) credentialsProvider;
         try {
           redisCredentialsProvider.prepare();
-          helloOrAuth(protocol, redisCredentialsProvider.get());
+          authReplies = sendHelloOrAuth(protocol, redisCredentialsProvider.get());
         } finally {
           redisCredentialsProvider.cleanUp();
         }
       } else {
-        helloOrAuth(protocol, credentialsProvider != null ? credentialsProvider.get()
+        authReplies = sendHelloOrAuth(protocol, credentialsProvider != null ? credentialsProvider.get()
             : new DefaultRedisCredentials(config.getUser(), config.getPassword()));
       }
 
@@ -438,11 +599,18 @@ public class Connection implements Closeable {
       for (CommandArguments arg : fireAndForgetMsg) {
         sendCommand(arg);
       }
-      getMany(fireAndForgetMsg.size());
 
       int dbIndex = config.getDatabase();
       if (dbIndex > 0) {
-        select(dbIndex);
+        sendCommand(Command.SELECT, Protocol.toByteArray(dbIndex));
+      }
+
+      List<Object> replies = getMany(authReplies + fireAndForgetMsg.size() + (dbIndex > 0 ? 1 : 0));
+      for (int i = 0; i < authReplies; i++) {
+        throwIfError(replies.get(i));
+      }
+      if (dbIndex > 0) {
+        throwIfError(replies.get(replies.size() - 1));
       }
 
     } catch (JedisException je) {
@@ -455,14 +623,24 @@ public class Connection implements Closeable {
     }
   }
 
-  private void helloOrAuth(final RedisProtocol protocol, final RedisCredentials credentials) {
+  private static void throwIfError(final Object reply) {
+    if (reply instanceof JedisDataException) {
+      throw (JedisDataException) reply;
+    }
+  }
+
+  /**
+   * Sends HELLO and/or AUTH without reading the replies.
+   * @return number of replies to read
+   */
+  private int sendHelloOrAuth(final RedisProtocol protocol, final RedisCredentials credentials) {
 
     if (credentials == null || credentials.getPassword() == null) {
       if (protocol != null) {
         sendCommand(Command.HELLO, encode(protocol.version()));
-        getOne();
+        return 1;
       }
-      return;
+      return 0;
     }
 
     // Source: https://stackoverflow.com/a/9670279/4021802
@@ -476,12 +654,11 @@ public class Connection implements Closeable {
         if (credentials.getUser() != null) {
           sendCommand(Command.HELLO, encode(protocol.version()),
               Keyword.AUTH.getRaw(), encode(credentials.getUser()), rawPass);
-          getOne(); // Map
+          return 1; // Map
         } else {
           sendCommand(Command.AUTH, rawPass);
-          getStatusCodeReply(); // OK
           sendCommand(Command.HELLO, encode(protocol.version()));
-          getOne(); // Map
+          return 2; // OK, Map
         }
       } else { // protocol == null
         if (credentials.getUser() != null) {
@@ -489,7 +666,7 @@ public class Connection implements Closeable {
         } else {
           sendCommand(Command.AUTH, rawPass);
         }
-        getStatusCodeReply(); // OK
+        return 1; // OK
       }
       /// <-- actual HELLO or AUTH
     } finally {
@@ -74,7 +74,14 @@ public class ConnectionFactory implements PooledObjectFactory<Connection> {
     final Connection jedis = pooledConnection.getObject();
     try {
       // check HostAndPort ??
-      return jedis.isConnected() && jedis.ping();
+      if (!jedis.isHealthy()) {
+        return false;
+      }
+      final int validationWindowMillis = clientConfig.getValidationWindowMillis();
+      if (validationWindowMillis > 0 && jedis.hasReplyWithin(validationWindowMillis)) {
+        return true;
+      }
+      return jedis.ping();
     } catch (final Exception e) {
       logger.error("Error while validating pooled Connection object.", e);
       return false;
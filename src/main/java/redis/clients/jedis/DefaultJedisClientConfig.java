@@ -26,11 +26,18 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
   private final ClientSetInfoConfig clientSetInfoConfig;
 
+  private final boolean flatReplies;
+
+  private final int validationWindowMillis;
+
+  private final SslHandshakeListener sslHandshakeListener;
+
   private DefaultJedisClientConfig(RedisProtocol protocol, int connectionTimeoutMillis, int soTimeoutMillis,
       int blockingSocketTimeoutMillis, Supplier<RedisCredentials> credentialsProvider, int database,
       String clientName, boolean ssl, SSLSocketFactory sslSocketFactory, SSLParameters sslParameters,
       HostnameVerifier hostnameVerifier, HostAndPortMapper hostAndPortMapper,
-      ClientSetInfoConfig clientSetInfoConfig) {
+      ClientSetInfoConfig clientSetInfoConfig, boolean flatReplies, int validationWindowMillis,
+      SslHandshakeListener sslHandshakeListener) {
     this.redisProtocol = protocol;
     this.connectionTimeoutMillis = connectionTimeoutMillis;
     this.socketTimeoutMillis = soTimeoutMillis;
@@ -44,6 +51,9 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     this.hostnameVerifier = hostnameVerifier;
     this.hostAndPortMapper = hostAndPortMapper;
     this.clientSetInfoConfig = clientSetInfoConfig;
+    this.flatReplies = flatReplies;
+    this.validationWindowMillis = validationWindowMillis;
+    this.sslHandshakeListener = sslHandshakeListener;
   }
 
   @Override
@@ -122,6 +132,21 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return clientSetInfoConfig;
   }
 
+  @Override
+  public boolean isFlatReplies() {
+    return flatReplies;
+  }
+
+  @Override
+  public int getValidationWindowMillis() {
+    return validationWindowMillis;
+  }
+
+  @Override
+  public SslHandshakeListener getSslHandshakeListener() {
+    return sslHandshakeListener;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -149,6 +174,12 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
     private ClientSetInfoConfig clientSetInfoConfig = ClientSetInfoConfig.DEFAULT;
 
+    private boolean flatReplies = false;
+
+    private int validationWindowMillis = 0;
+
+    private SslHandshakeListener sslHandshakeListener = null;
+
     private Builder() {
     }
 
@@ -160,7 +191,8 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
       return new DefaultJedisClientConfig(redisProtocol, connectionTimeoutMillis, socketTimeoutMillis,
           blockingSocketTimeoutMillis, credentialsProvider, database, clientName, ssl,
-          sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, clientSetInfoConfig);
+          sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, clientSetInfoConfig,
+          flatReplies, validationWindowMillis, sslHandshakeListener);
     }
 
     /**
@@ -255,6 +287,21 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
       this.clientSetInfoConfig = setInfoConfig;
       return this;
     }
+
+    public Builder flatReplies(boolean flatReplies) {
+      this.flatReplies = flatReplies;
+      return this;
+    }
+
+    public Builder validationWindowMillis(int validationWindowMillis) {
+      this.validationWindowMillis = validationWindowMillis;
+      return this;
+    }
+
+    public Builder sslHandshakeListener(SslHandshakeListener sslHandshakeListener) {
+      this.sslHandshakeListener = sslHandshakeListener;
+      return this;
+    }
   }
 
   public static DefaultJedisClientConfig create(int connectionTimeoutMillis, int soTimeoutMillis,
@@ -264,7 +311,7 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return new DefaultJedisClientConfig(null,
         connectionTimeoutMillis, soTimeoutMillis, blockingSocketTimeoutMillis,
         new DefaultRedisCredentialsProvider(new DefaultRedisCredentials(user, password)), database,
-        clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, null);
+        clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, null, false, 0, null);
   }
 
   public static DefaultJedisClientConfig copyConfig(JedisClientConfig copy) {
@@ -273,6 +320,7 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
         copy.getBlockingSocketTimeoutMillis(), copy.getCredentialsProvider(),
         copy.getDatabase(), copy.getClientName(), copy.isSsl(), copy.getSslSocketFactory(),
         copy.getSslParameters(), copy.getHostnameVerifier(), copy.getHostAndPortMapper(),
-        copy.getClientSetInfoConfig());
+        copy.getClientSetInfoConfig(), copy.isFlatReplies(), copy.getValidationWindowMillis(),
+        copy.getSslHandshakeListener());
   }
 }
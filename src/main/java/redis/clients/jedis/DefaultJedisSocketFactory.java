@@ -3,11 +3,15 @@ package redis.clients.jedis;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 
@@ -19,6 +23,20 @@ public class DefaultJedisSocketFactory implements JedisSocketFactory {
   protected static final HostAndPort DEFAULT_HOST_AND_PORT = new HostAndPort(Protocol.DEFAULT_HOST,
       Protocol.DEFAULT_PORT);
 
+  private static final int MAX_SEEN_SESSION_IDS = 1024;
+
+  /**
+   * The IDs of the latest pre-TLS 1.3 sessions handed to an {@link SslHandshakeListener}, least
+   * recently seen first.
+   */
+  private static final Map<ByteBuffer, Boolean> SEEN_SESSION_IDS
+      = new LinkedHashMap<ByteBuffer, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Boolean> eldest) {
+          return size() > MAX_SEEN_SESSION_IDS;
+        }
+      };
+
   private volatile HostAndPort hostAndPort = DEFAULT_HOST_AND_PORT;
   private int connectionTimeout = Protocol.DEFAULT_TIMEOUT;
   private int socketTimeout = Protocol.DEFAULT_TIMEOUT;
@@ -27,6 +45,7 @@ public class DefaultJedisSocketFactory implements JedisSocketFactory {
   private SSLParameters sslParameters = null;
   private HostnameVerifier hostnameVerifier = null;
   private HostAndPortMapper hostAndPortMapper = null;
+  private SslHandshakeListener sslHandshakeListener = null;
 
   public DefaultJedisSocketFactory() {
   }
@@ -51,6 +70,7 @@ public class DefaultJedisSocketFactory implements JedisSocketFactory {
       this.sslParameters = config.getSslParameters();
       this.hostnameVerifier = config.getHostnameVerifier();
       this.hostAndPortMapper = config.getHostAndPortMapper();
+      this.sslHandshakeListener = config.getSslHandshakeListener();
     }
   }
 
@@ -94,18 +114,32 @@ public class DefaultJedisSocketFactory implements JedisSocketFactory {
         if (null == _sslSocketFactory) {
           _sslSocketFactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
         }
+        // the session cache of the SSLContext behind the factory is keyed by host and port, so every
+        // connection to a node can resume the session of an earlier one instead of a full handshake
         socket = _sslSocketFactory.createSocket(socket, _hostAndPort.getHost(), _hostAndPort.getPort(), true);
 
         if (null != sslParameters) {
           ((SSLSocket) socket).setSSLParameters(sslParameters);
         }
 
+        // rather than implicitly with the first command, so that it is bounded by the socket timeout
+        final long startMillis = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        ((SSLSocket) socket).startHandshake();
+        final long durationNanos = System.nanoTime() - startNanos;
+
         if (null != hostnameVerifier
             && !hostnameVerifier.verify(_hostAndPort.getHost(), ((SSLSocket) socket).getSession())) {
           String message = String.format(
             "The connection to '%s' failed ssl/tls hostname verification.", _hostAndPort.getHost());
           throw new JedisConnectionException(message);
         }
+
+        if (null != sslHandshakeListener) {
+          final SSLSession session = ((SSLSocket) socket).getSession();
+          sslHandshakeListener.onHandshake(_hostAndPort, session, isResumed(session, startMillis),
+              durationNanos);
+        }
       }
 
       return socket;
@@ -120,6 +154,25 @@ public class DefaultJedisSocketFactory implements JedisSocketFactory {
     }
   }
 
+  /**
+   * Up to TLS 1.2 a resumed session has the ID of the session it was resumed from, so a session is
+   * taken as resumed if its ID was seen before; sessions with an empty ID are never taken as resumed.
+   * A TLS 1.3 session resumed from a ticket gets a new ID, so there it is a heuristic instead: the
+   * resumed session keeps the creation time of the earlier one, which predates the handshake.
+   */
+  private static boolean isResumed(SSLSession session, long handshakeStartMillis) {
+    if ("TLSv1.3".equals(session.getProtocol())) {
+      return session.getCreationTime() < handshakeStartMillis;
+    }
+    final byte[] id = session.getId();
+    if (id == null || id.length == 0) {
+      return false;
+    }
+    synchronized (SEEN_SESSION_IDS) {
+      return SEEN_SESSION_IDS.put(ByteBuffer.wrap(id), Boolean.TRUE) != null;
+    }
+  }
+
   public void updateHostAndPort(HostAndPort hostAndPort) {
     this.hostAndPort = hostAndPort;
   }
@@ -0,0 +1,258 @@
+package redis.clients.jedis;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import redis.clients.jedis.util.KeyValue;
+import redis.clients.jedis.util.NumericEncoder;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * A RESP reply parsed into a few flat arrays instead of a tree of {@link List}s and {@code byte[]}s.
+ * <p>
+ * Every element of the reply is a node. Nodes are stored in depth-first order, so node {@code 0} is
+ * the reply itself, the first child of an aggregate node is {@code node + 1} and the following
+ * sibling of any node is {@link #next(int)}. The payloads of all nodes are slices of one growable
+ * buffer.
+ * <p>
+ * An instance is meant to be reused for every reply read by {@link Protocol#read(redis.clients.jedis.util.RedisInputStream, FlatReply)},
+ * so nothing of it may be kept once the next reply is read. {@link FlatReplyBuilder}s decode their
+ * results directly from the slices.
+ */
+public final class FlatReply {
+
+  private static final int INITIAL_NODES = 16;
+  private static final int INITIAL_DATA = 1024;
+
+  private byte[] data = new byte[INITIAL_DATA];
+  private int dataLength = 0;
+
+  private byte[] types = new byte[INITIAL_NODES];
+  private int[] offsets = new int[INITIAL_NODES];
+  private int[] lengths = new int[INITIAL_NODES];
+  private int[] nexts = new int[INITIAL_NODES];
+  private int size = 0;
+
+  void reset() {
+    size = 0;
+    dataLength = 0;
+  }
+
+  int addNode(byte type) {
+    if (size == types.length) {
+      final int capacity = size << 1;
+      types = Arrays.copyOf(types, capacity);
+      offsets = Arrays.copyOf(offsets, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+      nexts = Arrays.copyOf(nexts, capacity);
+    }
+    types[size] = type;
+    offsets[size] = dataLength;
+    lengths[size] = 0;
+    return size++;
+  }
+
+  void setLength(int node, int length) {
+    lengths[node] = length;
+  }
+
+  void setNext(int node) {
+    nexts[node] = size;
+  }
+
+  /**
+   * Reserves {@code length} bytes at the end of the buffer.
+   * @return the offset of the reserved bytes in {@link #buffer()}
+   */
+  int allocate(int length) {
+    final int offset = dataLength;
+    if (offset + length > data.length) {
+      data = Arrays.copyOf(data, Math.max(data.length << 1, offset + length));
+    }
+    dataLength += length;
+    return offset;
+  }
+
+  void append(byte b) {
+    if (dataLength == data.length) {
+      data = Arrays.copyOf(data, data.length << 1);
+    }
+    data[dataLength++] = b;
+  }
+
+  byte[] buffer() {
+    return data;
+  }
+
+  /**
+   * @return number of nodes
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the RESP type byte (e.g. {@link Protocol#DOLLAR_BYTE}) of the node
+   */
+  public byte getType(int node) {
+    return types[node];
+  }
+
+  /**
+   * @return the node after the given node and all its descendants
+   */
+  public int next(int node) {
+    return nexts[node];
+  }
+
+  public boolean isNull(int node) {
+    return types[node] == Protocol.UNDERSCORE_BYTE || lengths[node] < 0;
+  }
+
+  public boolean isAggregate(int node) {
+    switch (types[node]) {
+      case Protocol.ASTERISK_BYTE:
+      case Protocol.TILDE_BYTE:
+      case Protocol.GREATER_THAN_BYTE:
+      case Protocol.PERCENT_BYTE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @return number of child nodes of an aggregate node, which is twice the number of entries for a
+   * map; -1 for null
+   */
+  public int getElementCount(int node) {
+    return lengths[node];
+  }
+
+  /**
+   * @return the payload length of a scalar node; -1 for null
+   */
+  public int getLength(int node) {
+    return lengths[node];
+  }
+
+  public byte[] getBytes(int node) {
+    if (isNull(node)) {
+      return null;
+    }
+    return Arrays.copyOfRange(data, offsets[node], offsets[node] + lengths[node]);
+  }
+
+  public String getString(int node) {
+    if (isNull(node)) {
+      return null;
+    }
+    return new String(data, offsets[node], lengths[node], SafeEncoder.DEFAULT_CHARSET);
+  }
+
+  public long getLong(int node) {
+    int pos = offsets[node];
+    final int end = pos + lengths[node];
+    final boolean isNeg = data[pos] == '-';
+    if (isNeg) {
+      ++pos;
+    }
+    long value = 0;
+    while (pos < end) {
+      value = value * 10 + data[pos++] - '0';
+    }
+    return isNeg ? -value : value;
+  }
+
+  public double getDouble(int node) {
+    return NumericEncoder.decodeDouble(data, offsets[node], lengths[node]);
+  }
+
+  public boolean getBoolean(int node) {
+    return data[offsets[node]] == 't';
+  }
+
+  /**
+   * @return whether the payload of the node equals the given bytes, without copying it
+   */
+  public boolean contentEquals(int node, byte[] bytes) {
+    if (isNull(node) || lengths[node] != bytes.length) {
+      return false;
+    }
+    final int offset = offsets[node];
+    for (int i = 0; i < bytes.length; i++) {
+      if (data[offset + i] != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Converts the node to the same object {@link Protocol#read(redis.clients.jedis.util.RedisInputStream)}
+   * would have returned for it.
+   */
+  public Object toObject(int node) {
+    switch (types[node]) {
+      case Protocol.PLUS_BYTE:
+      case Protocol.DOLLAR_BYTE:
+      case Protocol.EQUAL_BYTE:
+        return getBytes(node);
+      case Protocol.UNDERSCORE_BYTE:
+        return null;
+      case Protocol.HASH_BYTE:
+        return getBoolean(node);
+      case Protocol.COLON_BYTE:
+        return getLong(node);
+      case Protocol.COMMA_BYTE:
+        return getDouble(node);
+      case Protocol.LEFT_BRACE_BYTE:
+        return new BigInteger(getString(node));
+      case Protocol.MINUS_BYTE:
+        return Protocol.createError(getString(node));
+      case Protocol.PERCENT_BYTE: {
+        final int count = lengths[node];
+        if (count < 0) {
+          return null;
+        }
+        final List<KeyValue> map = new ArrayList<>(count / 2);
+        int child = node + 1;
+        for (int i = 0; i < count; i += 2) {
+          final int value = nexts[child];
+          map.add(new KeyValue(toObject(child), toObject(value)));
+          child = nexts[value];
+        }
+        return map;
+      }
+      default: {
+        final int count = lengths[node];
+        if (count < 0) {
+          return null;
+        }
+        final List<Object> list = new ArrayList<>(count);
+        int child = node + 1;
+        for (int i = 0; i < count; i++) {
+          list.add(toObject(child));
+          child = nexts[child];
+        }
+        return list;
+      }
+    }
+  }
+
+  /**
+   * Throws the error of the reply, if the reply is an error.
+   */
+  void checkError() {
+    if (size > 0 && types[0] == Protocol.MINUS_BYTE) {
+      throw Protocol.createError(getString(0));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FlatReply{nodes=" + size + ", bytes=" + dataLength + "}";
+  }
+}
@@ -0,0 +1,17 @@
+package redis.clients.jedis;
+
+/**
+ * A {@link Builder} which can also decode its result directly from a {@link FlatReply}, without the
+ * intermediate objects of {@link Protocol#read(redis.clients.jedis.util.RedisInputStream)}.
+ * <p>
+ * {@link Connection} uses {@link #build(FlatReply, int)} if {@link JedisClientConfig#isFlatReplies()}
+ * is enabled; every other path (e.g. pipelines) still uses {@link #build(Object)}.
+ */
+public abstract class FlatReplyBuilder<T> extends Builder<T> {
+
+  /**
+   * @param reply the reply; must not be kept after this method returns
+   * @param node the node to build the result from
+   */
+  public abstract T build(FlatReply reply, int node);
+}
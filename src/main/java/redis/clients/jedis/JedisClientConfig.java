@@ -80,6 +80,13 @@ public interface JedisClientConfig {
     return null;
   }
 
+  /**
+   * @return listener of the TLS handshakes, {@code null} if none
+   */
+  default SslHandshakeListener getSslHandshakeListener() {
+    return null;
+  }
+
   /**
    * Modify the behavior of internally executing CLIENT SETINFO command.
    * @return CLIENT SETINFO config
@@ -87,4 +94,22 @@ public interface JedisClientConfig {
   default ClientSetInfoConfig getClientSetInfoConfig() {
     return ClientSetInfoConfig.DEFAULT;
   }
+
+  /**
+   * Read the replies of the commands whose builder is a {@link FlatReplyBuilder} into a reusable
+   * {@link FlatReply} instead of a tree of objects.
+   * @return {@code true} to read flat replies
+   */
+  default boolean isFlatReplies() {
+    return false;
+  }
+
+  /**
+   * A pooled connection which read a reply from the server within this period is considered valid
+   * without sending a PING.
+   * @return period in milliseconds, {@code 0} to always PING
+   */
+  default int getValidationWindowMillis() {
+    return 0;
+  }
 }
@@ -1,12 +1,20 @@
 package redis.clients.jedis;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
 
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import redis.clients.jedis.executors.ClusterCommandExecutor;
 import redis.clients.jedis.providers.ClusterConnectionProvider;
 import redis.clients.jedis.util.JedisClusterCRC16;
 
@@ -20,6 +28,12 @@ public class JedisCluster extends UnifiedJedis {
   public static final int DEFAULT_TIMEOUT = 2000;
   public static final int DEFAULT_MAX_ATTEMPTS = 5;
 
+  /**
+   * The executor, as created by every constructor of {@link UnifiedJedis} which takes the nodes of a
+   * cluster.
+   */
+  private final ClusterCommandExecutor clusterExecutor = (ClusterCommandExecutor) executor;
+
   public JedisCluster(HostAndPort node) {
     this(Collections.singleton(node));
   }
@@ -204,6 +218,16 @@ public class JedisCluster extends UnifiedJedis {
         maxAttempts, maxTotalRetriesDuration);
   }
 
+  /**
+   * @param readPolicy where read-only commands are sent to
+   */
+  public JedisCluster(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Duration topologyRefreshPeriod, int maxAttempts,
+      Duration maxTotalRetriesDuration, ReadPolicy readPolicy) {
+    this(new ClusterConnectionProvider(clusterNodes, clientConfig, poolConfig, topologyRefreshPeriod,
+        readPolicy), maxAttempts, maxTotalRetriesDuration);
+  }
+
   public JedisCluster(ClusterConnectionProvider provider, int maxAttempts,
       Duration maxTotalRetriesDuration) {
     super(provider, maxAttempts, maxTotalRetriesDuration);
@@ -217,7 +241,160 @@ public class JedisCluster extends UnifiedJedis {
     return ((ClusterConnectionProvider) provider).getConnectionFromSlot(slot);
   }
 
+  /**
+   * Sends the command to the nodes concurrently.
+   * @param primariesOnly whether replicas are left out
+   * @param timeout how long to wait for all replies; {@code null} to wait as long as it takes
+   * @return the reply of every node, or the exception it failed with
+   */
+  public <T> Map<HostAndPort, Object> broadcastCommand(CommandObject<T> commandObject,
+      boolean primariesOnly, Duration timeout) {
+    return clusterExecutor.broadcastCommand(commandObject, primariesOnly, timeout);
+  }
+
   // commands
+
+  // The following multi-key commands accept keys of different slots. They are split into one
+  // command per slot, which are sent in one pipelined round to all nodes, and the replies are merged.
+
+  @Override
+  public long exists(String... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, String[]::new, commandObjects::exists),
+        () -> super.exists(keys));
+  }
+
+  @Override
+  public long exists(byte[]... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, byte[][]::new, commandObjects::exists),
+        () -> super.exists(keys));
+  }
+
+  @Override
+  public long touch(String... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, String[]::new, commandObjects::touch),
+        () -> super.touch(keys));
+  }
+
+  @Override
+  public long touch(byte[]... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, byte[][]::new, commandObjects::touch),
+        () -> super.touch(keys));
+  }
+
+  @Override
+  public long del(String... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, String[]::new, commandObjects::del),
+        () -> super.del(keys));
+  }
+
+  @Override
+  public long del(byte[]... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, byte[][]::new, commandObjects::del),
+        () -> super.del(keys));
+  }
+
+  @Override
+  public long unlink(String... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, String[]::new, commandObjects::unlink),
+        () -> super.unlink(keys));
+  }
+
+  @Override
+  public long unlink(byte[]... keys) {
+    return sum(executeBySlot(keys, 1, JedisClusterCRC16::getSlot, byte[][]::new, commandObjects::unlink),
+        () -> super.unlink(keys));
+  }
+
+  @Override
+  public List<String> mget(String... keys) {
+    List<int[]> positions = new ArrayList<>();
+    List<List<String>> replies = executeBySlot(keys, 1, JedisClusterCRC16::getSlot, String[]::new,
+        commandObjects::mget, positions);
+    return replies == null ? super.mget(keys) : merge(keys.length, positions, replies);
+  }
+
+  @Override
+  public List<byte[]> mget(byte[]... keys) {
+    List<int[]> positions = new ArrayList<>();
+    List<List<byte[]>> replies = executeBySlot(keys, 1, JedisClusterCRC16::getSlot, byte[][]::new,
+        commandObjects::mget, positions);
+    return replies == null ? super.mget(keys) : merge(keys.length, positions, replies);
+  }
+
+  @Override
+  public String mset(String... keysvalues) {
+    List<String> replies = executeBySlot(keysvalues, 2, JedisClusterCRC16::getSlot, String[]::new,
+        commandObjects::mset, new ArrayList<>());
+    return replies == null ? super.mset(keysvalues) : replies.get(0);
+  }
+
+  @Override
+  public String mset(byte[]... keysvalues) {
+    List<String> replies = executeBySlot(keysvalues, 2, JedisClusterCRC16::getSlot, byte[][]::new,
+        commandObjects::mset, new ArrayList<>());
+    return replies == null ? super.mset(keysvalues) : replies.get(0);
+  }
+
+  private <K, T> List<T> executeBySlot(K[] keys, int step, ToIntFunction<K> slotOf,
+      IntFunction<K[]> newArray, Function<K[], CommandObject<T>> commandOf) {
+    return executeBySlot(keys, step, slotOf, newArray, commandOf, new ArrayList<>());
+  }
+
+  /**
+   * Splits the arguments of a multi-key command by the slots of their keys.
+   *
+   * @param args the keys, or keys each followed by {@code step - 1} values
+   * @param positions filled with the positions of the keys of each command
+   * @return the replies of the commands, one per slot; or {@code null} if all keys belong to one
+   * slot, so the command can be executed as is
+   */
+  private <K, T> List<T> executeBySlot(K[] args, int step, ToIntFunction<K> slotOf,
+      IntFunction<K[]> newArray, Function<K[], CommandObject<T>> commandOf, List<int[]> positions) {
+    Map<Integer, List<Integer>> slots = new LinkedHashMap<>();
+    for (int i = 0; i < args.length; i += step) {
+      slots.computeIfAbsent(slotOf.applyAsInt(args[i]), slot -> new ArrayList<>()).add(i);
+    }
+    if (slots.size() <= 1) {
+      return null;
+    }
+
+    List<CommandObject<T>> commands = new ArrayList<>(slots.size());
+    for (List<Integer> indexes : slots.values()) {
+      K[] slotArgs = newArray.apply(indexes.size() * step);
+      int[] keyPositions = new int[indexes.size()];
+      for (int i = 0; i < indexes.size(); i++) {
+        System.arraycopy(args, indexes.get(i), slotArgs, i * step, step);
+        keyPositions[i] = indexes.get(i) / step;
+      }
+      positions.add(keyPositions);
+      commands.add(commandOf.apply(slotArgs));
+    }
+    return clusterExecutor.executeCommands(commands);
+  }
+
+  private static long sum(List<Long> replies, LongSupplier unsplit) {
+    if (replies == null) {
+      return unsplit.getAsLong();
+    }
+    long sum = 0;
+    for (Long reply : replies) {
+      sum += reply;
+    }
+    return sum;
+  }
+
+  private static <V> List<V> merge(int size, List<int[]> positions, List<List<V>> replies) {
+    List<V> merged = new ArrayList<>(Collections.nCopies(size, null));
+    for (int i = 0; i < replies.size(); i++) {
+      int[] keyPositions = positions.get(i);
+      List<V> reply = replies.get(i);
+      for (int j = 0; j < keyPositions.length; j++) {
+        merged.set(keyPositions[j], reply.get(j));
+      }
+    }
+    return merged;
+  }
+
   public long spublish(String channel, String message) {
     return executeCommand(commandObjects.spublish(channel, message));
   }
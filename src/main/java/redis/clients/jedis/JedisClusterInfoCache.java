@@ -8,21 +8,31 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Protocol.ClusterKeyword;
 import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.resps.ClusterShardNodeInfo;
+import redis.clients.jedis.util.KeyValue;
 import redis.clients.jedis.util.SafeEncoder;
 
 import static redis.clients.jedis.JedisCluster.INIT_NO_ERROR_PROPERTY;
@@ -31,15 +41,56 @@ public class JedisClusterInfoCache {
 
   private static final Logger logger = LoggerFactory.getLogger(JedisClusterInfoCache.class);
 
-  private final Map<String, ConnectionPool> nodes = new HashMap<>();
-  private final ConnectionPool[] slots = new ConnectionPool[Protocol.CLUSTER_HASHSLOTS];
-  private final HostAndPort[] slotNodes = new HostAndPort[Protocol.CLUSTER_HASHSLOTS];
+  /**
+   * The slot routing table. A published table is never modified; changes are made to a copy, which
+   * then replaces it. So a lookup is a single volatile read and never waits for a topology refresh.
+   */
+  private static final class SlotTable {
+    private final ConnectionPool[] pools;
+    private final HostAndPort[] nodes;
+    private final ConnectionPool[][] replicas;
+
+    private SlotTable() {
+      pools = new ConnectionPool[Protocol.CLUSTER_HASHSLOTS];
+      nodes = new HostAndPort[Protocol.CLUSTER_HASHSLOTS];
+      replicas = new ConnectionPool[Protocol.CLUSTER_HASHSLOTS][];
+      Arrays.fill(replicas, NO_REPLICAS);
+    }
+
+    private SlotTable(SlotTable table) {
+      pools = table.pools.clone();
+      nodes = table.nodes.clone();
+      replicas = table.replicas.clone();
+    }
+  }
+
+  private static final ConnectionPool[] NO_REPLICAS = new ConnectionPool[0];
+
+  private final Map<String, ConnectionPool> nodes = new ConcurrentHashMap<>();
+  private volatile SlotTable slotTable = new SlotTable();
+  private volatile Map<String, ClusterShardNodeInfo> nodeInfos = Collections.emptyMap();
+  private volatile boolean shardsSupported = true;
 
-  private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-  private final Lock r = rwl.readLock();
-  private final Lock w = rwl.writeLock();
+  /**
+   * Serializes the changes of nodes and slots; reads take no lock.
+   */
+  private final Lock w = new ReentrantLock();
   private final Lock rediscoverLock = new ReentrantLock();
 
+  private final ReadPolicy readPolicy;
+  private final AtomicInteger readCounter = new AtomicInteger();
+  private final Map<ConnectionPool, Long> latencies = new ConcurrentHashMap<>();
+
+  /**
+   * Period of the PINGs which measure the latencies for {@link ReadPolicy#LOWEST_LATENCY}.
+   */
+  private static final long LATENCY_PROBE_PERIOD_MILLIS = 1000;
+
+  /**
+   * Weight of a new latency sample in the moving average.
+   */
+  private static final double LATENCY_SMOOTHING = 0.25;
+
   private final GenericObjectPoolConfig<Connection> poolConfig;
   private final JedisClientConfig clientConfig;
   private final Set<HostAndPort> startNodes;
@@ -51,6 +102,20 @@ public class JedisClusterInfoCache {
    */
   private ScheduledExecutorService topologyRefreshExecutor = null;
 
+  /**
+   * Minimum nanoseconds between two full refreshes following MOVED redirections, or -1 if every
+   * MOVED redirection is followed by an immediate full refresh.
+   */
+  private volatile long movedRefreshIntervalNanos = -1;
+  private volatile long lastRefreshNanos = System.nanoTime();
+  private final AtomicBoolean movedRefreshScheduled = new AtomicBoolean();
+  private ScheduledExecutorService movedRefreshExecutor = null;
+
+  /**
+   * Measures the latencies of the nodes, for {@link ReadPolicy#LOWEST_LATENCY} only.
+   */
+  private ScheduledExecutorService latencyProbeExecutor = null;
+
   class TopologyRefreshTask implements Runnable {
     @Override
     public void run() {
@@ -72,6 +137,13 @@ public class JedisClusterInfoCache {
   public JedisClusterInfoCache(final JedisClientConfig clientConfig,
       final GenericObjectPoolConfig<Connection> poolConfig, final Set<HostAndPort> startNodes,
       final Duration topologyRefreshPeriod) {
+    this(clientConfig, poolConfig, startNodes, topologyRefreshPeriod, ReadPolicy.MASTER);
+  }
+
+  public JedisClusterInfoCache(final JedisClientConfig clientConfig,
+      final GenericObjectPoolConfig<Connection> poolConfig, final Set<HostAndPort> startNodes,
+      final Duration topologyRefreshPeriod, final ReadPolicy readPolicy) {
+    this.readPolicy = readPolicy;
     this.poolConfig = poolConfig;
     this.clientConfig = clientConfig;
     this.startNodes = startNodes;
@@ -81,6 +153,15 @@ public class JedisClusterInfoCache {
       topologyRefreshExecutor.scheduleWithFixedDelay(new TopologyRefreshTask(), topologyRefreshPeriod.toMillis(),
           topologyRefreshPeriod.toMillis(), TimeUnit.MILLISECONDS);
     }
+    if (readPolicy == ReadPolicy.LOWEST_LATENCY) {
+      latencyProbeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jedis-cluster-latency-probe");
+        thread.setDaemon(true);
+        return thread;
+      });
+      latencyProbeExecutor.scheduleWithFixedDelay(this::measureLatencies, 0,
+          LATENCY_PROBE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
   }
 
   /**
@@ -107,7 +188,8 @@ public class JedisClusterInfoCache {
   }
 
   public void discoverClusterNodesAndSlots(Connection jedis) {
-    List<Object> slotsInfo = executeClusterSlots(jedis);
+    Map<String, ClusterShardNodeInfo> infos = new HashMap<>();
+    List<Object> slotsInfo = executeClusterSlots(jedis, infos);
     if (System.getProperty(INIT_NO_ERROR_PROPERTY) == null) {
       if (slotsInfo.isEmpty()) {
         throw new JedisClusterOperationException("Cluster slots list is empty.");
@@ -119,6 +201,7 @@ public class JedisClusterInfoCache {
     w.lock();
     try {
       reset();
+      SlotTable table = new SlotTable();
       for (Object slotInfoObj : slotsInfo) {
         List<Object> slotInfo = (List<Object>) slotInfoObj;
 
@@ -126,10 +209,9 @@ public class JedisClusterInfoCache {
           continue;
         }
 
-        List<Integer> slotNums = getAssignedSlotArray(slotInfo);
-
         // hostInfos
         int size = slotInfo.size();
+        List<ConnectionPool> replicas = new ArrayList<>(size - MASTER_NODE_INDEX - 1);
         for (int i = MASTER_NODE_INDEX; i < size; i++) {
           List<Object> hostInfos = (List<Object>) slotInfo.get(i);
           if (hostInfos.isEmpty()) {
@@ -137,12 +219,18 @@ public class JedisClusterInfoCache {
           }
 
           HostAndPort targetNode = generateHostAndPort(hostInfos);
-          setupNodeIfNotExist(targetNode);
+          ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
           if (i == MASTER_NODE_INDEX) {
-            assignSlotsToNode(slotNums, targetNode);
+            assignSlotRange(table, slotInfo, targetPool, targetNode);
+          } else {
+            replicas.add(targetPool);
           }
         }
+        assignReplicas(table, slotInfo, replicas);
       }
+      slotTable = table;
+      nodeInfos = Collections.unmodifiableMap(infos);
+      lastRefreshNanos = System.nanoTime();
     } finally {
       w.unlock();
     }
@@ -196,7 +284,8 @@ public class JedisClusterInfoCache {
   }
 
   private void discoverClusterSlots(Connection jedis) {
-    List<Object> slotsInfo = executeClusterSlots(jedis);
+    Map<String, ClusterShardNodeInfo> infos = new HashMap<>();
+    List<Object> slotsInfo = executeClusterSlots(jedis, infos);
     if (System.getProperty(INIT_NO_ERROR_PROPERTY) == null) {
       if (slotsInfo.isEmpty()) {
         throw new JedisClusterOperationException("Cluster slots list is empty.");
@@ -207,8 +296,8 @@ public class JedisClusterInfoCache {
     }
     w.lock();
     try {
-      Arrays.fill(slots, null);
-      Arrays.fill(slotNodes, null);
+      // the current table is still used by all lookups while the new one is built
+      SlotTable table = new SlotTable();
       Set<String> hostAndPortKeys = new HashSet<>();
 
       for (Object slotInfoObj : slotsInfo) {
@@ -218,9 +307,8 @@ public class JedisClusterInfoCache {
           continue;
         }
 
-        List<Integer> slotNums = getAssignedSlotArray(slotInfo);
-
         int size = slotInfo.size();
+        List<ConnectionPool> replicas = new ArrayList<>(size - MASTER_NODE_INDEX - 1);
         for (int i = MASTER_NODE_INDEX; i < size; i++) {
           List<Object> hostInfos = (List<Object>) slotInfo.get(i);
           if (hostInfos.isEmpty()) {
@@ -229,12 +317,18 @@ public class JedisClusterInfoCache {
 
           HostAndPort targetNode = generateHostAndPort(hostInfos);
           hostAndPortKeys.add(getNodeKey(targetNode));
-          setupNodeIfNotExist(targetNode);
+          ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
           if (i == MASTER_NODE_INDEX) {
-            assignSlotsToNode(slotNums, targetNode);
+            assignSlotRange(table, slotInfo, targetPool, targetNode);
+          } else {
+            replicas.add(targetPool);
           }
         }
+        assignReplicas(table, slotInfo, replicas);
       }
+      slotTable = table;
+      nodeInfos = Collections.unmodifiableMap(infos);
+      lastRefreshNanos = System.nanoTime();
 
       // Remove dead nodes according to the latest query
       Iterator<Entry<String, ConnectionPool>> entryIt = nodes.entrySet().iterator();
@@ -264,14 +358,24 @@ public class JedisClusterInfoCache {
   }
 
   public ConnectionPool setupNodeIfNotExist(final HostAndPort node) {
+    String nodeKey = getNodeKey(node);
+    ConnectionPool existingPool = nodes.get(nodeKey);
+    if (existingPool != null) return existingPool;
+
     w.lock();
     try {
-      String nodeKey = getNodeKey(node);
-      ConnectionPool existingPool = nodes.get(nodeKey);
+      existingPool = nodes.get(nodeKey);
       if (existingPool != null) return existingPool;
 
-      ConnectionPool nodePool = poolConfig == null ? new ConnectionPool(node, clientConfig)
-          : new ConnectionPool(node, clientConfig, poolConfig);
+      ConnectionPool nodePool;
+      if (readPolicy == ReadPolicy.MASTER) {
+        nodePool = poolConfig == null ? new ConnectionPool(node, clientConfig)
+            : new ConnectionPool(node, clientConfig, poolConfig);
+      } else {
+        ConnectionFactory factory = new ReadOnlyConnectionFactory(node, clientConfig);
+        nodePool = poolConfig == null ? new ConnectionPool(factory)
+            : new ConnectionPool(factory, poolConfig);
+      }
       nodes.put(nodeKey, nodePool);
       return nodePool;
     } finally {
@@ -283,75 +387,249 @@ public class JedisClusterInfoCache {
     w.lock();
     try {
       ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
-      slots[slot] = targetPool;
-      slotNodes[slot] = targetNode;
+      SlotTable table = new SlotTable(slotTable);
+      table.pools[slot] = targetPool;
+      table.nodes[slot] = targetNode;
+      // the replicas of the old master don't replicate the new one; the next refresh finds its own
+      table.replicas[slot] = NO_REPLICAS;
+      slotTable = table;
     } finally {
       w.unlock();
     }
   }
 
+  /**
+   * Lets MOVED redirections patch the single slot they are about, instead of triggering a full
+   * refresh each. The full refresh still follows, in the background, at most once per interval, and
+   * all redirections within an interval share it.
+   * @param interval minimum time between two full refreshes, or {@code null} to refresh the whole
+   * cache on every MOVED redirection (the default)
+   */
+  public void setMovedRefreshInterval(Duration interval) {
+    movedRefreshIntervalNanos = interval != null ? interval.toNanos() : -1;
+  }
+
+  /**
+   * Assigns the slot to the node a MOVED redirection points at, and schedules a full refresh, if the
+   * cache is set up for it by {@link #setMovedRefreshInterval(Duration)}.
+   * @return {@code false} if the cache is not set up for it, and has to be renewed instead
+   */
+  public boolean assignMovedSlot(int slot, HostAndPort targetNode) {
+    long interval = movedRefreshIntervalNanos;
+    if (interval < 0) {
+      return false;
+    }
+    if (!targetNode.equals(slotTable.nodes[slot])) {
+      assignSlotToNode(slot, targetNode);
+    }
+    if (movedRefreshScheduled.compareAndSet(false, true)) {
+      long delay = Math.max(0, lastRefreshNanos + interval - System.nanoTime());
+      try {
+        getMovedRefreshExecutor().schedule(() -> {
+          // redirections from now on are covered by the next refresh
+          movedRefreshScheduled.set(false);
+          renewClusterSlots(null);
+        }, delay, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException ree) {
+        movedRefreshScheduled.set(false); // closed
+      }
+    }
+    return true;
+  }
+
+  private synchronized ScheduledExecutorService getMovedRefreshExecutor() {
+    if (movedRefreshExecutor == null) {
+      movedRefreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jedis-cluster-slot-refresh");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return movedRefreshExecutor;
+  }
+
   public void assignSlotsToNode(List<Integer> targetSlots, HostAndPort targetNode) {
     w.lock();
     try {
       ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
+      SlotTable table = new SlotTable(slotTable);
       for (Integer slot : targetSlots) {
-        slots[slot] = targetPool;
-        slotNodes[slot] = targetNode;
+        table.pools[slot] = targetPool;
+        table.nodes[slot] = targetNode;
+        table.replicas[slot] = NO_REPLICAS;
       }
+      slotTable = table;
     } finally {
       w.unlock();
     }
   }
 
-  public ConnectionPool getNode(String nodeKey) {
-    r.lock();
-    try {
-      return nodes.get(nodeKey);
-    } finally {
-      r.unlock();
+  private static void assignSlotRange(SlotTable table, List<Object> slotInfo,
+      ConnectionPool targetPool, HostAndPort targetNode) {
+    int from = ((Long) slotInfo.get(0)).intValue();
+    int to = ((Long) slotInfo.get(1)).intValue() + 1;
+    Arrays.fill(table.pools, from, to, targetPool);
+    Arrays.fill(table.nodes, from, to, targetNode);
+  }
+
+  private static void assignReplicas(SlotTable table, List<Object> slotInfo,
+      List<ConnectionPool> replicas) {
+    if (!replicas.isEmpty()) {
+      int from = ((Long) slotInfo.get(0)).intValue();
+      int to = ((Long) slotInfo.get(1)).intValue() + 1;
+      Arrays.fill(table.replicas, from, to, replicas.toArray(NO_REPLICAS));
+    }
+  }
+
+  /**
+   * Creates connections in {@code READONLY} mode, so that replicas serve reads.
+   */
+  private static class ReadOnlyConnectionFactory extends ConnectionFactory {
+
+    ReadOnlyConnectionFactory(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+      super(hostAndPort, clientConfig);
+    }
+
+    @Override
+    public PooledObject<Connection> makeObject() throws Exception {
+      PooledObject<Connection> pooledConnection = super.makeObject();
+      try {
+        pooledConnection.getObject().executeCommand(Protocol.Command.READONLY);
+      } catch (JedisException je) {
+        pooledConnection.getObject().close();
+        throw je;
+      }
+      return pooledConnection;
     }
   }
 
+  public ReadPolicy getReadPolicy() {
+    return readPolicy;
+  }
+
+  /**
+   * @return the pool to send a read-only command of the slot to, according to the
+   * {@link ReadPolicy}; or {@code null} if the slot is not assigned
+   */
+  public ConnectionPool getSlotReadPool(int slot) {
+    final SlotTable table = slotTable;
+    final ConnectionPool master = table.pools[slot];
+    final ConnectionPool[] replicas = table.replicas[slot];
+    if (master == null) {
+      return null;
+    }
+    switch (readPolicy) {
+      case REPLICA_PREFERRED:
+        return replicas.length == 0 ? master
+            : replicas[ThreadLocalRandom.current().nextInt(replicas.length)];
+      case REPLICA:
+        if (replicas.length == 0) {
+          throw new JedisClusterOperationException("No replica for slot " + slot + ".");
+        }
+        return replicas[ThreadLocalRandom.current().nextInt(replicas.length)];
+      case ROUND_ROBIN: {
+        final int index = Math.floorMod(readCounter.getAndIncrement(), replicas.length + 1);
+        return index == 0 ? master : replicas[index - 1];
+      }
+      case LOWEST_LATENCY: {
+        ConnectionPool fastest = master;
+        long lowest = latencies.getOrDefault(master, Long.MAX_VALUE);
+        for (ConnectionPool replica : replicas) {
+          final long latency = latencies.getOrDefault(replica, Long.MAX_VALUE);
+          if (latency < lowest) {
+            fastest = replica;
+            lowest = latency;
+          }
+        }
+        return fastest;
+      }
+      default:
+        return master;
+    }
+  }
+
+  /**
+   * PINGs every node and folds the round trip into its moving average. Runs in the background, so
+   * that neither commands nor topology refreshes wait for it; a node which fails the PING is
+   * avoided until it answers again.
+   */
+  private void measureLatencies() {
+    latencies.keySet().retainAll(nodes.values());
+    for (ConnectionPool pool : nodes.values()) {
+      try (Connection connection = pool.getResource()) {
+        final long start = System.nanoTime();
+        connection.ping();
+        final long sample = System.nanoTime() - start;
+        latencies.merge(pool, sample, (average, ignored) -> average == Long.MAX_VALUE ? sample
+            : average + (long) ((sample - average) * LATENCY_SMOOTHING));
+      } catch (JedisException e) {
+        latencies.put(pool, Long.MAX_VALUE);
+      } catch (RuntimeException e) {
+        logger.debug("Failed to measure the latency of a cluster node.", e);
+      }
+    }
+  }
+
+  public ConnectionPool getNode(String nodeKey) {
+    return nodes.get(nodeKey);
+  }
+
   public ConnectionPool getNode(HostAndPort node) {
     return getNode(getNodeKey(node));
   }
 
   public ConnectionPool getSlotPool(int slot) {
-    r.lock();
-    try {
-      return slots[slot];
-    } finally {
-      r.unlock();
-    }
+    return slotTable.pools[slot];
   }
 
   public HostAndPort getSlotNode(int slot) {
-    r.lock();
-    try {
-      return slotNodes[slot];
-    } finally {
-      r.unlock();
-    }
+    return slotTable.nodes[slot];
+  }
+
+  /**
+   * @return role, health and replication offset of every node, by node key, as of the last
+   * discovery; empty if the topology was read by CLUSTER SLOTS
+   */
+  public Map<String, ClusterShardNodeInfo> getNodeInfos() {
+    return nodeInfos;
+  }
+
+  public ClusterShardNodeInfo getNodeInfo(HostAndPort node) {
+    return nodeInfos.get(getNodeKey(node));
   }
 
   public Map<String, ConnectionPool> getNodes() {
-    r.lock();
-    try {
-      return new HashMap<>(nodes);
-    } finally {
-      r.unlock();
+    return new HashMap<>(nodes);
+  }
+
+  /**
+   * @return number of known nodes, without copying them like {@link #getNodes()}
+   */
+  public int getNodeCount() {
+    return nodes.size();
+  }
+
+  /**
+   * @return the pools of the nodes which are assigned slots, by node key
+   */
+  public Map<String, ConnectionPool> getPrimaryNodes() {
+    final SlotTable table = slotTable;
+    final Map<String, ConnectionPool> primaries = new HashMap<>();
+    ConnectionPool last = null;
+    for (int slot = 0; slot < Protocol.CLUSTER_HASHSLOTS; slot++) {
+      final ConnectionPool pool = table.pools[slot];
+      if (pool != null && pool != last) {
+        primaries.putIfAbsent(getNodeKey(table.nodes[slot]), pool);
+        last = pool;
+      }
     }
+    return primaries;
   }
 
   public List<ConnectionPool> getShuffledNodesPool() {
-    r.lock();
-    try {
-      List<ConnectionPool> pools = new ArrayList<>(nodes.values());
-      Collections.shuffle(pools);
-      return pools;
-    } finally {
-      r.unlock();
-    }
+    List<ConnectionPool> pools = new ArrayList<>(nodes.values());
+    Collections.shuffle(pools);
+    return pools;
   }
 
   /**
@@ -370,8 +648,9 @@ public class JedisClusterInfoCache {
         }
       }
       nodes.clear();
-      Arrays.fill(slots, null);
-      Arrays.fill(slotNodes, null);
+      latencies.clear();
+      slotTable = new SlotTable();
+      nodeInfos = Collections.emptyMap();
     } finally {
       w.unlock();
     }
@@ -383,6 +662,14 @@ public class JedisClusterInfoCache {
       logger.info("Cluster topology refresh shutdown, startNodes: {}", startNodes);
       topologyRefreshExecutor.shutdownNow();
     }
+    synchronized (this) {
+      if (movedRefreshExecutor != null) {
+        movedRefreshExecutor.shutdownNow();
+      }
+    }
+    if (latencyProbeExecutor != null) {
+      latencyProbeExecutor.shutdownNow();
+    }
   }
 
   public static String getNodeKey(HostAndPort hnp) {
@@ -390,11 +677,124 @@ public class JedisClusterInfoCache {
     return hnp.toString();
   }
 
-  private List<Object> executeClusterSlots(Connection jedis) {
-    jedis.sendCommand(Protocol.Command.CLUSTER, "SLOTS");
+  /**
+   * Reads the topology by CLUSTER SHARDS, or by CLUSTER SLOTS from servers which don't support it
+   * (before Redis 7). The reply of CLUSTER SHARDS is converted to the form of a CLUSTER SLOTS reply,
+   * without the replicas which are not online, and the infos of all its nodes are collected.
+   */
+  private List<Object> executeClusterSlots(Connection jedis, Map<String, ClusterShardNodeInfo> infos) {
+    if (shardsSupported) {
+      jedis.sendCommand(Protocol.Command.CLUSTER, ClusterKeyword.SHARDS);
+      try {
+        return convertClusterShards(jedis.getObjectMultiBulkReply(), infos);
+      } catch (JedisDataException e) {
+        if (isUnknownCommand(e)) {
+          logger.debug("CLUSTER SHARDS is not supported, falling back to CLUSTER SLOTS.", e);
+          shardsSupported = false;
+        } else {
+          // e.g. LOADING or TRYAGAIN during a failover, SHARDS is tried again next time
+          logger.debug("CLUSTER SHARDS failed, using CLUSTER SLOTS this time.", e);
+        }
+      }
+    }
+    jedis.sendCommand(Protocol.Command.CLUSTER, ClusterKeyword.SLOTS);
     return jedis.getObjectMultiBulkReply();
   }
 
+  private static boolean isUnknownCommand(JedisDataException e) {
+    final String message = e.getMessage();
+    if (message == null) {
+      return false;
+    }
+    final String lower = message.toLowerCase(Locale.ROOT);
+    return lower.contains("unknown subcommand") || lower.contains("unknown command");
+  }
+
+  private List<Object> convertClusterShards(List<Object> shards,
+      Map<String, ClusterShardNodeInfo> infos) {
+    List<Object> slotsInfo = new ArrayList<>();
+    for (Object shardObj : shards) {
+      Map<String, Object> shard = toMap(shardObj);
+      List<Object> slots = (List<Object>) shard.get("slots");
+      List<Object> nodes = (List<Object>) shard.get("nodes");
+      if (slots == null || nodes == null) {
+        continue;
+      }
+
+      List<Object> master = null;
+      boolean masterOnline = false;
+      List<Object> replicas = new ArrayList<>();
+      for (Object nodeObj : nodes) {
+        ClusterShardNodeInfo info = new ClusterShardNodeInfo(toMap(nodeObj));
+        HostAndPort node = generateHostAndPort(info);
+        if (node == null) {
+          continue;
+        }
+        infos.put(getNodeKey(node), info);
+
+        List<Object> hostInfos = Arrays.asList(SafeEncoder.encode(node.getHost()),
+            (long) node.getPort(), SafeEncoder.encode(String.valueOf(info.getId())));
+        if (info.isMaster()) {
+          // a failed master may still be listed next to the promoted one
+          if (master == null || !masterOnline && info.isOnline()) {
+            master = hostInfos;
+            masterOnline = info.isOnline();
+          }
+        } else if (info.isOnline()) {
+          replicas.add(hostInfos);
+        }
+      }
+      if (master == null) {
+        continue;
+      }
+
+      for (int i = 0; i + 1 < slots.size(); i += 2) {
+        List<Object> slotInfo = new ArrayList<>(MASTER_NODE_INDEX + 1 + replicas.size());
+        slotInfo.add(slots.get(i));
+        slotInfo.add(slots.get(i + 1));
+        slotInfo.add(master);
+        slotInfo.addAll(replicas);
+        slotsInfo.add(slotInfo);
+      }
+    }
+    return slotsInfo;
+  }
+
+  private HostAndPort generateHostAndPort(ClusterShardNodeInfo info) {
+    String host = info.getEndpoint();
+    if (host == null || host.isEmpty() || host.equals("?")) {
+      host = info.getIp();
+    }
+    Long port = clientConfig.isSsl() && info.getTlsPort() != null ? info.getTlsPort() : info.getPort();
+    if (port == null) {
+      port = info.getTlsPort();
+    }
+    return host != null && port != null ? new HostAndPort(host, port.intValue()) : null;
+  }
+
+  /**
+   * Decodes a map reply, of RESP2 or RESP3, with its simple values as strings.
+   */
+  private static Map<String, Object> toMap(Object reply) {
+    List<Object> list = (List<Object>) reply;
+    Map<String, Object> map = new HashMap<>();
+    if (!list.isEmpty() && list.get(0) instanceof KeyValue) {
+      for (Object entry : list) {
+        KeyValue<Object, Object> kv = (KeyValue<Object, Object>) entry;
+        map.put(SafeEncoder.encode((byte[]) kv.getKey()), decodeValue(kv.getValue()));
+      }
+    } else {
+      for (int i = 0; i + 1 < list.size(); i += 2) {
+        map.put(SafeEncoder.encode((byte[]) list.get(i)), decodeValue(list.get(i + 1)));
+      }
+    }
+    return map;
+  }
+
+  private static Object decodeValue(Object value) {
+    return value instanceof byte[] ? SafeEncoder.encode((byte[]) value) : value;
+  }
+
   private List<Integer> getAssignedSlotArray(List<Object> slotInfo) {
     List<Integer> slotNums = new ArrayList<>();
     for (int slot = ((Long) slotInfo.get(0)).intValue(); slot <= ((Long) slotInfo.get(1))
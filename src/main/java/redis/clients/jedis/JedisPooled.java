@@ -389,6 +389,13 @@ public class JedisPooled extends UnifiedJedis {
     this(new PooledConnectionProvider(factory, poolConfig));
   }
 
+  /**
+   * Uses the given pool, e.g. a {@link LightweightConnectionPool}.
+   */
+  public JedisPooled(ConnectionPool pool) {
+    this(new PooledConnectionProvider(pool));
+  }
+
   public JedisPooled(PooledConnectionProvider provider) {
     super(provider);
   }
@@ -0,0 +1,562 @@
+package redis.clients.jedis;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * A {@link ConnectionPool} which does not go through the {@code GenericObjectPool} machinery when
+ * borrowing and returning connections.
+ * <p>
+ * A thread first tries to take back the connection it returned last; otherwise it claims any idle
+ * connection of the shared array with a compare-and-set on its state. Neither locks nor allocates.
+ * A lock is only taken to add or remove a connection, and to wait while all {@code maxTotal}
+ * connections are in use.
+ * <p>
+ * {@code maxTotal}, {@code maxIdle}, {@code maxWait}, {@code blockWhenExhausted},
+ * {@code testOnBorrow} and {@code testOnReturn} of the pool config are honored. Every
+ * {@code timeBetweenEvictionRuns}, connections idle for longer than {@code minEvictableIdleTime}
+ * are destroyed down to {@code minIdle} by {@link #evictIdle(long)}; with {@code testWhileIdle},
+ * those which did not read a reply since the last run are then validated by
+ * {@link #validateIdle(long)}. The other eviction settings are ignored.
+ * <p>
+ * The connections are not kept by the {@code GenericObjectPool} this class extends. So besides
+ * the methods of {@link redis.clients.jedis.util.Pool}, only {@link #borrowObject()},
+ * {@link #returnObject(Connection)}, {@link #invalidateObject(Connection)}, {@link #clear()},
+ * {@link #evict()}, {@link #addObject()}, {@link #isClosed()} and the {@code getNum*} counters act
+ * on them. The other methods of {@code GenericObjectPool}, e.g. {@code listAllObjects()} and the
+ * created, borrowed and destroyed counts and timings, see an empty pool.
+ */
+public class LightweightConnectionPool extends ConnectionPool {
+
+  private static final Logger logger = LoggerFactory.getLogger(LightweightConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int REMOVED = 2;
+
+  private static final class Entry {
+
+    private static final AtomicIntegerFieldUpdater<Entry> STATE
+        = AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+    private final PooledObject<Connection> pooledObject;
+    private volatile int state;
+    private volatile long idleSince = System.currentTimeMillis();
+
+    private Entry(PooledObject<Connection> pooledObject, int state) {
+      this.pooledObject = pooledObject;
+      this.state = state;
+    }
+
+    private boolean compareAndSetState(int expect, int update) {
+      return STATE.compareAndSet(this, expect, update);
+    }
+
+    private int getAndSetState(int update) {
+      return STATE.getAndSet(this, update);
+    }
+  }
+
+  private static final Entry[] NO_ENTRIES = new Entry[0];
+
+  private final PooledObjectFactory<Connection> factory;
+
+  private volatile Entry[] entries = NO_ENTRIES;
+  private final ConcurrentHashMap<Connection, Entry> entryByConnection = new ConcurrentHashMap<>();
+  private final Object entriesLock = new Object();
+  private final AtomicInteger totalCount = new AtomicInteger();
+
+  private final ThreadLocal<Entry> lastReturned = new ThreadLocal<>();
+
+  private final AtomicInteger waiterCount = new AtomicInteger();
+  private final Object waitLock = new Object();
+  private volatile long releaseCount = 0;
+
+  private volatile boolean closing = false;
+
+  private final ScheduledExecutorService evictor;
+
+  public LightweightConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+    this(new ConnectionFactory(hostAndPort, clientConfig));
+  }
+
+  public LightweightConnectionPool(PooledObjectFactory<Connection> factory) {
+    this(factory, new GenericObjectPoolConfig<>());
+  }
+
+  public LightweightConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig);
+  }
+
+  public LightweightConnectionPool(PooledObjectFactory<Connection> factory,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    super(factory, poolConfig);
+    this.factory = factory;
+    final long runMillis = getDurationBetweenEvictionRuns().toMillis();
+    // idle connections are kept by this class, the evictor of the base pool would only scan an
+    // empty deque
+    setDurationBetweenEvictionRuns(Duration.ofMillis(-1));
+
+    if (runMillis > 0) {
+      final long evictableMillis = getMinEvictableIdleDuration().toMillis();
+      final boolean testWhileIdle = getTestWhileIdle();
+      evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "jedis-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+      });
+      evictor.scheduleWithFixedDelay(() -> {
+        try {
+          if (evictableMillis > 0) {
+            evictIdle(evictableMillis);
+          }
+          if (testWhileIdle) {
+            validateIdle(runMillis);
+          }
+        } catch (RuntimeException e) {
+          logger.warn("Error while evicting idle connections", e);
+        }
+      }, runMillis, runMillis, TimeUnit.MILLISECONDS);
+    } else {
+      evictor = null;
+    }
+  }
+
+  @Override
+  public Connection getResource() {
+    Connection conn = borrowObject();
+    conn.setHandlingPool(this);
+    return conn;
+  }
+
+  @Override
+  public Connection borrowObject() {
+    return borrow(getMaxWaitDuration().toMillis()).pooledObject.getObject();
+  }
+
+  @Override
+  public Connection borrowObject(Duration borrowMaxWaitDuration) {
+    return borrow(borrowMaxWaitDuration.toMillis()).pooledObject.getObject();
+  }
+
+  @Override
+  public Connection borrowObject(long borrowMaxWaitMillis) {
+    return borrow(borrowMaxWaitMillis).pooledObject.getObject();
+  }
+
+  private Entry borrow(final long maxWaitMillis) {
+    Entry entry = lastReturned.get();
+    if (entry != null && entry.compareAndSetState(IDLE, IN_USE) && activate(entry)) {
+      return entry;
+    }
+
+    final long deadline = maxWaitMillis < 0 ? 0 : System.currentTimeMillis() + maxWaitMillis;
+    boolean waiting = false;
+    try {
+      while (true) {
+        if (closing) {
+          throw new JedisException("Could not get a resource from the pool",
+              new IllegalStateException("Pool not open"));
+        }
+
+        final long seenReleaseCount = releaseCount;
+
+        entry = claimIdle();
+        if (entry == null) {
+          entry = create(IN_USE);
+        }
+        if (entry != null) {
+          if (activate(entry)) {
+            return entry;
+          }
+          continue;
+        }
+
+        if (!getBlockWhenExhausted()) {
+          throw new JedisException("Could not get a resource from the pool",
+              new NoSuchElementException("Pool exhausted"));
+        }
+        if (!waiting) {
+          // scan once more after registering, a release from now on wakes us up
+          waiting = true;
+          waiterCount.incrementAndGet();
+          continue;
+        }
+
+        long remaining = 0;
+        if (deadline > 0) {
+          remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            throw new JedisException("Could not get a resource from the pool",
+                new NoSuchElementException("Timeout waiting for idle object, maxWait="
+                    + Duration.ofMillis(maxWaitMillis)));
+          }
+        }
+        synchronized (waitLock) {
+          if (releaseCount == seenReleaseCount) {
+            waitLock.wait(remaining);
+          }
+        }
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new JedisException("Could not get a resource from the pool", ie);
+    } finally {
+      if (waiting) {
+        waiterCount.decrementAndGet();
+      }
+    }
+  }
+
+  private Entry claimIdle() {
+    final Entry[] entries = this.entries;
+    final int length = entries.length;
+    if (length == 0) {
+      return null;
+    }
+    // threads start at different positions so that they do not all race for the first entries
+    final int start = ThreadLocalRandom.current().nextInt(length);
+    for (int i = 0; i < length; i++) {
+      final Entry entry = entries[(start + i) % length];
+      if (entry.state == IDLE && entry.compareAndSetState(IDLE, IN_USE)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the new entry, or {@code null} if there are {@code maxTotal} connections already
+   */
+  private Entry create(int state) {
+    int count;
+    do {
+      count = totalCount.get();
+      final int maxTotal = getMaxTotal();
+      if (maxTotal >= 0 && count >= maxTotal) {
+        return null;
+      }
+    } while (!totalCount.compareAndSet(count, count + 1));
+
+    final PooledObject<Connection> pooledObject;
+    try {
+      pooledObject = factory.makeObject();
+    } catch (Exception e) {
+      totalCount.decrementAndGet();
+      signalRelease();
+      if (e instanceof JedisException) {
+        throw (JedisException) e;
+      }
+      throw new JedisException("Could not create a resource for the pool", e);
+    }
+
+    final Entry entry = new Entry(pooledObject, state);
+    synchronized (entriesLock) {
+      final Entry[] current = entries;
+      final Entry[] updated = new Entry[current.length + 1];
+      System.arraycopy(current, 0, updated, 0, current.length);
+      updated[current.length] = entry;
+      entryByConnection.put(pooledObject.getObject(), entry);
+      entries = updated;
+    }
+    if (state == IDLE) {
+      signalRelease();
+    }
+    return entry;
+  }
+
+  private boolean activate(Entry entry) {
+    try {
+      factory.activateObject(entry.pooledObject);
+      if (!getTestOnBorrow() || factory.validateObject(entry.pooledObject)) {
+        return true;
+      }
+    } catch (Exception e) {
+      logger.debug("Error while activating connection", e);
+    }
+    remove(entry);
+    return false;
+  }
+
+  @Override
+  public void returnResource(final Connection resource) {
+    if (resource == null) {
+      return;
+    }
+    final Entry entry = entryByConnection.get(resource);
+    if (entry == null || entry.state != IN_USE) {
+      throw new JedisException("Could not return the resource to the pool",
+          new IllegalStateException("Returned object not currently part of this pool"));
+    }
+    if (closing) {
+      remove(entry);
+      return;
+    }
+
+    try {
+      factory.passivateObject(entry.pooledObject);
+      if (getTestOnReturn() && !factory.validateObject(entry.pooledObject)) {
+        remove(entry);
+        return;
+      }
+    } catch (Exception e) {
+      logger.debug("Error while passivating connection", e);
+      remove(entry);
+      return;
+    }
+
+    final int maxIdle = getMaxIdle();
+    final int maxTotal = getMaxTotal();
+    if (maxIdle >= 0 && (maxTotal < 0 || maxIdle < maxTotal) && getNumIdle() >= maxIdle) {
+      remove(entry);
+      return;
+    }
+
+    if (lastReturned.get() != entry) {
+      lastReturned.set(entry);
+    }
+    entry.idleSince = System.currentTimeMillis();
+    release(entry);
+  }
+
+  @Override
+  public void returnObject(final Connection resource) {
+    returnResource(resource);
+  }
+
+  @Override
+  public void returnBrokenResource(final Connection resource) {
+    if (resource == null) {
+      return;
+    }
+    final Entry entry = entryByConnection.get(resource);
+    if (entry == null) {
+      throw new JedisException("Could not return the broken resource to the pool",
+          new IllegalStateException("Invalidated object not currently part of this pool"));
+    }
+    remove(entry);
+  }
+
+  @Override
+  public void invalidateObject(final Connection resource) {
+    returnBrokenResource(resource);
+  }
+
+  @Override
+  public void invalidateObject(final Connection resource, final DestroyMode destroyMode) {
+    returnBrokenResource(resource);
+  }
+
+  private void remove(Entry entry) {
+    if (entry.getAndSetState(REMOVED) == REMOVED) {
+      return;
+    }
+    synchronized (entriesLock) {
+      final Entry[] current = entries;
+      for (int i = 0; i < current.length; i++) {
+        if (current[i] == entry) {
+          final Entry[] updated = new Entry[current.length - 1];
+          System.arraycopy(current, 0, updated, 0, i);
+          System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+          entries = updated;
+          break;
+        }
+      }
+      entryByConnection.remove(entry.pooledObject.getObject());
+    }
+    totalCount.decrementAndGet();
+    // so that closing the connection disconnects it instead of returning it again
+    entry.pooledObject.getObject().setHandlingPool(null);
+    try {
+      factory.destroyObject(entry.pooledObject);
+    } catch (Exception e) {
+      logger.debug("Error while destroying connection", e);
+    }
+    signalRelease();
+  }
+
+  /**
+   * Destroys the idle connections.
+   */
+  @Override
+  public void clear() {
+    for (Entry entry : entries) {
+      if (entry.compareAndSetState(IDLE, IN_USE)) {
+        remove(entry);
+      }
+    }
+  }
+
+  /**
+   * Runs {@link #evictIdle(long)} with {@code minEvictableIdleTime}, if it is positive.
+   */
+  @Override
+  public void evict() {
+    final long evictableMillis = getMinEvictableIdleDuration().toMillis();
+    if (evictableMillis > 0) {
+      evictIdle(evictableMillis);
+    }
+  }
+
+  /**
+   * Destroys the connections which have been idle for longer than the given period, the longest
+   * pooled ones first, as long as more than {@code minIdle} connections are idle.
+   */
+  public void evictIdle(long idleMillis) {
+    final long idleBefore = System.currentTimeMillis() - idleMillis;
+    final int minIdle = getMinIdle();
+    int idle = getNumIdle();
+    for (Entry entry : entries) {
+      if (idle <= minIdle) {
+        return;
+      }
+      if (entry.idleSince < idleBefore && entry.compareAndSetState(IDLE, IN_USE)) {
+        remove(entry);
+        idle--;
+      }
+    }
+  }
+
+  /**
+   * Validates the idle connections which did not read a reply within the given period, and destroys
+   * the ones which fail. A PING is sent on all of them before any reply is read, so that the whole
+   * batch takes about one round trip.
+   */
+  public void validateIdle(long idleMillis) {
+    final Entry[] entries = this.entries;
+    final Entry[] claimed = new Entry[entries.length];
+    int count = 0;
+    for (Entry entry : entries) {
+      if (entry.compareAndSetState(IDLE, IN_USE)) {
+        if (entry.pooledObject.getObject().hasReplyWithin(idleMillis)) {
+          release(entry);
+        } else {
+          claimed[count++] = entry;
+        }
+      }
+    }
+
+    for (int i = 0; i < count; i++) {
+      final Connection conn = claimed[i].pooledObject.getObject();
+      try {
+        if (conn.isHealthy()) {
+          conn.sendCommand(Command.PING);
+          conn.flush();
+          continue;
+        }
+      } catch (JedisException e) {
+        logger.debug("Error while validating idle connection", e);
+      }
+      remove(claimed[i]);
+      claimed[i] = null;
+    }
+
+    for (int i = 0; i < count; i++) {
+      if (claimed[i] == null) {
+        continue;
+      }
+      try {
+        if ("PONG".equals(claimed[i].pooledObject.getObject().getStatusCodeReply())) {
+          release(claimed[i]);
+          continue;
+        }
+      } catch (JedisException e) {
+        logger.debug("Error while validating idle connection", e);
+      }
+      remove(claimed[i]);
+    }
+  }
+
+  private void release(Entry entry) {
+    entry.state = IDLE;
+    // destroy() skipped the entry while it was in use, either it or we remove it now
+    if (closing && entry.compareAndSetState(IDLE, IN_USE)) {
+      remove(entry);
+      return;
+    }
+    signalRelease();
+  }
+
+  /**
+   * Wakes up the threads waiting for a connection, if any. Must be called after a connection became
+   * idle or the capacity to create one became available.
+   */
+  private void signalRelease() {
+    if (waiterCount.get() > 0) {
+      synchronized (waitLock) {
+        releaseCount++;
+        waitLock.notifyAll();
+      }
+    }
+  }
+
+  @Override
+  public void addObject() {
+    create(IDLE);
+  }
+
+  @Override
+  public void addObjects(int count) {
+    for (int i = 0; i < count; i++) {
+      if (create(IDLE) == null) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    closing = true;
+    if (evictor != null) {
+      evictor.shutdownNow();
+    }
+    clear();
+    synchronized (waitLock) {
+      releaseCount++;
+      waitLock.notifyAll();
+    }
+    super.destroy();
+  }
+
+  @Override
+  public int getNumActive() {
+    return countEntries(IN_USE);
+  }
+
+  @Override
+  public int getNumIdle() {
+    return countEntries(IDLE);
+  }
+
+  @Override
+  public int getNumWaiters() {
+    return waiterCount.get();
+  }
+
+  private int countEntries(int state) {
+    int count = 0;
+    for (Entry entry : entries) {
+      if (entry.state == state) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
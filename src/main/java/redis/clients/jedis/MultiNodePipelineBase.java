@@ -1,15 +1,20 @@
 package redis.clients.jedis;
 
 import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +22,11 @@ import org.slf4j.LoggerFactory;
 import redis.clients.jedis.commands.PipelineBinaryCommands;
 import redis.clients.jedis.commands.PipelineCommands;
 import redis.clients.jedis.commands.RedisModulePipelineCommands;
+import redis.clients.jedis.exceptions.JedisAskDataException;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
 import redis.clients.jedis.graph.GraphCommandObjects;
 import redis.clients.jedis.providers.ConnectionProvider;
 import redis.clients.jedis.util.IOUtils;
@@ -31,16 +40,28 @@ public abstract class MultiNodePipelineBase extends PipelineBase
    * The number of processes for {@code sync()}. If you have enough cores for client (and you have
    * more than 3 cluster nodes), you may increase this number of workers.
    * Suggestion:&nbsp;&le;&nbsp;cluster&nbsp;nodes.
+   * <p>
+   * Not used by pipelines which have a long-lived executor, see {@link #getSyncExecutor()}.
    */
   public static volatile int MULTI_NODE_PIPELINE_SYNC_WORKERS = 3;
 
   private final Map<HostAndPort, Queue<Response<?>>> pipelinedResponses;
+  private final Map<HostAndPort, Queue<CommandObject<?>>> pipelinedCommands;
   private final Map<HostAndPort, Connection> connections;
   private volatile boolean syncing = false;
 
   public MultiNodePipelineBase(CommandObjects commandObjects) {
+    this(commandObjects, false);
+  }
+
+  /**
+   * @param replayRedirections whether commands which are answered by a MOVED or ASK redirection are
+   * sent once more, to the node they are redirected to, by {@code sync()}
+   */
+  protected MultiNodePipelineBase(CommandObjects commandObjects, boolean replayRedirections) {
     super(commandObjects);
     pipelinedResponses = new LinkedHashMap<>();
+    pipelinedCommands = replayRedirections ? new LinkedHashMap<>() : null;
     connections = new LinkedHashMap<>();
   }
 
@@ -58,34 +79,48 @@ public abstract class MultiNodePipelineBase extends PipelineBase
 
   protected abstract Connection getConnection(HostAndPort nodeKey);
 
+  /**
+   * Called once by {@code sync()} before commands which were answered by a MOVED redirection are
+   * replayed, if redirections are replayed at all.
+   * @param redirections the MOVED redirections
+   */
+  protected void renewSlotCache(List<JedisMovedDataException> redirections) {
+  }
+
   @Override
   protected final <T> Response<T> appendCommand(CommandObject<T> commandObject) {
     HostAndPort nodeKey = getNodeKey(commandObject.getArguments());
 
-    Queue<Response<?>> queue;
-    Connection connection;
-    if (pipelinedResponses.containsKey(nodeKey)) {
-      queue = pipelinedResponses.get(nodeKey);
-      connection = connections.get(nodeKey);
-    } else {
-      pipelinedResponses.putIfAbsent(nodeKey, new LinkedList<>());
-      queue = pipelinedResponses.get(nodeKey);
-
-      Connection newOne = getConnection(nodeKey);
-      connections.putIfAbsent(nodeKey, newOne);
-      connection = connections.get(nodeKey);
-      if (connection != newOne) {
-        log.debug("Duplicate connection to {}, closing it.", nodeKey);
-        IOUtils.closeQuietly(newOne);
-      }
-    }
-
+    Connection connection = getNodeConnection(nodeKey);
     connection.sendCommand(commandObject.getArguments());
     Response<T> response = new Response<>(commandObject.getBuilder());
-    queue.add(response);
+    pipelinedResponses.get(nodeKey).add(response);
+    if (pipelinedCommands != null) {
+      pipelinedCommands.get(nodeKey).add(commandObject);
+    }
     return response;
   }
 
+  private Connection getNodeConnection(HostAndPort nodeKey) {
+    if (pipelinedResponses.containsKey(nodeKey)) {
+      return connections.get(nodeKey);
+    }
+
+    pipelinedResponses.putIfAbsent(nodeKey, new LinkedList<>());
+    if (pipelinedCommands != null) {
+      pipelinedCommands.putIfAbsent(nodeKey, new ArrayDeque<>());
+    }
+
+    Connection newOne = getConnection(nodeKey);
+    connections.putIfAbsent(nodeKey, newOne);
+    Connection connection = connections.get(nodeKey);
+    if (connection != newOne) {
+      log.debug("Duplicate connection to {}, closing it.", nodeKey);
+      IOUtils.closeQuietly(newOne);
+    }
+    return connection;
+  }
+
   @Override
   public void close() {
     try {
@@ -95,50 +130,182 @@ public abstract class MultiNodePipelineBase extends PipelineBase
     }
   }
 
+  /**
+   * The executor which reads the replies of {@code sync()} from all nodes but one, which are read by
+   * the calling thread. If none is returned, a pool of {@link #MULTI_NODE_PIPELINE_SYNC_WORKERS}
+   * threads is created for every {@code sync()}.
+   * @return executor, or {@code null}
+   */
+  protected ExecutorService getSyncExecutor() {
+    return null;
+  }
+
   @Override
   public final void sync() {
     if (syncing) {
       return;
     }
     syncing = true;
+    try {
+      ExecutorService sharedExecutor = getSyncExecutor();
+      ExecutorService executorService = sharedExecutor;
+      if (executorService == null && pipelinedResponses.size() > 1) {
+        executorService = Executors.newFixedThreadPool(MULTI_NODE_PIPELINE_SYNC_WORKERS);
+      }
+
+      Queue<HostAndPort> brokenNodes = new ConcurrentLinkedQueue<>();
+      Queue<Redirection> redirections = new ConcurrentLinkedQueue<>();
+      CountDownLatch countDownLatch = new CountDownLatch(pipelinedResponses.size());
+      Runnable inline = null;
+      for (Map.Entry<HostAndPort, Queue<Response<?>>> entry : pipelinedResponses.entrySet()) {
+        HostAndPort nodeKey = entry.getKey();
+        Queue<Response<?>> queue = entry.getValue();
+        Queue<CommandObject<?>> commands
+            = pipelinedCommands != null ? pipelinedCommands.get(nodeKey) : null;
+        Connection connection = connections.get(nodeKey);
+        Runnable task = () -> {
+          try {
+            // flushes the commands to this node, then reads its replies
+            List<Object> unformatted = connection.getMany(queue.size());
+            for (Object o : unformatted) {
+              Response<?> response = queue.poll();
+              CommandObject<?> command = commands != null ? commands.poll() : null;
+              if (command != null && o instanceof JedisRedirectionException) {
+                redirections.add(new Redirection(command, response, (JedisRedirectionException) o));
+              } else {
+                response.set(o);
+              }
+            }
+          } catch (JedisConnectionException jce) {
+            log.error("Error with connection to " + nodeKey, jce);
+            brokenNodes.add(nodeKey);
+          } finally {
+            countDownLatch.countDown();
+          }
+        };
+        if (inline == null) {
+          inline = task;
+          continue;
+        }
+        try {
+          executorService.execute(task);
+        } catch (RejectedExecutionException ree) {
+          task.run();
+        }
+      }
+      if (inline != null) {
+        inline.run();
+      }
+
+      try {
+        countDownLatch.await();
+      } catch (InterruptedException e) {
+        log.error("Thread is interrupted during sync.", e);
+      }
+
+      if (executorService != null && executorService != sharedExecutor) {
+        executorService.shutdownNow();
+      }
+
+      // cleanup the broken connections
+      brokenNodes.forEach(this::removeNode);
+
+      if (!redirections.isEmpty()) {
+        replay(redirections);
+      }
+    } finally {
+      syncing = false;
+    }
+  }
 
-    ExecutorService executorService = Executors.newFixedThreadPool(MULTI_NODE_PIPELINE_SYNC_WORKERS);
+  private void removeNode(HostAndPort nodeKey) {
+    pipelinedResponses.remove(nodeKey);
+    if (pipelinedCommands != null) {
+      pipelinedCommands.remove(nodeKey);
+    }
+    IOUtils.closeQuietly(connections.remove(nodeKey));
+  }
+
+  /**
+   * Sends the redirected commands to their target nodes in one more pipelined round. A command which
+   * is redirected again, or whose target node fails, keeps the reply of this round or the original
+   * redirection respectively.
+   */
+  private void replay(Collection<Redirection> redirections) {
+    Map<HostAndPort, List<Redirection>> byNode = new LinkedHashMap<>();
+    List<JedisMovedDataException> moved = new ArrayList<>();
+    for (Redirection redirection : redirections) {
+      if (redirection.exception instanceof JedisMovedDataException) {
+        moved.add((JedisMovedDataException) redirection.exception);
+      }
+      byNode.computeIfAbsent(redirection.exception.getTargetNode(), k -> new ArrayList<>())
+          .add(redirection);
+    }
+    if (!moved.isEmpty()) {
+      renewSlotCache(moved);
+    }
 
-    CountDownLatch countDownLatch = new CountDownLatch(pipelinedResponses.size());
-    Iterator<Map.Entry<HostAndPort, Queue<Response<?>>>> pipelinedResponsesIterator
-        = pipelinedResponses.entrySet().iterator();
-    while (pipelinedResponsesIterator.hasNext()) {
-      Map.Entry<HostAndPort, Queue<Response<?>>> entry = pipelinedResponsesIterator.next();
+    Map<HostAndPort, Integer> sent = new LinkedHashMap<>();
+    for (Map.Entry<HostAndPort, List<Redirection>> entry : byNode.entrySet()) {
       HostAndPort nodeKey = entry.getKey();
-      Queue<Response<?>> queue = entry.getValue();
-      Connection connection = connections.get(nodeKey);
-      executorService.submit(() -> {
-        try {
-          List<Object> unformatted = connection.getMany(queue.size());
-          for (Object o : unformatted) {
-            queue.poll().set(o);
+      try {
+        Connection connection = getNodeConnection(nodeKey);
+        int count = 0;
+        for (Redirection redirection : entry.getValue()) {
+          if (redirection.exception instanceof JedisAskDataException) {
+            connection.sendCommand(Protocol.Command.ASKING);
+            count++;
           }
-        } catch (JedisConnectionException jce) {
-          log.error("Error with connection to " + nodeKey, jce);
-          // cleanup the connection
-          pipelinedResponsesIterator.remove();
-          connections.remove(nodeKey);
-          IOUtils.closeQuietly(connection);
-        } finally {
-          countDownLatch.countDown();
+          connection.sendCommand(redirection.command.getArguments());
+          count++;
         }
-      });
+        connection.flush();
+        sent.put(nodeKey, count);
+      } catch (JedisException je) {
+        log.error("Error with connection to " + nodeKey, je);
+        entry.getValue().forEach(Redirection::fail);
+        removeNode(nodeKey);
+      }
     }
 
-    try {
-      countDownLatch.await();
-    } catch (InterruptedException e) {
-      log.error("Thread is interrupted during sync.", e);
+    for (Map.Entry<HostAndPort, Integer> entry : sent.entrySet()) {
+      HostAndPort nodeKey = entry.getKey();
+      List<Redirection> nodeRedirections = byNode.get(nodeKey);
+      List<Object> replies;
+      try {
+        replies = connections.get(nodeKey).getMany(entry.getValue());
+      } catch (JedisConnectionException jce) {
+        log.error("Error with connection to " + nodeKey, jce);
+        nodeRedirections.forEach(Redirection::fail);
+        removeNode(nodeKey);
+        continue;
+      }
+      Iterator<Object> iterator = replies.iterator();
+      for (Redirection redirection : nodeRedirections) {
+        if (redirection.exception instanceof JedisAskDataException) {
+          iterator.next(); // ASKING
+        }
+        redirection.response.set(iterator.next());
+      }
     }
+  }
 
-    executorService.shutdownNow();
+  private static final class Redirection {
 
-    syncing = false;
+    private final CommandObject<?> command;
+    private final Response<?> response;
+    private final JedisRedirectionException exception;
+
+    private Redirection(CommandObject<?> command, Response<?> response,
+        JedisRedirectionException exception) {
+      this.command = command;
+      this.response = response;
+      this.exception = exception;
+    }
+
+    private void fail() {
+      response.set(exception);
+    }
   }
 
   @Deprecated
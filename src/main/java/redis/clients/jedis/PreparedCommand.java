@@ -0,0 +1,120 @@
+package redis.clients.jedis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.util.RedisOutputStream;
+
+/**
+ * A template of a command with a fixed number of arguments, whose fixed parts (the array header,
+ * the command name and constant keywords) are encoded only once. Only the variable arguments are
+ * encoded whenever a command following the template is sent.
+ * <p>
+ * A template is attached to {@link CommandArguments} by {@link CommandArguments#prepared(PreparedCommand)}.
+ * The arguments still hold all the values (including the constants) so that they can be inspected
+ * as usual; they are only checked to have the size of the template when sent.
+ * <pre>
+ * PreparedCommand setEx = new PreparedCommand(Command.SET, PreparedCommand.VARIABLE,
+ *     PreparedCommand.VARIABLE, Keyword.EX, PreparedCommand.VARIABLE);
+ * new CommandArguments(Command.SET).key(key).add(value).add(Keyword.EX).add(seconds).prepared(setEx);
+ * </pre>
+ */
+public final class PreparedCommand {
+
+  /**
+   * Placeholder of a variable argument in a template.
+   */
+  public static final Object VARIABLE = new Object();
+
+  private final ProtocolCommand command;
+  private final int size;
+  // segments[i] is written before the i-th variable argument, the last one after all of them
+  private final byte[][] segments;
+  private final int[] variables;
+
+  /**
+   * @param command the command
+   * @param template the arguments after the command: {@link #VARIABLE} or a constant {@link Rawable}
+   * (e.g. {@link Protocol.Keyword#EX})
+   */
+  public PreparedCommand(ProtocolCommand command, Object... template) {
+    this.command = command;
+    this.size = template.length + 1;
+
+    final List<byte[]> segmentList = new ArrayList<>();
+    final List<Integer> variableList = new ArrayList<>();
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final RedisOutputStream os = new RedisOutputStream(bytes, 64);
+    try {
+      os.write(Protocol.ASTERISK_BYTE);
+      os.writeIntCrLf(size);
+      Protocol.writeArgument(os, command);
+      for (int i = 0; i < template.length; i++) {
+        if (template[i] == VARIABLE) {
+          os.flush();
+          segmentList.add(bytes.toByteArray());
+          bytes.reset();
+          variableList.add(i + 1);
+        } else if (template[i] instanceof Rawable) {
+          Protocol.writeArgument(os, (Rawable) template[i]);
+        } else {
+          throw new IllegalArgumentException("\"" + template[i] + "\" is neither VARIABLE nor a Rawable.");
+        }
+      }
+      os.flush();
+    } catch (IOException ioe) {
+      throw new JedisConnectionException(ioe); // ByteArrayOutputStream doesn't throw
+    }
+    segmentList.add(bytes.toByteArray());
+
+    this.segments = segmentList.toArray(new byte[segmentList.size()][]);
+    this.variables = variableList.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  public ProtocolCommand getCommand() {
+    return command;
+  }
+
+  /**
+   * @return number of arguments including the command
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return whether the arguments can be sent with this template
+   */
+  boolean matches(CommandArguments args) {
+    return args.size() == size && args.getCommand() == command;
+  }
+
+  /**
+   * Writes the arguments using the pre-encoded segments, skipping the constants of the arguments.
+   */
+  void write(RedisOutputStream os, CommandArguments args) throws IOException {
+    final Iterator<Rawable> it = args.iterator();
+    int position = 0;
+    for (int v = 0; v < variables.length; v++) {
+      os.write(segments[v]);
+      for (; position < variables[v]; position++) {
+        it.next();
+      }
+      Protocol.writeArgument(os, it.next());
+      position++;
+    }
+    os.write(segments[variables.length]);
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedCommand{" + command + ", size=" + size + ", variables=" + Arrays.toString(variables) + "}";
+  }
+}
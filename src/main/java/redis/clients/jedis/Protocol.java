@@ -1,16 +1,22 @@
 package redis.clients.jedis;
 
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.IntFunction;
+import java.util.function.Consumer;
 
 import redis.clients.jedis.exceptions.*;
 import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.args.RawableFactory.RawByteBuffer;
 import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.util.KeyValue;
+import redis.clients.jedis.util.NumericEncoder;
 import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.RedisOutputStream;
 import redis.clients.jedis.util.SafeEncoder;
@@ -63,46 +69,73 @@ public final class Protocol {
 
   public static void sendCommand(final RedisOutputStream os, CommandArguments args) {
     try {
+      final ArgumentEncoder encoded = args.getEncoded();
+      if (encoded != null) {
+        os.write(ASTERISK_BYTE);
+        os.writeIntCrLf(encoded.size());
+        encoded.writeTo(os);
+        return;
+      }
+
+      final PreparedCommand prepared = args.getPreparedCommand();
+      if (prepared != null && prepared.matches(args)) {
+        prepared.write(os, args);
+        return;
+      }
+
       os.write(ASTERISK_BYTE);
       os.writeIntCrLf(args.size());
       for (Rawable arg : args) {
-        os.write(DOLLAR_BYTE);
-        final byte[] bin = arg.getRaw();
-        os.writeIntCrLf(bin.length);
-        os.write(bin);
-        os.writeCrLf();
+        writeArgument(os, arg);
       }
     } catch (IOException e) {
       throw new JedisConnectionException(e);
     }
   }
 
+  static void writeArgument(final RedisOutputStream os, final Rawable arg) throws IOException {
+    os.write(DOLLAR_BYTE);
+    if (arg instanceof RawByteBuffer) {
+      final ByteBuffer buffer = ((RawByteBuffer) arg).getByteBuffer();
+      os.writeIntCrLf(buffer.remaining());
+      os.write(buffer);
+    } else {
+      final byte[] bin = arg.getRaw();
+      os.writeIntCrLf(bin.length);
+      os.write(bin);
+    }
+    os.writeCrLf();
+  }
+
   private static void processError(final RedisInputStream is) {
-    String message = is.readLine();
+    throw createError(is.readLine());
+  }
+
+  static JedisDataException createError(final String message) {
     // TODO: I'm not sure if this is the best way to do this.
     // Maybe Read only first 5 bytes instead?
     if (message.startsWith(MOVED_PREFIX)) {
       String[] movedInfo = parseTargetHostAndSlot(message);
-//      throw new JedisMovedDataException(message, new HostAndPort(movedInfo[1],
+//      return new JedisMovedDataException(message, new HostAndPort(movedInfo[1],
 //          Integer.parseInt(movedInfo[2])), Integer.parseInt(movedInfo[0]));
-      throw new JedisMovedDataException(message, HostAndPort.from(movedInfo[1]), Integer.parseInt(movedInfo[0]));
+      return new JedisMovedDataException(message, HostAndPort.from(movedInfo[1]), Integer.parseInt(movedInfo[0]));
     } else if (message.startsWith(ASK_PREFIX)) {
       String[] askInfo = parseTargetHostAndSlot(message);
-//      throw new JedisAskDataException(message, new HostAndPort(askInfo[1],
+//      return new JedisAskDataException(message, new HostAndPort(askInfo[1],
 //          Integer.parseInt(askInfo[2])), Integer.parseInt(askInfo[0]));
-      throw new JedisAskDataException(message, HostAndPort.from(askInfo[1]), Integer.parseInt(askInfo[0]));
+      return new JedisAskDataException(message, HostAndPort.from(askInfo[1]), Integer.parseInt(askInfo[0]));
     } else if (message.startsWith(CLUSTERDOWN_PREFIX)) {
-      throw new JedisClusterException(message);
+      return new JedisClusterException(message);
     } else if (message.startsWith(BUSY_PREFIX)) {
-      throw new JedisBusyException(message);
+      return new JedisBusyException(message);
     } else if (message.startsWith(NOSCRIPT_PREFIX)) {
-      throw new JedisNoScriptException(message);
+      return new JedisNoScriptException(message);
     } else if (message.startsWith(WRONGPASS_PREFIX)) {
-      throw new JedisAccessControlException(message);
+      return new JedisAccessControlException(message);
     } else if (message.startsWith(NOPERM_PREFIX)) {
-      throw new JedisAccessControlException(message);
+      return new JedisAccessControlException(message);
     }
-    throw new JedisDataException(message);
+    return new JedisDataException(message);
   }
 
   public static String readErrorLineIfPossible(RedisInputStream is) {
@@ -132,7 +165,10 @@ public final class Protocol {
   }
 
   private static Object process(final RedisInputStream is) {
-    final byte b = is.readByte();
+    return process(is.readByte(), is);
+  }
+
+  private static Object process(final byte b, final RedisInputStream is) {
     //System.out.println((char) b);
     switch (b) {
       case PLUS_BYTE:
@@ -221,16 +257,247 @@ public final class Protocol {
     return process(is);
   }
 
+  /**
+   * Reads an aggregate reply element by element and passes every element to the consumer as soon
+   * as it is read. Nested errors are passed as {@link JedisDataException}s, like in the list
+   * returned by {@link #read(RedisInputStream)}; the elements of a map are passed as keys and values
+   * in turn. A non-aggregate reply is passed as a single element.
+   * @return number of elements, or -1 if the reply is null
+   * @throws JedisDataException if the reply is an error
+   */
+  public static int readStreaming(final RedisInputStream is, final Consumer<Object> consumer) {
+    final byte b = is.readByte();
+    int num;
+    switch (b) {
+      case ASTERISK_BYTE:
+      case TILDE_BYTE:
+        num = is.readIntCrLf();
+        break;
+      case PERCENT_BYTE:
+        num = is.readIntCrLf();
+        if (num != -1) num *= 2;
+        break;
+      default:
+        consumer.accept(process(b, is));
+        return 1;
+    }
+
+    for (int i = 0; i < num; i++) {
+      Object element;
+      try {
+        element = process(is);
+      } catch (JedisDataException e) {
+        element = e;
+      }
+      consumer.accept(element);
+    }
+    return num;
+  }
+
+  /**
+   * Reads a bulk reply, or every bulk element of an aggregate reply, straight into the buffers given
+   * by the supplier, without intermediate byte arrays. A RESP3 null is read like a null bulk reply.
+   * @param bufferSupplier called with the length of every non-null value; must return a buffer with
+   * at least that many bytes remaining, the value is written at its position
+   * @param consumer called with a view of each value (position 0, limit the length of the value),
+   * or {@code null} for a null value
+   * @return number of values, or -1 if the aggregate reply is null
+   * @throws JedisDataException if the reply is an error
+   * @throws IllegalArgumentException if a supplied buffer is too small; the rest of the reply is
+   * still read so that the connection stays usable
+   */
+  public static int readBulkReplies(final RedisInputStream is,
+      final IntFunction<ByteBuffer> bufferSupplier, final Consumer<ByteBuffer> consumer) {
+    final byte b = is.readByte();
+    switch (b) {
+      case DOLLAR_BYTE:
+      case UNDERSCORE_BYTE:
+        consumer.accept(processBulkReply(b, is, bufferSupplier));
+        return 1;
+      case ASTERISK_BYTE: {
+        final int num = is.readIntCrLf();
+        RuntimeException error = null;
+        for (int i = 0; i < num; i++) {
+          final byte e = is.readByte();
+          if (e != DOLLAR_BYTE && e != UNDERSCORE_BYTE) {
+            throw new JedisConnectionException("Expected a bulk reply but got: " + (char) e);
+          }
+          if (error != null) {
+            skipBulkReply(e, is);
+            continue;
+          }
+          try {
+            consumer.accept(processBulkReply(e, is, bufferSupplier));
+          } catch (IllegalArgumentException iae) {
+            error = iae;
+          }
+        }
+        if (error != null) {
+          throw error;
+        }
+        return num;
+      }
+      case MINUS_BYTE:
+        processError(is);
+        return -1;
+      default:
+        throw new JedisConnectionException("Expected a bulk reply but got: " + (char) b);
+    }
+  }
+
+  private static ByteBuffer processBulkReply(final byte type, final RedisInputStream is,
+      final IntFunction<ByteBuffer> bufferSupplier) {
+    if (type == UNDERSCORE_BYTE) {
+      return (ByteBuffer) is.readNullCrLf();
+    }
+    final int len = is.readIntCrLf();
+    if (len == -1) {
+      return null;
+    }
+
+    final ByteBuffer buffer = bufferSupplier.apply(len);
+    if (buffer == null || buffer.remaining() < len) {
+      skip(is, len + 2);
+      throw new IllegalArgumentException("The supplied buffer is too small for " + len + " bytes.");
+    }
+    final int start = buffer.position();
+    int offset = 0;
+    while (offset < len) {
+      offset += is.read(buffer, len - offset);
+    }
+    // read 2 more bytes for the command delimiter
+    is.readByte();
+    is.readByte();
+
+    final ByteBuffer value = buffer.duplicate();
+    ((Buffer) value).limit(start + len);
+    ((Buffer) value).position(start);
+    return value.slice();
+  }
+
+  private static void skipBulkReply(final byte type, final RedisInputStream is) {
+    if (type == UNDERSCORE_BYTE) {
+      is.readNullCrLf();
+      return;
+    }
+    final int len = is.readIntCrLf();
+    if (len != -1) {
+      skip(is, len + 2);
+    }
+  }
+
+  private static void skip(final RedisInputStream is, final int len) {
+    final byte[] scratch = new byte[Math.min(len, 8192)];
+    int skipped = 0;
+    while (skipped < len) {
+      skipped += is.read(scratch, 0, Math.min(len - skipped, scratch.length));
+    }
+  }
+
+  /**
+   * Reads one reply into the given {@link FlatReply}, replacing its previous content.
+   * @throws JedisDataException if the reply is an error
+   */
+  public static void read(final RedisInputStream is, final FlatReply reply) {
+    reply.reset();
+    processFlat(is, reply);
+    reply.checkError();
+  }
+
+  private static void processFlat(final RedisInputStream is, final FlatReply reply) {
+    final byte b = is.readByte();
+    final int node = reply.addNode(b);
+    switch (b) {
+      case PLUS_BYTE:
+      case MINUS_BYTE:
+      case COLON_BYTE:
+      case COMMA_BYTE:
+      case LEFT_BRACE_BYTE:
+      case HASH_BYTE:
+      case UNDERSCORE_BYTE:
+        processFlatLine(is, reply, node);
+        break;
+      case DOLLAR_BYTE:
+      case EQUAL_BYTE:
+        processFlatBulk(is, reply, node);
+        break;
+      case ASTERISK_BYTE:
+      case TILDE_BYTE:
+      case GREATER_THAN_BYTE:
+        processFlatAggregate(is, reply, node, is.readIntCrLf());
+        break;
+      case PERCENT_BYTE: {
+        final int num = is.readIntCrLf();
+        processFlatAggregate(is, reply, node, num == -1 ? -1 : num * 2);
+        break;
+      }
+      default:
+        throw new JedisConnectionException("Unknown reply: " + (char) b);
+    }
+    reply.setNext(node);
+  }
+
+  private static void processFlatLine(final RedisInputStream is, final FlatReply reply, final int node) {
+    int length = 0;
+    while (true) {
+      final byte b = is.readByte();
+      if (b == '\r') {
+        final byte c = is.readByte();
+        if (c == '\n') {
+          break;
+        }
+        reply.append(b);
+        reply.append(c);
+        length += 2;
+      } else {
+        reply.append(b);
+        length++;
+      }
+    }
+    reply.setLength(node, length);
+  }
+
+  private static void processFlatBulk(final RedisInputStream is, final FlatReply reply, final int node) {
+    final int len = is.readIntCrLf();
+    reply.setLength(node, len);
+    if (len == -1) {
+      return;
+    }
+
+    final int start = reply.allocate(len);
+    final byte[] buffer = reply.buffer();
+    int offset = 0;
+    while (offset < len) {
+      final int size = is.read(buffer, start + offset, (len - offset));
+      if (size == -1) {
+        throw new JedisConnectionException("It seems like server has closed the connection.");
+      }
+      offset += size;
+    }
+
+    // read 2 more bytes for the command delimiter
+    is.readByte();
+    is.readByte();
+  }
+
+  private static void processFlatAggregate(final RedisInputStream is, final FlatReply reply,
+      final int node, final int num) {
+    reply.setLength(node, num);
+    for (int i = 0; i < num; i++) {
+      processFlat(is, reply);
+    }
+  }
+
   public static final byte[] toByteArray(final boolean value) {
     return value ? BYTES_TRUE : BYTES_FALSE;
   }
 
   public static final byte[] toByteArray(final int value) {
-    return SafeEncoder.encode(String.valueOf(value));
+    return NumericEncoder.encode(value);
   }
 
   public static final byte[] toByteArray(final long value) {
-    return SafeEncoder.encode(String.valueOf(value));
+    return NumericEncoder.encode(value);
   }
 
   public static final byte[] toByteArray(final double value) {
@@ -239,7 +506,7 @@ public final class Protocol {
     } else if (value == Double.NEGATIVE_INFINITY) {
       return NEGATIVE_INFINITY_BYTES;
     } else {
-      return SafeEncoder.encode(String.valueOf(value));
+      return NumericEncoder.encode(value);
     }
   }
 
@@ -357,7 +624,7 @@ public final class Protocol {
     MEET, RESET, INFO, FAILOVER, SLOTS, NODES, REPLICAS, SLAVES, MYID, ADDSLOTS, DELSLOTS,
     GETKEYSINSLOT, SETSLOT, NODE, MIGRATING, IMPORTING, STABLE, FORGET, FLUSHSLOTS, KEYSLOT,
     COUNTKEYSINSLOT, SAVECONFIG, REPLICATE, LINKS, ADDSLOTSRANGE, DELSLOTSRANGE, BUMPEPOCH,
-    MYSHARDID;
+    MYSHARDID, SHARDS;
 
     private final byte[] raw;
 
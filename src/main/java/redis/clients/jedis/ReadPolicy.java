@@ -0,0 +1,36 @@
+package redis.clients.jedis;
+
+/**
+ * Where a cluster client sends read-only commands. Other commands are always sent to the master of
+ * the slot. Connections to the nodes are put in {@code READONLY} mode unless the policy is
+ * {@link #MASTER}.
+ */
+public enum ReadPolicy {
+
+  /**
+   * Read from the master of the slot.
+   */
+  MASTER,
+
+  /**
+   * Read from a random replica of the slot, or from the master if the slot has no replica.
+   */
+  REPLICA_PREFERRED,
+
+  /**
+   * Read from a random replica of the slot; fail if the slot has no replica.
+   */
+  REPLICA,
+
+  /**
+   * Read from the master or replica of the slot with the lowest latency, as measured by a PING to
+   * every node every second, in the background, and smoothed by a moving average. Until a node is
+   * measured, the master is read from.
+   */
+  LOWEST_LATENCY,
+
+  /**
+   * Read from the master and the replicas of the slot in turn.
+   */
+  ROUND_ROBIN
+}
@@ -33,6 +33,11 @@ public class ScanIteration extends JedisCommandIterationBase<ScanResult<String>,
     return reply.isCompleteIteration();
   }
 
+  @Override
+  protected boolean isParallelIterationSupported() {
+    return true;
+  }
+
   @Override
   protected CommandArguments initCommandArguments() {
     return args.apply(ScanParams.SCAN_POINTER_START);
@@ -26,6 +26,13 @@ public class ShardedCommandArguments extends CommandArguments {
     this.tagPattern = tagPattern;
   }
 
+  public ShardedCommandArguments(Hashing algo, Pattern tagPattern, ProtocolCommand command,
+      boolean encoded) {
+    super(command, encoded);
+    this.algo = algo;
+    this.tagPattern = tagPattern;
+  }
+
   public Long getKeyHash() {
     return keyHash;
   }
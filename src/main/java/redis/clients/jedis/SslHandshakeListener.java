@@ -0,0 +1,19 @@
+package redis.clients.jedis;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * Notified of the TLS handshake of every new connection, e.g. to record how long handshakes take
+ * and how many of them resume an earlier session.
+ */
+public interface SslHandshakeListener {
+
+  /**
+   * @param hostAndPort the node, as mapped by the {@link HostAndPortMapper} if any
+   * @param session the negotiated session
+   * @param resumed {@code true} if an earlier session was resumed instead of a full handshake; for
+   * TLS 1.3 this is inferred from the session's creation time and may be wrong if clocks move
+   * @param durationNanos duration of the handshake
+   */
+  void onHandshake(HostAndPort hostAndPort, SSLSession session, boolean resumed, long durationNanos);
+}
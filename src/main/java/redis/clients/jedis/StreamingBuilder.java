@@ -0,0 +1,61 @@
+package redis.clients.jedis;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import redis.clients.jedis.util.KeyValue;
+
+/**
+ * An alternative to {@link Builder} for huge aggregate replies (e.g. LRANGE, HGETALL, ZRANGE) which
+ * builds one item per element of the reply as soon as the element is read, instead of building the
+ * whole reply at once. The items are passed to a {@link Consumer} on the reading thread, so the
+ * socket provides the back-pressure.
+ *
+ * @param <E> type of the items
+ * @see Connection#executeCommand(CommandArguments, StreamingBuilder, Consumer)
+ */
+public abstract class StreamingBuilder<E> {
+
+  /**
+   * @param element an element of the reply, as it would be in the list returned by
+   * {@link Protocol#read(redis.clients.jedis.util.RedisInputStream)}; a {@link KeyValue} of two
+   * consecutive elements for the builders which use {@link #pairing(Consumer)}
+   * @return the item
+   */
+  public abstract E build(Object element);
+
+  /**
+   * Creates the consumer of the raw elements of one reply.
+   * @param consumer consumer of the items
+   * @return consumer of the raw elements
+   */
+  public Consumer<Object> newElementConsumer(Consumer<? super E> consumer) {
+    return element -> consumer.accept(build(element));
+  }
+
+  /**
+   * For replies where an item is made of two consecutive elements in RESP2 (or a RESP3 map) and of
+   * a nested two element array in RESP3 (e.g. ZRANGE WITHSCORES). Two consecutive elements are
+   * passed to {@link #build(Object)} as a {@link KeyValue}, a nested array as it is.
+   */
+  protected final Consumer<Object> pairing(Consumer<? super E> consumer) {
+    return new Consumer<Object>() {
+      private boolean hasKey = false;
+      private Object key;
+
+      @Override
+      public void accept(Object element) {
+        if (hasKey) {
+          hasKey = false;
+          consumer.accept(build(KeyValue.of(key, element)));
+          key = null;
+        } else if (element instanceof List) {
+          consumer.accept(build(element));
+        } else {
+          hasKey = true;
+          key = element;
+        }
+      }
+    };
+  }
+}
@@ -1,10 +1,15 @@
 package redis.clients.jedis;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.regex.Pattern;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.json.JSONArray;
@@ -17,6 +22,7 @@ import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.commands.SampleBinaryKeyedCommands;
 import redis.clients.jedis.commands.SampleKeyedCommands;
 import redis.clients.jedis.commands.RedisModuleCommands;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.executors.*;
 import redis.clients.jedis.gears.TFunctionListParams;
@@ -233,11 +239,42 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     this.graphCommandObjects.setBaseCommandArgumentsCreator((comm) -> this.commandObjects.commandArguments(comm));
   }
 
+  /**
+   * The constructor to use a custom {@link CommandExecutor} (e.g. {@link AutoPipeliningCommandExecutor})
+   * together with a {@link ConnectionProvider}. The provider is used for pipelines, transactions and
+   * pub/sub.
+   */
+  public UnifiedJedis(ConnectionProvider provider, CommandExecutor executor) {
+    this.provider = provider;
+    this.executor = executor;
+    this.commandObjects = new CommandObjects();
+    this.graphCommandObjects = new GraphCommandObjects(this);
+    this.graphCommandObjects.setBaseCommandArgumentsCreator((comm) -> this.commandObjects.commandArguments(comm));
+    try (Connection conn = this.provider.getConnection()) {
+      if (conn != null) {
+        RedisProtocol proto = conn.getRedisProtocol();
+        if (proto != null) commandObjects.setProtocol(proto);
+      }
+    } catch (JedisException je) {
+      // use default protocol
+    }
+  }
+
   @Override
   public void close() {
     IOUtils.closeQuietly(this.executor);
   }
 
+  /**
+   * Opens connections to every node up to the {@code minIdle} of its pool, at most
+   * {@code parallelism} at a time, so that the first commands do not wait for connections to be
+   * established. Returns once all of them are established.
+   * @see ConnectionProvider#warmUp(int, Duration)
+   */
+  public void warmUp(int parallelism, Duration timeout) {
+    provider.warmUp(parallelism, timeout);
+  }
+
   protected final void setProtocol(RedisProtocol protocol) {
     this.protocol = protocol;
     this.commandObjects.setProtocol(this.protocol);
@@ -251,6 +288,42 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executor.broadcastCommand(commandObject);
   }
 
+  private List<ByteBuffer> executeBulkCommand(CommandArguments args, IntFunction<ByteBuffer> bufferSupplier) {
+    return executor.executeCommand(args, connection -> {
+      final List<ByteBuffer> values = new ArrayList<>();
+      connection.executeCommand(args, bufferSupplier, values::add);
+      return values;
+    });
+  }
+
+  /**
+   * Executes the command on a connection lent by the {@link CommandExecutor} and passes every item
+   * of its reply to the consumer as soon as it is read, so that huge replies are never held in
+   * memory as a whole. Redirections and failures before the first item are handled like those of
+   * any other command; a connection failure after it is not retried, because the consumer would get
+   * the first items again.
+   * @return number of elements of the reply, or -1 if the reply is null
+   * @see Connection#executeCommand(CommandArguments, StreamingBuilder, Consumer)
+   * @see CommandExecutor#executeCommand(CommandArguments, java.util.function.Function)
+   */
+  public final <E> int executeCommand(CommandArguments args, StreamingBuilder<E> builder,
+      Consumer<? super E> consumer) {
+    final boolean[] consumed = new boolean[1];
+    return executor.executeCommand(args, connection -> {
+      try {
+        return connection.executeCommand(args, builder, element -> {
+          consumed[0] = true;
+          consumer.accept(element);
+        });
+      } catch (JedisConnectionException jce) {
+        if (consumed[0]) {
+          throw new JedisException("Connection failed after a part of the reply was consumed.", jce);
+        }
+        throw jce;
+      }
+    });
+  }
+
   private <T> T checkAndBroadcastCommand(CommandObject<T> commandObject) {
     boolean broadcast = true;
 
@@ -750,6 +823,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.set(key, value));
   }
 
+  /**
+   * Variant of {@link #set(byte[], byte[])} which writes the remaining bytes of the (possibly direct)
+   * buffer straight to the connection.
+   */
+  public String set(byte[] key, ByteBuffer value) {
+    return executeCommand(commandObjects.set(key, value));
+  }
+
   @Override
   public String set(byte[] key, byte[] value, SetParams params) {
     return executeCommand(commandObjects.set(key, value, params));
@@ -760,6 +841,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.get(key));
   }
 
+  /**
+   * Variant of {@link #get(byte[])} which reads the value straight into the buffer returned by the
+   * supplier for the length of the value, e.g. a caller-owned or pooled direct buffer.
+   * @return a view of the value in the supplied buffer, or {@code null} if the key doesn't exist
+   */
+  public ByteBuffer get(byte[] key, IntFunction<ByteBuffer> bufferSupplier) {
+    return executeBulkCommand(commandObjects.get(key).getArguments(), bufferSupplier).get(0);
+  }
+
   @Override
   public byte[] setGet(byte[] key, byte[] value) {
     return executeCommand(commandObjects.setGet(key, value));
@@ -930,6 +1020,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.mget(keys));
   }
 
+  /**
+   * Variant of {@link #mget(byte[]...)} which reads the values straight into the buffers returned by
+   * the supplier.
+   * @see #get(byte[], IntFunction)
+   */
+  public List<ByteBuffer> mget(IntFunction<ByteBuffer> bufferSupplier, byte[]... keys) {
+    return executeBulkCommand(commandObjects.mget(keys).getArguments(), bufferSupplier);
+  }
+
   @Override
   public String mset(byte[]... keysvalues) {
     return executeCommand(commandObjects.mset(keysvalues));
@@ -1082,6 +1181,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.lrange(key, start, stop));
   }
 
+  /**
+   * Streaming version of {@link #lrange(String, long, long)}.
+   */
+  public void lrange(String key, long start, long stop, Consumer<String> consumer) {
+    executeCommand(commandObjects.lrange(key, start, stop).getArguments(),
+        BuilderFactory.STRING_STREAM, consumer);
+  }
+
   @Override
   public String ltrim(String key, long start, long stop) {
     return executeCommand(commandObjects.ltrim(key, start, stop));
@@ -1419,6 +1526,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.hset(key, field, value));
   }
 
+  /**
+   * Variant of {@link #hset(byte[], byte[], byte[])} which writes the remaining bytes of the
+   * (possibly direct) buffer straight to the connection.
+   */
+  public long hset(byte[] key, byte[] field, ByteBuffer value) {
+    return executeCommand(commandObjects.hset(key, field, value));
+  }
+
   @Override
   public long hset(byte[] key, Map<byte[], byte[]> hash) {
     return executeCommand(commandObjects.hset(key, hash));
@@ -1429,6 +1544,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.hget(key, field));
   }
 
+  /**
+   * Variant of {@link #hget(byte[], byte[])} which reads the value straight into the buffer returned
+   * by the supplier.
+   * @see #get(byte[], IntFunction)
+   */
+  public ByteBuffer hget(byte[] key, byte[] field, IntFunction<ByteBuffer> bufferSupplier) {
+    return executeBulkCommand(commandObjects.hget(key, field).getArguments(), bufferSupplier).get(0);
+  }
+
   @Override
   public long hsetnx(byte[] key, byte[] field, byte[] value) {
     return executeCommand(commandObjects.hsetnx(key, field, value));
@@ -1509,6 +1633,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.hgetAll(key));
   }
 
+  /**
+   * Streaming version of {@link #hgetAll(String)}.
+   */
+  public void hgetAll(String key, BiConsumer<String, String> consumer) {
+    executeCommand(commandObjects.hgetAll(key).getArguments(), BuilderFactory.STRING_PAIR_STREAM,
+        kv -> consumer.accept(kv.getKey(), kv.getValue()));
+  }
+
   @Override
   public Set<byte[]> hkeys(byte[] key) {
     return executeCommand(commandObjects.hkeys(key));
@@ -2033,6 +2165,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.zrangeWithScores(key, start, stop));
   }
 
+  /**
+   * Streaming version of {@link #zrangeWithScores(String, long, long)}.
+   */
+  public void zrangeWithScores(String key, long start, long stop, Consumer<Tuple> consumer) {
+    executeCommand(commandObjects.zrangeWithScores(key, start, stop).getArguments(),
+        BuilderFactory.TUPLE_STREAM, consumer);
+  }
+
   @Override
   public List<Tuple> zrevrangeWithScores(String key, long start, long stop) {
     return executeCommand(commandObjects.zrevrangeWithScores(key, start, stop));
@@ -2,6 +2,7 @@ package redis.clients.jedis.args;
 
 import static redis.clients.jedis.Protocol.toByteArray;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import redis.clients.jedis.util.SafeEncoder;
 
@@ -19,6 +20,15 @@ public final class RawableFactory {
     return from(toByteArray(i));
   }
 
+  /**
+   * Get a {@link Rawable} from a {@code long}.
+   * @param l long value
+   * @return raw
+   */
+  public static Rawable from(long l) {
+    return from(toByteArray(l));
+  }
+
   /**
    * Get a {@link Rawable} from a {@code double}.
    * @param d numeric value
@@ -46,6 +56,16 @@ public final class RawableFactory {
     return new RawString(string);
   }
 
+  /**
+   * Get a {@link Rawable} from the remaining bytes of a {@link ByteBuffer}, which may be direct.
+   * The bytes are not copied, so they must not be modified until the command is sent.
+   * @param buffer value
+   * @return raw
+   */
+  public static Rawable from(ByteBuffer buffer) {
+    return new RawByteBuffer(buffer);
+  }
+
   /**
    * Default implementation of {@link Rawable}.
    */
@@ -80,6 +100,41 @@ public final class RawableFactory {
     }
   }
 
+  /**
+   * A {@link Rawable} wrapping the remaining bytes of a {@link ByteBuffer}. The bytes are written
+   * straight from the buffer into the output stream of the connection.
+   */
+  public static class RawByteBuffer implements Rawable {
+
+    private final ByteBuffer buffer;
+    private byte[] raw;
+
+    public RawByteBuffer(ByteBuffer buffer) {
+      this.buffer = buffer.duplicate();
+    }
+
+    /**
+     * @return a new view of the bytes, so that they can be written as often as required
+     */
+    public ByteBuffer getByteBuffer() {
+      return buffer.duplicate();
+    }
+
+    /**
+     * Copies the bytes into a byte array. Only used where a byte array is unavoidable, e.g. to hash
+     * a key.
+     */
+    @Override
+    public byte[] getRaw() {
+      if (raw == null) {
+        byte[] bytes = new byte[buffer.remaining()];
+        getByteBuffer().get(bytes);
+        raw = bytes;
+      }
+      return raw;
+    }
+  }
+
   private RawableFactory() {
     throw new InstantiationError();
   }
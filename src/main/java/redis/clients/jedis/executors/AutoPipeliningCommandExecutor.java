@@ -0,0 +1,152 @@
+package redis.clients.jedis.executors;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import redis.clients.jedis.AsyncConnection;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.providers.ConnectionProvider;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * A {@link CommandExecutor} which multiplexes the commands of all calling threads over a few shared
+ * {@link AsyncConnection}s. Commands sent concurrently are coalesced into a single write and the
+ * replies are matched back to the waiting callers in FIFO order, so no connection has to be
+ * borrowed from a pool for each command.
+ * <p>
+ * Blocking commands ({@link CommandArguments#isBlocking()}) and commands which change the state of
+ * a connection are executed on a dedicated connection of the given {@link ConnectionProvider}.
+ * Pipelines, transactions and pub/sub of {@link redis.clients.jedis.UnifiedJedis} always use the
+ * provider directly.
+ * <p>
+ * This executor is meant for a single Redis server (or proxy). It is not cluster aware.
+ */
+public class AutoPipeliningCommandExecutor implements CommandExecutor {
+
+  private static final Set<Command> CONNECTION_STATE_COMMANDS = EnumSet.of(Command.AUTH,
+      Command.HELLO, Command.SELECT, Command.CLIENT, Command.RESET, Command.READONLY,
+      Command.READWRITE, Command.ASKING, Command.WATCH, Command.UNWATCH, Command.MULTI,
+      Command.EXEC, Command.DISCARD, Command.SUBSCRIBE, Command.PSUBSCRIBE, Command.SSUBSCRIBE,
+      Command.MONITOR, Command.SHUTDOWN);
+
+  protected final ConnectionProvider provider;
+  private final HostAndPort hostAndPort;
+  private final JedisClientConfig clientConfig;
+  private final AtomicReferenceArray<AsyncConnection> connections;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile boolean closed = false;
+
+  public AutoPipeliningCommandExecutor(ConnectionProvider provider, HostAndPort hostAndPort,
+      JedisClientConfig clientConfig) {
+    this(provider, hostAndPort, clientConfig, 1);
+  }
+
+  /**
+   * @param provider used for the commands which can't be multiplexed
+   * @param hostAndPort the server
+   * @param clientConfig the configuration of the shared connections
+   * @param sharedConnections number of shared connections the commands are spread across
+   */
+  public AutoPipeliningCommandExecutor(ConnectionProvider provider, HostAndPort hostAndPort,
+      JedisClientConfig clientConfig, int sharedConnections) {
+    if (sharedConnections < 1) {
+      throw new IllegalArgumentException("sharedConnections must be positive.");
+    }
+    this.provider = provider;
+    this.hostAndPort = hostAndPort;
+    this.clientConfig = clientConfig;
+    this.connections = new AtomicReferenceArray<>(sharedConnections);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (int i = 0; i < connections.length(); i++) {
+      IOUtils.closeQuietly(connections.getAndSet(i, null));
+    }
+    IOUtils.closeQuietly(this.provider);
+  }
+
+  @Override
+  public final <T> T executeCommand(CommandObject<T> commandObject) {
+    if (!isMultiplexable(commandObject.getArguments())) {
+      try (Connection connection = provider.getConnection(commandObject.getArguments())) {
+        return connection.executeCommand(commandObject);
+      }
+    }
+    return await(getSharedConnection().executeCommand(commandObject));
+  }
+
+  /**
+   * The callback always gets a dedicated connection of the provider.
+   */
+  @Override
+  public final <T> T executeCommand(CommandArguments args, Function<Connection, T> callback) {
+    try (Connection connection = provider.getConnection(args)) {
+      return callback.apply(connection);
+    }
+  }
+
+  protected boolean isMultiplexable(CommandArguments args) {
+    if (args.isBlocking()) {
+      return false;
+    }
+    ProtocolCommand command = args.getCommand();
+    return !(command instanceof Command && CONNECTION_STATE_COMMANDS.contains((Command) command));
+  }
+
+  private AsyncConnection getSharedConnection() {
+    final int index = connections.length() == 1 ? 0
+        : Math.floorMod(next.getAndIncrement(), connections.length());
+    AsyncConnection connection = connections.get(index);
+    if (connection != null && connection.isConnected()) {
+      return connection;
+    }
+    synchronized (this) {
+      if (closed) {
+        throw new JedisConnectionException("Executor is closed.");
+      }
+      connection = connections.get(index);
+      if (connection == null || !connection.isConnected()) {
+        IOUtils.closeQuietly(connection);
+        connection = new AsyncConnection(hostAndPort, clientConfig);
+        connections.set(index, connection);
+      }
+      return connection;
+    }
+  }
+
+  private <T> T await(CompletableFuture<T> future) {
+    final int timeout = clientConfig.getSocketTimeoutMillis();
+    try {
+      return timeout > 0 ? future.get(timeout, TimeUnit.MILLISECONDS) : future.get();
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new JedisException(cause);
+    } catch (TimeoutException te) {
+      // the reply is still matched to its future later, so the shared connection remains usable
+      throw new JedisConnectionException("Read timed out", te);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new JedisException(ie);
+    }
+  }
+}
@@ -12,6 +12,7 @@ import redis.clients.jedis.util.IOUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 
 /**
@@ -40,14 +41,19 @@ public class CircuitBreakerCommandExecutor implements CommandExecutor {
 
     @Override
     public <T> T executeCommand(CommandObject<T> commandObject) {
+        return executeCommand(commandObject.getArguments(), connection -> connection.executeCommand(commandObject));
+    }
+
+    @Override
+    public <T> T executeCommand(CommandArguments args, Function<Connection, T> callback) {
         Cluster cluster = provider.getCluster(); // Pass this by reference for thread safety
 
-        DecorateSupplier<T> supplier = Decorators.ofSupplier(() -> this.handleExecuteCommand(commandObject, cluster));
+        DecorateSupplier<T> supplier = Decorators.ofSupplier(() -> this.handleExecuteCommand(callback, cluster));
 
         supplier.withRetry(cluster.getRetry());
         supplier.withCircuitBreaker(cluster.getCircuitBreaker());
         supplier.withFallback(circuitBreakerFallbackException,
-                              e -> this.handleClusterFailover(commandObject, cluster.getCircuitBreaker()));
+                              e -> this.handleClusterFailover(args, callback, cluster.getCircuitBreaker()));
 
         return supplier.decorate().get();
     }
@@ -55,16 +61,17 @@ public class CircuitBreakerCommandExecutor implements CommandExecutor {
     /**
      * Functional interface wrapped in retry and circuit breaker logic to handle happy path scenarios
      */
-    private <T> T handleExecuteCommand(CommandObject<T> commandObject, Cluster cluster) {
+    private <T> T handleExecuteCommand(Function<Connection, T> callback, Cluster cluster) {
         try (Connection connection = cluster.getConnection()) {
-            return connection.executeCommand(commandObject);
+            return callback.apply(connection);
         }
     }
 
     /**
      * Functional interface wrapped in retry and circuit breaker logic to handle open circuit breaker failure scenarios
      */
-    private synchronized <T> T handleClusterFailover(CommandObject<T> commandObject, CircuitBreaker circuitBreaker) {
+    private synchronized <T> T handleClusterFailover(CommandArguments args, Function<Connection, T> callback,
+                                                     CircuitBreaker circuitBreaker) {
 
         // Check state to handle race conditions since incrementActiveMultiClusterIndex() is non-idempotent
         if (!CircuitBreaker.State.FORCED_OPEN.equals(circuitBreaker.getState())) {
@@ -89,7 +96,7 @@ public class CircuitBreakerCommandExecutor implements CommandExecutor {
         }
 
         // Recursive call to the initiating method so the operation can be retried on the next cluster connection
-        return executeCommand(commandObject);
+        return executeCommand(args, callback);
     }
 
 }
\ No newline at end of file
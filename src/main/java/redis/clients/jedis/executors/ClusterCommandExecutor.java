@@ -2,17 +2,33 @@ package redis.clients.jedis.executors;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import redis.clients.jedis.ClusterCommandArguments;
+import redis.clients.jedis.CommandArguments;
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.ConnectionPool;
 import redis.clients.jedis.HostAndPort;
-import redis.clients.jedis.Protocol;
 import redis.clients.jedis.exceptions.*;
 import redis.clients.jedis.providers.ClusterConnectionProvider;
 import redis.clients.jedis.util.IOUtils;
@@ -39,29 +55,24 @@ public class ClusterCommandExecutor implements CommandExecutor {
 
   @Override
   public final <T> T broadcastCommand(CommandObject<T> commandObject) {
-    Map<String, ConnectionPool> connectionMap = provider.getConnectionMap();
+    Map<HostAndPort, Object> replies = broadcastCommand(commandObject, false, null);
 
     boolean isErrored = false;
     T reply = null;
     JedisBroadcastException bcastError = new JedisBroadcastException();
-    for (Map.Entry<String, ConnectionPool> entry : connectionMap.entrySet()) {
-      HostAndPort node = HostAndPort.from(entry.getKey());
-      ConnectionPool pool = entry.getValue();
-      try (Connection connection = pool.getResource()) {
-        T aReply = execute(connection, commandObject);
-        bcastError.addReply(node, aReply);
-        if (isErrored) { // already errored
-        } else if (reply == null) {
-          reply = aReply; // ok
-        } else if (reply.equals(aReply)) {
-          // ok
-        } else {
-          isErrored = true;
-          reply = null;
-        }
-      } catch (Exception anError) {
-        bcastError.addReply(node, anError);
+    for (Map.Entry<HostAndPort, Object> entry : replies.entrySet()) {
+      Object aReply = entry.getValue();
+      bcastError.addReply(entry.getKey(), aReply);
+      if (aReply instanceof Throwable) {
+        isErrored = true;
+      } else if (isErrored) { // already errored
+      } else if (reply == null) {
+        reply = (T) aReply; // ok
+      } else if (reply.equals(aReply)) {
+        // ok
+      } else {
         isErrored = true;
+        reply = null;
       }
     }
     if (isErrored) {
@@ -70,8 +81,91 @@ public class ClusterCommandExecutor implements CommandExecutor {
     return reply;
   }
 
+  /**
+   * Sends the command to the nodes concurrently, by the broadcast executor of the provider. A node
+   * which doesn't reply in time has its connection closed, because a blocking read can't be
+   * interrupted; so the connection is not held until the socket timeout.
+   * @param primariesOnly whether replicas are left out
+   * @param timeout how long to wait for all replies; {@code null} to wait as long as it takes
+   * @return the reply of every node, or the exception it failed with
+   */
+  public final <T> Map<HostAndPort, Object> broadcastCommand(CommandObject<T> commandObject,
+      boolean primariesOnly, Duration timeout) {
+    Map<String, ConnectionPool> connectionMap = primariesOnly
+        ? provider.getPrimaryNodesConnectionMap() : provider.getConnectionMap();
+    ExecutorService executorService = provider.getBroadcastExecutor();
+
+    Map<HostAndPort, Future<T>> futures = new LinkedHashMap<>();
+    Map<HostAndPort, AtomicReference<Connection>> inUse = new HashMap<>();
+    for (Map.Entry<String, ConnectionPool> entry : connectionMap.entrySet()) {
+      ConnectionPool pool = entry.getValue();
+      AtomicReference<Connection> borrowed = new AtomicReference<>();
+      FutureTask<T> task = new FutureTask<>(() -> {
+        Connection connection = pool.getResource();
+        borrowed.set(connection);
+        try {
+          return execute(connection, commandObject);
+        } finally {
+          if (borrowed.getAndSet(null) == null) {
+            connection.setBroken(); // disconnected by the timeout
+          }
+          connection.close();
+        }
+      });
+      try {
+        executorService.execute(task);
+      } catch (RejectedExecutionException ree) {
+        task.run();
+      }
+      HostAndPort node = HostAndPort.from(entry.getKey());
+      futures.put(node, task);
+      inUse.put(node, borrowed);
+    }
+
+    long deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : 0;
+    Map<HostAndPort, Object> replies = new LinkedHashMap<>();
+    for (Map.Entry<HostAndPort, Future<T>> entry : futures.entrySet()) {
+      HostAndPort node = entry.getKey();
+      Future<T> future = entry.getValue();
+      Object reply;
+      try {
+        reply = timeout == null ? future.get()
+            : future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      } catch (ExecutionException ee) {
+        reply = ee.getCause();
+      } catch (TimeoutException te) {
+        abandon(future, inUse.get(node));
+        reply = new JedisClusterOperationException("Broadcast to " + node + " timed out.");
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        abandon(future, inUse.get(node));
+        reply = new JedisClusterOperationException(
+            "Interrupted while broadcasting to " + node + ".", ie);
+      }
+      replies.put(node, reply);
+    }
+    return replies;
+  }
+
+  private static void abandon(Future<?> future, AtomicReference<Connection> borrowed) {
+    future.cancel(true);
+    Connection connection = borrowed.getAndSet(null);
+    if (connection != null) {
+      try {
+        connection.disconnect(); // unblocks the read, the task then discards the connection
+      } catch (JedisConnectionException jce) {
+        // already disconnected
+      }
+    }
+  }
+
   @Override
   public final <T> T executeCommand(CommandObject<T> commandObject) {
+    return executeCommand(commandObject.getArguments(), connection -> execute(connection, commandObject));
+  }
+
+  @Override
+  public final <T> T executeCommand(CommandArguments args, Function<Connection, T> callback) {
     Instant deadline = Instant.now().plus(maxTotalRetriesDuration);
 
     JedisRedirectionException redirect = null;
@@ -83,14 +177,14 @@ public class ClusterCommandExecutor implements CommandExecutor {
         if (redirect != null) {
           connection = provider.getConnection(redirect.getTargetNode());
           if (redirect instanceof JedisAskDataException) {
-            // TODO: Pipeline asking with the original command to make it faster....
-            connection.executeCommand(Protocol.Command.ASKING);
+            // flushed together with the command, and its reply is read before the command's
+            connection.sendAsking();
           }
         } else {
-          connection = provider.getConnection(commandObject.getArguments());
+          connection = provider.getConnection(args);
         }
 
-        return execute(connection, commandObject);
+        return callback.apply(connection);
 
       } catch (JedisClusterOperationException jnrcne) {
         throw jnrcne;
@@ -113,7 +207,8 @@ public class ClusterCommandExecutor implements CommandExecutor {
         consecutiveConnectionFailures = 0;
         redirect = jre;
         // if MOVED redirection occurred,
-        if (jre instanceof JedisMovedDataException) {
+        if (jre instanceof JedisMovedDataException
+            && !provider.assignMovedSlot((JedisMovedDataException) jre)) {
           // it rebuilds cluster's slot cache recommended by Redis cluster specification
           provider.renewSlotCache(connection);
         }
@@ -131,6 +226,118 @@ public class ClusterCommandExecutor implements CommandExecutor {
     throw maxAttemptsException;
   }
 
+  /**
+   * Executes commands which may belong to different slots. The commands are pipelined per node and
+   * written to all nodes before any reply is read, so that the nodes process them in parallel. A
+   * command which is redirected, or whose node can't be reached, is executed again by
+   * {@link #executeCommand(CommandObject)}.
+   *
+   * @param commandObjects commands
+   * @return replies, in the order of the commands
+   */
+  public final <T> List<T> executeCommands(List<CommandObject<T>> commandObjects) {
+    final Map<HostAndPort, List<Integer>> nodeCommands = new LinkedHashMap<>();
+    final List<Integer> retries = new ArrayList<>();
+    for (int i = 0; i < commandObjects.size(); i++) {
+      HostAndPort node = provider.getNode(
+          ((ClusterCommandArguments) commandObjects.get(i).getArguments()).getCommandHashSlot());
+      if (node == null) {
+        retries.add(i);
+      } else {
+        nodeCommands.computeIfAbsent(node, n -> new ArrayList<>()).add(i);
+      }
+    }
+
+    final Object[] replies = new Object[commandObjects.size()];
+    final Map<Connection, List<Integer>> connections = new LinkedHashMap<>();
+    final Set<Connection> drained = new HashSet<>();
+    RuntimeException error = null;
+    try {
+      for (Map.Entry<HostAndPort, List<Integer>> entry : nodeCommands.entrySet()) {
+        final List<Integer> indexes = entry.getValue();
+        Connection connection = null;
+        try {
+          connection = provider.getConnection(entry.getKey());
+          for (int index : indexes) {
+            connection.sendCommand(commandObjects.get(index).getArguments());
+          }
+          connection.flush();
+          connections.put(connection, indexes);
+        } catch (JedisConnectionException jce) {
+          log.debug("Failed sending to Redis: {}", connection, jce);
+          IOUtils.closeQuietly(connection);
+          retries.addAll(indexes);
+        } catch (RuntimeException e) {
+          // commands may be partially written, the connection can't be reused
+          if (connection != null) {
+            connection.setBroken();
+            IOUtils.closeQuietly(connection);
+          }
+          error = e;
+          break;
+        }
+      }
+
+      // every node which was written to is read to the end, even after an error, so that no
+      // connection goes back to its pool with unread replies
+      boolean moved = false;
+      for (Map.Entry<Connection, List<Integer>> entry : connections.entrySet()) {
+        final Connection connection = entry.getKey();
+        final List<Integer> indexes = entry.getValue();
+        final List<Object> nodeReplies;
+        try {
+          nodeReplies = connection.getMany(indexes.size());
+          drained.add(connection);
+        } catch (JedisConnectionException jce) {
+          log.debug("Failed reading from Redis: {}", connection, jce);
+          retries.addAll(indexes);
+          continue;
+        }
+        for (int i = 0; i < indexes.size(); i++) {
+          final int index = indexes.get(i);
+          final Object reply = nodeReplies.get(i);
+          try {
+            if (reply instanceof JedisRedirectionException) {
+              if (reply instanceof JedisMovedDataException && !moved
+                  && !provider.assignMovedSlot((JedisMovedDataException) reply)) {
+                moved = true;
+                provider.renewSlotCache(connection);
+              }
+              retries.add(index);
+            } else if (reply instanceof JedisDataException) {
+              throw (JedisDataException) reply;
+            } else if (error == null) {
+              replies[index] = commandObjects.get(index).getBuilder().build(reply);
+            }
+          } catch (RuntimeException e) {
+            if (error == null) {
+              error = e;
+            }
+          }
+        }
+      }
+    } finally {
+      for (Connection connection : connections.keySet()) {
+        if (!drained.contains(connection)) {
+          connection.setBroken();
+        }
+        IOUtils.closeQuietly(connection);
+      }
+    }
+
+    if (error != null) {
+      throw error;
+    }
+
+    for (int index : retries) {
+      replies[index] = executeCommand(commandObjects.get(index));
+    }
+
+    @SuppressWarnings("unchecked")
+    final List<T> list = (List<T>) Arrays.asList(replies);
+    return list;
+  }
+
   /**
    * WARNING: This method is accessible for the purpose of testing.
    * This should not be used or overriden.
@@ -1,6 +1,10 @@
 package redis.clients.jedis.executors;
 
+import java.util.function.Function;
+
+import redis.clients.jedis.CommandArguments;
 import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Connection;
 
 public interface CommandExecutor extends AutoCloseable {
 
@@ -9,4 +13,12 @@ public interface CommandExecutor extends AutoCloseable {
   default <T> T broadcastCommand(CommandObject<T> commandObject) {
     return executeCommand(commandObject);
   }
+
+  /**
+   * Passes a connection for the command to the callback, which sends the command and reads its
+   * reply by itself. The connection is chosen, and failures are retried, redirected or failed over,
+   * the same way as by {@link #executeCommand(CommandObject)}. So the callback may be called more
+   * than once.
+   */
+  <T> T executeCommand(CommandArguments args, Function<Connection, T> callback);
 }
@@ -1,5 +1,8 @@
 package redis.clients.jedis.executors;
 
+import java.util.function.Function;
+
+import redis.clients.jedis.CommandArguments;
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.util.IOUtils;
@@ -24,4 +27,11 @@ public class DefaultCommandExecutor implements CommandExecutor {
       return connection.executeCommand(commandObject);
     }
   }
+
+  @Override
+  public final <T> T executeCommand(CommandArguments args, Function<Connection, T> callback) {
+    try (Connection connection = provider.getConnection(args)) {
+      return callback.apply(connection);
+    }
+  }
 }
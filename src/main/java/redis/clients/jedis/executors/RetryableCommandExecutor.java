@@ -3,9 +3,11 @@ package redis.clients.jedis.executors;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import redis.clients.jedis.CommandArguments;
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.exceptions.JedisConnectionException;
@@ -35,6 +37,11 @@ public class RetryableCommandExecutor implements CommandExecutor {
 
   @Override
   public final <T> T executeCommand(CommandObject<T> commandObject) {
+    return executeCommand(commandObject.getArguments(), connection -> execute(connection, commandObject));
+  }
+
+  @Override
+  public final <T> T executeCommand(CommandArguments args, Function<Connection, T> callback) {
 
     Instant deadline = Instant.now().plus(maxTotalRetriesDuration);
 
@@ -43,9 +50,9 @@ public class RetryableCommandExecutor implements CommandExecutor {
     for (int attemptsLeft = this.maxAttempts; attemptsLeft > 0; attemptsLeft--) {
       Connection connection = null;
       try {
-        connection = provider.getConnection(commandObject.getArguments());
+        connection = provider.getConnection(args);
 
-        return execute(connection, commandObject);
+        return callback.apply(connection);
 
       } catch (JedisConnectionException jce) {
         lastException = jce;
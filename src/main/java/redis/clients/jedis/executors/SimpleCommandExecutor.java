@@ -1,5 +1,8 @@
 package redis.clients.jedis.executors;
 
+import java.util.function.Function;
+
+import redis.clients.jedis.CommandArguments;
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.util.IOUtils;
@@ -21,4 +24,9 @@ public class SimpleCommandExecutor implements CommandExecutor {
   public final <T> T executeCommand(CommandObject<T> commandObject) {
     return connection.executeCommand(commandObject);
   }
+
+  @Override
+  public final <T> T executeCommand(CommandArguments args, Function<Connection, T> callback) {
+    return callback.apply(connection);
+  }
 }
@@ -3,9 +3,16 @@ package redis.clients.jedis.providers;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 import redis.clients.jedis.ClusterCommandArguments;
@@ -15,15 +22,50 @@ import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.ConnectionPool;
 import redis.clients.jedis.JedisClusterInfoCache;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.ReadPolicy;
+import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.exceptions.JedisClusterOperationException;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.resps.ClusterShardNodeInfo;
+import redis.clients.jedis.util.Pool;
 
 import static redis.clients.jedis.JedisCluster.INIT_NO_ERROR_PROPERTY;
 
 public class ClusterConnectionProvider implements ConnectionProvider {
 
+  private static final Set<Command> READ_ONLY_COMMANDS = EnumSet.of(Command.GET, Command.MGET,
+      Command.STRLEN, Command.GETRANGE, Command.SUBSTR, Command.LCS, Command.GETBIT, Command.BITPOS,
+      Command.BITCOUNT, Command.BITFIELD_RO, Command.EXISTS, Command.TYPE, Command.TTL, Command.PTTL,
+      Command.EXPIRETIME, Command.PEXPIRETIME, Command.DUMP, Command.TOUCH, Command.KEYS,
+      Command.SCAN, Command.SORT_RO, Command.HGET, Command.HMGET, Command.HGETALL, Command.HKEYS,
+      Command.HVALS, Command.HLEN, Command.HEXISTS, Command.HSTRLEN, Command.HRANDFIELD,
+      Command.HSCAN, Command.LRANGE, Command.LLEN, Command.LINDEX, Command.LPOS, Command.SMEMBERS,
+      Command.SISMEMBER, Command.SMISMEMBER, Command.SCARD, Command.SRANDMEMBER, Command.SINTER,
+      Command.SINTERCARD, Command.SUNION, Command.SDIFF, Command.SSCAN, Command.ZRANGE,
+      Command.ZRANGEBYSCORE, Command.ZREVRANGE, Command.ZREVRANGEBYSCORE, Command.ZRANGEBYLEX,
+      Command.ZREVRANGEBYLEX, Command.ZSCORE, Command.ZMSCORE, Command.ZRANK, Command.ZREVRANK,
+      Command.ZCARD, Command.ZCOUNT, Command.ZLEXCOUNT, Command.ZRANDMEMBER, Command.ZINTER,
+      Command.ZINTERCARD, Command.ZUNION, Command.ZDIFF, Command.ZSCAN, Command.GEOPOS,
+      Command.GEODIST, Command.GEOHASH, Command.GEORADIUS_RO, Command.GEORADIUSBYMEMBER_RO,
+      Command.GEOSEARCH, Command.PFCOUNT, Command.XRANGE, Command.XREVRANGE, Command.XLEN,
+      Command.XPENDING, Command.EVAL_RO, Command.EVALSHA_RO, Command.FCALL_RO);
+
+  private static final AtomicInteger EXECUTOR_COUNT = new AtomicInteger();
+
   protected final JedisClusterInfoCache cache;
 
+  private final Object pipelineExecutorLock = new Object();
+  private volatile ExecutorService pipelineExecutor;
+  /**
+   * The pipeline executor if it was created by this provider, which resizes it; otherwise {@code null}.
+   */
+  private volatile ThreadPoolExecutor ownPipelineExecutor;
+
+  private final Object broadcastExecutorLock = new Object();
+  private volatile ThreadPoolExecutor broadcastExecutor;
+
   public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig) {
     this.cache = new JedisClusterInfoCache(clientConfig, clusterNodes);
     initializeSlotsCache(clusterNodes, clientConfig);
@@ -41,6 +83,17 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     initializeSlotsCache(clusterNodes, clientConfig);
   }
 
+  /**
+   * @param readPolicy where read-only commands are sent to
+   */
+  public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Duration topologyRefreshPeriod,
+      ReadPolicy readPolicy) {
+    this.cache = new JedisClusterInfoCache(clientConfig, poolConfig, clusterNodes,
+        topologyRefreshPeriod, readPolicy);
+    initializeSlotsCache(clusterNodes, clientConfig);
+  }
+
   private void initializeSlotsCache(Set<HostAndPort> startNodes, JedisClientConfig clientConfig) {
     if (startNodes.isEmpty()) {
       throw new JedisClusterOperationException("No nodes to initialize cluster slots cache.");
@@ -73,7 +126,112 @@ public class ClusterConnectionProvider implements ConnectionProvider {
 
   @Override
   public void close() {
-    cache.close();
+    try {
+      cache.close();
+    } finally {
+      synchronized (pipelineExecutorLock) {
+        if (ownPipelineExecutor != null) {
+          ownPipelineExecutor.shutdown();
+        }
+      }
+      synchronized (broadcastExecutorLock) {
+        if (broadcastExecutor != null) {
+          broadcastExecutor.shutdown();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the executor which reads the replies of the {@link redis.clients.jedis.ClusterPipeline}s
+   * of this cluster. Unless one has been set, it is created on first use and shut down on
+   * {@link #close()}. It is shared by all syncs, each of which reads the replies of one node by the
+   * calling thread and queues the others, and it has one thread per cluster node, which is discarded
+   * after a minute of idleness. When nodes join or leave the cluster, the number of threads follows
+   * on the next call.
+   */
+  public ExecutorService getPipelineExecutor() {
+    final ExecutorService executor = pipelineExecutor;
+    final ThreadPoolExecutor own = ownPipelineExecutor;
+    final int threads = Math.max(1, cache.getNodeCount());
+    if (executor != null && (own == null || own.getMaximumPoolSize() == threads)) {
+      return executor;
+    }
+    synchronized (pipelineExecutorLock) {
+      if (pipelineExecutor == null) {
+        ThreadPoolExecutor pool = newExecutor("jedis-cluster-pipeline-", threads);
+        pipelineExecutor = pool;
+        ownPipelineExecutor = pool;
+      } else if (ownPipelineExecutor != null) {
+        resize(ownPipelineExecutor, threads);
+      }
+      return pipelineExecutor;
+    }
+  }
+
+  /**
+   * Returns the executor which sends the broadcast commands of this cluster to its nodes. It is
+   * kept apart from the pipeline executor, so that broadcasts and pipeline syncs never wait for each
+   * other's threads. Like that one, it has one thread per cluster node, which is discarded after a
+   * minute of idleness, follows the number of nodes, and is shut down on {@link #close()}.
+   */
+  public ExecutorService getBroadcastExecutor() {
+    final ThreadPoolExecutor executor = broadcastExecutor;
+    final int threads = Math.max(1, cache.getNodeCount());
+    if (executor != null && executor.getMaximumPoolSize() == threads) {
+      return executor;
+    }
+    synchronized (broadcastExecutorLock) {
+      if (broadcastExecutor == null) {
+        broadcastExecutor = newExecutor("jedis-cluster-broadcast-", threads);
+      } else {
+        resize(broadcastExecutor, threads);
+      }
+      return broadcastExecutor;
+    }
+  }
+
+  private static ThreadPoolExecutor newExecutor(String name, int threads) {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), threadFactory(name));
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  private static void resize(ThreadPoolExecutor pool, int threads) {
+    // the core size may never exceed the maximum size
+    if (threads > pool.getMaximumPoolSize()) {
+      pool.setMaximumPoolSize(threads);
+      pool.setCorePoolSize(threads);
+    } else {
+      pool.setCorePoolSize(threads);
+      pool.setMaximumPoolSize(threads);
+    }
+  }
+
+  /**
+   * Sets the executor which reads the replies of the {@link redis.clients.jedis.ClusterPipeline}s of
+   * this cluster, e.g. one which starts a virtual thread per task. It is neither resized nor shut
+   * down by this provider.
+   */
+  public void setPipelineExecutor(ExecutorService executor) {
+    synchronized (pipelineExecutorLock) {
+      if (ownPipelineExecutor != null) {
+        ownPipelineExecutor.shutdown();
+        ownPipelineExecutor = null;
+      }
+      pipelineExecutor = executor;
+    }
+  }
+
+  private static ThreadFactory threadFactory(String name) {
+    String prefix = name + EXECUTOR_COUNT.incrementAndGet() + "-";
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
   }
 
   public void renewSlotCache() {
@@ -84,10 +242,33 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     cache.renewClusterSlots(jedis);
   }
 
+  /**
+   * @see JedisClusterInfoCache#setMovedRefreshInterval(Duration)
+   */
+  public void setMovedRefreshInterval(Duration interval) {
+    cache.setMovedRefreshInterval(interval);
+  }
+
+  /**
+   * Patches the slot cache by the redirection, if it is set up for it by
+   * {@link #setMovedRefreshInterval(Duration)}.
+   * @return {@code false} if the slot cache has to be renewed instead
+   */
+  public boolean assignMovedSlot(JedisMovedDataException moved) {
+    return cache.assignMovedSlot(moved.getSlot(), moved.getTargetNode());
+  }
+
   public Map<String, ConnectionPool> getNodes() {
     return cache.getNodes();
   }
 
+  /**
+   * @see JedisClusterInfoCache#getNodeInfos()
+   */
+  public Map<String, ClusterShardNodeInfo> getNodeInfos() {
+    return cache.getNodeInfos();
+  }
+
   public HostAndPort getNode(int slot) {
     return slot >= 0 ? cache.getSlotNode(slot) : null;
   }
@@ -99,7 +280,24 @@ public class ClusterConnectionProvider implements ConnectionProvider {
   @Override
   public Connection getConnection(CommandArguments args) {
     final int slot = ((ClusterCommandArguments) args).getCommandHashSlot();
-    return slot >= 0 ? getConnectionFromSlot(slot) : getConnection();
+    if (slot < 0) {
+      return getConnection();
+    }
+    if (cache.getReadPolicy() != ReadPolicy.MASTER && isReadOnly(args)) {
+      ConnectionPool pool = cache.getSlotReadPool(slot);
+      if (pool != null) {
+        return pool.getResource();
+      }
+    }
+    return getConnectionFromSlot(slot);
+  }
+
+  /**
+   * @return whether the command may be served by a replica
+   */
+  protected boolean isReadOnly(CommandArguments args) {
+    ProtocolCommand command = args.getCommand();
+    return command instanceof Command && READ_ONLY_COMMANDS.contains((Command) command);
   }
 
   @Override
@@ -162,4 +360,14 @@ public class ClusterConnectionProvider implements ConnectionProvider {
   public Map<String, ConnectionPool> getConnectionMap() {
     return Collections.unmodifiableMap(getNodes());
   }
+
+  @Override
+  public Map<String, ConnectionPool> getPrimaryNodesConnectionMap() {
+    return Collections.unmodifiableMap(cache.getPrimaryNodes());
+  }
+
+  @Override
+  public void warmUp(int parallelism, Duration timeout) {
+    Pool.warmUp(getNodes().values(), parallelism, timeout);
+  }
 }
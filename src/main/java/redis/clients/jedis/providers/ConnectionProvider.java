@@ -1,5 +1,6 @@
 package redis.clients.jedis.providers;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 import redis.clients.jedis.CommandArguments;
@@ -15,4 +16,21 @@ public interface ConnectionProvider extends AutoCloseable {
     final Connection c = getConnection();
     return Collections.singletonMap(c.toString(), c);
   }
+
+  /**
+   * @return the connection map of the primary nodes only, which is the whole
+   * {@link #getConnectionMap() connection map} unless the provider knows replicas
+   */
+  default Map<?, ?> getPrimaryNodesConnectionMap() {
+    return getConnectionMap();
+  }
+
+  /**
+   * Opens connections to every node up to the {@code minIdle} of its pool, at most
+   * {@code parallelism} at a time, and waits until they are established. Nothing is done by
+   * providers which do not pool connections.
+   * @see redis.clients.jedis.util.Pool#warmUp(java.util.Collection, int, Duration)
+   */
+  default void warmUp(int parallelism, Duration timeout) {
+  }
 }
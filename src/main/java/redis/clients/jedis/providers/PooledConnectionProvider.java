@@ -1,5 +1,6 @@
 package redis.clients.jedis.providers;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 import org.apache.commons.pool2.PooledObjectFactory;
@@ -45,6 +46,14 @@ public class PooledConnectionProvider implements ConnectionProvider {
     this.connectionMapKey = factory;
   }
 
+  /**
+   * Uses the given pool, e.g. a {@link redis.clients.jedis.LightweightConnectionPool}.
+   */
+  public PooledConnectionProvider(ConnectionPool pool) {
+    this.pool = pool;
+    this.connectionMapKey = pool;
+  }
+
   private PooledConnectionProvider(Pool<Connection> pool) {
     this.pool = pool;
   }
@@ -72,4 +81,9 @@ public class PooledConnectionProvider implements ConnectionProvider {
   public Map<?, Pool<Connection>> getConnectionMap() {
     return Collections.singletonMap(connectionMapKey, pool);
   }
+
+  @Override
+  public void warmUp(int parallelism, Duration timeout) {
+    Pool.warmUp(Collections.singleton(pool), parallelism, timeout);
+  }
 }
@@ -1,8 +1,11 @@
 package redis.clients.jedis.providers;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -20,6 +23,7 @@ import redis.clients.jedis.JedisPubSub;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.IOUtils;
+import redis.clients.jedis.util.Pool;
 
 public class SentineledConnectionProvider implements ConnectionProvider {
 
@@ -83,6 +87,11 @@ public class SentineledConnectionProvider implements ConnectionProvider {
     return pool.getResource();
   }
 
+  @Override
+  public Map<?, Pool<Connection>> getConnectionMap() {
+    return Collections.singletonMap(currentMaster, pool);
+  }
+
   @Override
   public void close() {
     sentinelListeners.forEach(SentinelListener::shutdown);
@@ -90,6 +99,11 @@ public class SentineledConnectionProvider implements ConnectionProvider {
     pool.close();
   }
 
+  @Override
+  public void warmUp(int parallelism, Duration timeout) {
+    Pool.warmUp(Collections.singleton(pool), parallelism, timeout);
+  }
+
   public HostAndPort getCurrentMaster() {
     return currentMaster;
   }
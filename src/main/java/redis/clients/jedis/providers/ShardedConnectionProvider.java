@@ -1,5 +1,6 @@
 package redis.clients.jedis.providers;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -18,6 +19,7 @@ import redis.clients.jedis.DefaultJedisClientConfig;
 import redis.clients.jedis.ShardedCommandArguments;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.Pool;
 
 /**
  * @deprecated Sharding/Sharded feature will be removed in next major release.
@@ -167,4 +169,9 @@ public class ShardedConnectionProvider implements ConnectionProvider {
   public Map<String, ConnectionPool> getConnectionMap() {
     return Collections.unmodifiableMap(resources);
   }
+
+  @Override
+  public void warmUp(int parallelism, Duration timeout) {
+    Pool.warmUp(resources.values(), parallelism, timeout);
+  }
 }
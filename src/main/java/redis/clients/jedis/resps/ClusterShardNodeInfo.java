@@ -0,0 +1,111 @@
+package redis.clients.jedis.resps;
+
+import java.util.Map;
+
+/**
+ * This class holds information about a node of a shard, as returned by {@code CLUSTER SHARDS}. They
+ * can be accessed via getters. There is also {@link #getNodeInfo()} method that returns a generic
+ * {@code Map} in case more info are returned from the server.
+ */
+public class ClusterShardNodeInfo {
+
+  public static final String ID = "id";
+  public static final String ENDPOINT = "endpoint";
+  public static final String IP = "ip";
+  public static final String HOSTNAME = "hostname";
+  public static final String PORT = "port";
+  public static final String TLS_PORT = "tls-port";
+  public static final String ROLE = "role";
+  public static final String REPLICATION_OFFSET = "replication-offset";
+  public static final String HEALTH = "health";
+
+  public static final String ROLE_MASTER = "master";
+  public static final String ROLE_REPLICA = "replica";
+
+  public static final String HEALTH_ONLINE = "online";
+  public static final String HEALTH_LOADING = "loading";
+  public static final String HEALTH_FAIL = "fail";
+
+  private final String id;
+  private final String endpoint;
+  private final String ip;
+  private final String hostname;
+  private final Long port;
+  private final Long tlsPort;
+  private final String role;
+  private final long replicationOffset;
+  private final String health;
+  private final Map<String, Object> nodeInfo;
+
+  /**
+   * @param map contains key-value pairs with node info, strings already decoded
+   */
+  public ClusterShardNodeInfo(Map<String, Object> map) {
+    nodeInfo = map;
+    id = (String) map.get(ID);
+    endpoint = (String) map.get(ENDPOINT);
+    ip = (String) map.get(IP);
+    hostname = (String) map.get(HOSTNAME);
+    port = (Long) map.get(PORT);
+    tlsPort = (Long) map.get(TLS_PORT);
+    role = (String) map.get(ROLE);
+    Long offset = (Long) map.get(REPLICATION_OFFSET);
+    replicationOffset = offset != null ? offset : 0;
+    health = (String) map.get(HEALTH);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  public String getIp() {
+    return ip;
+  }
+
+  public String getHostname() {
+    return hostname;
+  }
+
+  public Long getPort() {
+    return port;
+  }
+
+  public Long getTlsPort() {
+    return tlsPort;
+  }
+
+  public String getRole() {
+    return role;
+  }
+
+  public boolean isMaster() {
+    return ROLE_MASTER.equals(role);
+  }
+
+  public long getReplicationOffset() {
+    return replicationOffset;
+  }
+
+  /**
+   * @return {@value #HEALTH_ONLINE}, {@value #HEALTH_LOADING} or {@value #HEALTH_FAIL}
+   */
+  public String getHealth() {
+    return health;
+  }
+
+  public boolean isOnline() {
+    return HEALTH_ONLINE.equals(health);
+  }
+
+  /**
+   * All data.
+   * @return Generic map containing all key-value pairs returned by the server
+   */
+  public Map<String, Object> getNodeInfo() {
+    return nodeInfo;
+  }
+}
@@ -9,6 +9,11 @@ import redis.clients.jedis.providers.ConnectionProvider;
 import redis.clients.jedis.search.SearchResult.SearchResultBuilder;
 import redis.clients.jedis.util.JedisCommandIterationBase;
 
+/**
+ * Pages through the results of FT.SEARCH by its LIMIT offset. The offset is kept by the iteration,
+ * not by the server, and the query parameters are reused for every page, so this iteration does not
+ * support {@link #parallelStream(int)}.
+ */
 public class FtSearchIteration extends JedisCommandIterationBase<SearchResult, Document> {
 
   private int batchStart;
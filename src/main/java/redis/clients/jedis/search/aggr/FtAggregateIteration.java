@@ -30,6 +30,11 @@ public class FtAggregateIteration extends JedisCommandIterationBase<AggregationR
     return reply.getCursorId() == 0L;
   }
 
+  @Override
+  protected boolean isParallelIterationSupported() {
+    return true;
+  }
+
   @Override
   protected CommandArguments initCommandArguments() {
     return args;
@@ -3,15 +3,30 @@ package redis.clients.jedis.util;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import redis.clients.jedis.Builder;
 import redis.clients.jedis.CommandArguments;
 import redis.clients.jedis.Connection;
+import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.providers.ConnectionProvider;
 
 /**
@@ -20,6 +35,18 @@ import redis.clients.jedis.providers.ConnectionProvider;
  */
 public abstract class JedisCommandIterationBase<B, D> {
 
+  private static final Object NODE_COMPLETED = new Object();
+
+  private static final AtomicInteger ITERATION_THREAD_COUNT = new AtomicInteger();
+
+  private static final ExecutorService ITERATION_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "jedis-iteration-" + ITERATION_THREAD_COUNT.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final ConnectionProvider connectionProvider;
+
   private final Builder<B> builder;
 
   private final Queue<Map.Entry> connections;
@@ -36,6 +63,7 @@ public abstract class JedisCommandIterationBase<B, D> {
     ArrayList<Map.Entry> connectionList = new ArrayList<>(connectionMap.entrySet());
     Collections.shuffle(connectionList);
     this.connections = new LinkedList<>(connectionList);
+    this.connectionProvider = connectionProvider;
     this.builder = responseBuilder;
     this.iterationCompleted = true;
     this.roundRobinCompleted = this.connections.isEmpty();
@@ -64,18 +92,7 @@ public abstract class JedisCommandIterationBase<B, D> {
       args = nextCommandArguments(lastReply);
     }
 
-    Object rawReply;
-    if (connection.getValue() instanceof Connection) {
-      rawReply = ((Connection) connection.getValue()).executeCommand(args);
-    } else if (connection.getValue() instanceof Pool) {
-      try (Connection c = ((Pool<Connection>) connection.getValue()).getResource()) {
-        rawReply = c.executeCommand(args);
-      }
-    } else {
-      throw new IllegalArgumentException(connection.getValue().getClass() + "is not supported.");
-    }
-
-    lastReply = builder.build(rawReply);
+    lastReply = builder.build(execute(connection.getValue(), args));
     iterationCompleted = isNodeCompleted(lastReply);
     if (iterationCompleted) {
       if (connections.isEmpty()) {
@@ -85,8 +102,144 @@ public abstract class JedisCommandIterationBase<B, D> {
     return lastReply;
   }
 
+  private static Object execute(Object connection, CommandArguments args) {
+    if (connection instanceof Connection) {
+      return ((Connection) connection).executeCommand(args);
+    } else if (connection instanceof Pool) {
+      try (Connection c = ((Pool<Connection>) connection).getResource()) {
+        return c.executeCommand(args);
+      }
+    } else {
+      throw new IllegalArgumentException(connection.getClass() + "is not supported.");
+    }
+  }
+
   protected abstract Collection<D> convertBatchToData(B batch);
 
+  /**
+   * Whether the nodes can be iterated concurrently by {@link #parallelStream(int)}, i.e. whether
+   * {@link #initCommandArguments()} and {@link #nextCommandArguments(Object)} depend on nothing but
+   * the last reply.
+   */
+  protected boolean isParallelIterationSupported() {
+    return false;
+  }
+
+  /**
+   * Iterates all primary nodes concurrently, independent of {@link #nextBatch()}, by at most
+   * {@code parallelism} threads. The data is streamed in the order it arrives; at most
+   * {@code 2 * parallelism} batches are buffered, so the threads wait for a slow consumer.
+   * <p>
+   * The stream must be closed if it is not consumed until its end, e.g. if it is short-circuited by
+   * {@code limit} or {@code findFirst}: closing it stops the threads, which hold no connection while
+   * they wait for the consumer. The threads are shared by all iterations and discarded after a
+   * minute of idleness.
+   * @throws UnsupportedOperationException if the iteration keeps state across batches, like
+   * {@link redis.clients.jedis.search.FtSearchIteration}
+   */
+  public final Stream<D> parallelStream(int parallelism) {
+    if (!isParallelIterationSupported()) {
+      throw new UnsupportedOperationException(getClass().getSimpleName()
+          + " does not support parallel iteration.");
+    }
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism must be positive.");
+    }
+
+    final Collection<?> nodes = connectionProvider.getPrimaryNodesConnectionMap().values();
+    final Queue<Object> pending = new ConcurrentLinkedQueue<>(nodes);
+    final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(2 * parallelism);
+    final AtomicBoolean closed = new AtomicBoolean();
+    final List<Future<?>> workers = new ArrayList<>();
+    final Runnable close = () -> {
+      if (closed.compareAndSet(false, true)) {
+        workers.forEach(worker -> worker.cancel(true));
+      }
+    };
+    for (int i = Math.min(parallelism, nodes.size()); i > 0; i--) {
+      workers.add(ITERATION_EXECUTOR.submit(() -> {
+        Object node;
+        while (!closed.get() && (node = pending.poll()) != null) {
+          if (!iterateNode(node, queue, closed)) {
+            return;
+          }
+        }
+      }));
+    }
+
+    final Iterator<D> iterator = new Iterator<D>() {
+      private int remainingNodes = nodes.size();
+      private Iterator<D> batch = Collections.emptyIterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!batch.hasNext()) {
+          if (remainingNodes == 0) {
+            return false;
+          }
+          final Object next;
+          try {
+            next = queue.take();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JedisException("Interrupted while waiting for the iteration.", e);
+          }
+          if (next == NODE_COMPLETED) {
+            remainingNodes--;
+          } else if (next instanceof RuntimeException) {
+            close.run();
+            remainingNodes = 0;
+            throw (RuntimeException) next;
+          } else {
+            batch = ((Collection<D>) next).iterator();
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public D next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return batch.next();
+      }
+    };
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL),
+        false).onClose(close);
+  }
+
+  /**
+   * @return {@code false} if the iteration is to be stopped
+   */
+  private boolean iterateNode(Object node, BlockingQueue<Object> queue, AtomicBoolean closed) {
+    try {
+      try {
+        CommandArguments args = initCommandArguments();
+        while (!closed.get()) {
+          // the connection is returned before the data is handed over
+          final B reply = builder.build(execute(node, args));
+          final Collection<D> data = convertBatchToData(reply);
+          if (!data.isEmpty()) {
+            queue.put(data);
+          }
+          if (isNodeCompleted(reply)) {
+            queue.put(NODE_COMPLETED);
+            return true;
+          }
+          args = nextCommandArguments(reply);
+        }
+        return false;
+      } catch (RuntimeException e) {
+        queue.put(e);
+        return false;
+      }
+    } catch (InterruptedException e) {
+      // the stream is closed
+      return false;
+    }
+  }
+
   public final Collection<D> nextBatchList() {
     return convertBatchToData(nextBatch());
   }
@@ -0,0 +1,224 @@
+package redis.clients.jedis.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats numbers directly as ASCII bytes, without going through a {@link String}.
+ * <p>
+ * A {@code double} is written with the fewest fraction digits which still parse back to the same
+ * value, as long as it can be represented as an integer of at most 53 bits scaled by a power of ten
+ * up to 10<sup>22</sup>. That covers scores, coordinates and amounts as they are usually stored; any
+ * other value is formatted by {@link Double#toString(double)}.
+ */
+public final class NumericEncoder {
+
+  private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+      1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+  private static final byte[] DIGIT_TENS = new byte[100];
+  private static final byte[] DIGIT_ONES = new byte[100];
+
+  static {
+    for (int i = 0; i < 100; i++) {
+      DIGIT_TENS[i] = (byte) ('0' + i / 10);
+      DIGIT_ONES[i] = (byte) ('0' + i % 10);
+    }
+  }
+
+  private static final double MAX_EXACT = 1L << 53;
+
+  private static final int MAX_FRACTION_DIGITS = 17;
+
+  private NumericEncoder() {
+    throw new InstantiationError("Must not instantiate this class");
+  }
+
+  public static byte[] encode(final long value) {
+    final byte[] bytes = new byte[stringSize(value)];
+    write(value, bytes, 0);
+    return bytes;
+  }
+
+  public static byte[] encode(final double value) {
+    final int fractionDigits = fractionDigits(value);
+    if (fractionDigits < 0) {
+      return SafeEncoder.encode(Double.toString(value));
+    }
+    final byte[] bytes = new byte[stringSize(value, fractionDigits)];
+    write(value, fractionDigits, bytes, 0);
+    return bytes;
+  }
+
+  /**
+   * @return number of bytes of the decimal representation of the value
+   */
+  public static int stringSize(long value) {
+    if (value == Long.MIN_VALUE) {
+      return 20;
+    }
+    int sign = 0;
+    if (value < 0) {
+      sign = 1;
+      value = -value;
+    }
+    long p = 10;
+    for (int i = 1; i < 19; i++) {
+      if (value < p) {
+        return sign + i;
+      }
+      p *= 10;
+    }
+    return sign + 19;
+  }
+
+  /**
+   * Writes the decimal representation of the value, which takes {@link #stringSize(long)} bytes.
+   * @return the position after the written bytes
+   */
+  public static int write(long value, final byte[] buf, final int pos) {
+    final int end = pos + stringSize(value);
+    int p = end;
+    if (value == Long.MIN_VALUE) {
+      buf[--p] = '8';
+      value /= 10;
+    }
+    final boolean negative = value < 0;
+    if (negative) {
+      value = -value;
+    }
+    p = writeDigits(value, buf, p);
+    if (negative) {
+      buf[--p] = '-';
+    }
+    return end;
+  }
+
+  /**
+   * @return the fewest fraction digits the value can be written with by
+   * {@link #write(double, int, byte[], int)}, or -1 if it has to be formatted by
+   * {@link Double#toString(double)}
+   */
+  public static int fractionDigits(final double value) {
+    final double abs = Math.abs(value);
+    if (!(abs < MAX_EXACT)) { // also NaN
+      return -1;
+    }
+    for (int k = 0; k <= MAX_FRACTION_DIGITS; k++) {
+      final double scaled = abs * POWERS_OF_TEN[k];
+      if (scaled >= MAX_EXACT) {
+        return -1;
+      }
+      // both operands of the division are exact, so the quotient is the double nearest to the
+      // decimal number, i.e. what parsing the written digits gives
+      if (scaled == Math.rint(scaled) && scaled / POWERS_OF_TEN[k] == abs) {
+        return k;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return number of bytes written by {@link #write(double, int, byte[], int)}
+   */
+  public static int stringSize(final double value, final int fractionDigits) {
+    final int sign = Double.doubleToRawLongBits(value) < 0 ? 1 : 0;
+    final int digits = stringSize(mantissa(value, fractionDigits));
+    if (fractionDigits == 0) {
+      return sign + digits;
+    }
+    return sign + (digits > fractionDigits ? digits + 1 : fractionDigits + 2);
+  }
+
+  /**
+   * Writes the value with the given number of fraction digits, as returned by
+   * {@link #fractionDigits(double)}.
+   * @return the position after the written bytes
+   */
+  public static int write(final double value, final int fractionDigits, final byte[] buf,
+      final int pos) {
+    final int end = pos + stringSize(value, fractionDigits);
+    long mantissa = mantissa(value, fractionDigits);
+    int p = end;
+    for (int i = 0; i < fractionDigits; i++) {
+      buf[--p] = (byte) ('0' + (mantissa % 10));
+      mantissa /= 10;
+    }
+    if (fractionDigits > 0) {
+      buf[--p] = '.';
+    }
+    p = writeDigits(mantissa, buf, p);
+    if (p > pos) {
+      buf[--p] = '-';
+    }
+    return end;
+  }
+
+  /**
+   * Writes the digits of the non-negative value backwards, two at a time, ending before {@code end}.
+   * @return the position of the first digit
+   */
+  private static int writeDigits(long value, final byte[] buf, final int end) {
+    int p = end;
+    while (value >= 100) {
+      final long q = value / 100;
+      final int r = (int) (value - q * 100);
+      value = q;
+      buf[--p] = DIGIT_ONES[r];
+      buf[--p] = DIGIT_TENS[r];
+    }
+    final int r = (int) value;
+    buf[--p] = DIGIT_ONES[r];
+    if (r >= 10) {
+      buf[--p] = DIGIT_TENS[r];
+    }
+    return p;
+  }
+
+  private static long mantissa(final double value, final int fractionDigits) {
+    return (long) (Math.abs(value) * POWERS_OF_TEN[fractionDigits]);
+  }
+
+  /**
+   * Parses a decimal number without exponent directly from the bytes, if it has at most 22
+   * fraction digits and its digits fit into 53 bits; any other number is parsed by
+   * {@link DoublePrecision#parseFloatingPointNumber(String)}.
+   */
+  public static double decodeDouble(final byte[] buf, final int offset, final int length) {
+    final int end = offset + length;
+    int p = offset;
+    boolean negative = false;
+    if (p < end && (buf[p] == '-' || buf[p] == '+')) {
+      negative = buf[p++] == '-';
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; p < end; p++) {
+      final int b = buf[p];
+      if (b >= '0' && b <= '9') {
+        if (mantissa >= (1L << 53) / 10) {
+          return slowDecodeDouble(buf, offset, length);
+        }
+        mantissa = mantissa * 10 + b - '0';
+        digits++;
+        if (fractionDigits >= 0) {
+          fractionDigits++;
+        }
+      } else if (b == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else {
+        return slowDecodeDouble(buf, offset, length);
+      }
+    }
+    if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+      return slowDecodeDouble(buf, offset, length);
+    }
+    final double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+    return negative ? -value : value;
+  }
+
+  private static double slowDecodeDouble(final byte[] buf, final int offset, final int length) {
+    return DoublePrecision.parseFloatingPointNumber(
+        new String(buf, offset, length, StandardCharsets.US_ASCII));
+  }
+}
@@ -1,5 +1,16 @@
 package redis.clients.jedis.util;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
@@ -65,6 +76,65 @@ public class Pool<T> extends GenericObjectPool<T> {
     }
   }
 
+  /**
+   * Adds idle objects to the pools until each of them has {@link #getMinIdle() minIdle}, creating
+   * at most {@code parallelism} objects at a time, and waits until all of them are created.
+   * @param timeout how long to wait; {@code null} to wait as long as it takes
+   * @throws IllegalArgumentException if {@code parallelism} is not positive
+   * @throws JedisException if an object could not be created, or not all of them were created within
+   * the timeout
+   */
+  public static void warmUp(Collection<? extends Pool<?>> pools, int parallelism,
+      Duration timeout) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism must be positive.");
+    }
+
+    final List<Pool<?>> additions = new ArrayList<>();
+    for (Pool<?> pool : pools) {
+      for (int i = pool.getNumIdle(); i < pool.getMinIdle(); i++) {
+        additions.add(pool);
+      }
+    }
+    if (additions.isEmpty()) {
+      return;
+    }
+
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(parallelism, additions.size()), r -> {
+          Thread thread = new Thread(r, "jedis-pool-warm-up-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    try {
+      final List<Future<?>> futures = new ArrayList<>(additions.size());
+      for (Pool<?> pool : additions) {
+        futures.add(executor.submit(() -> {
+          pool.addObject();
+          return null;
+        }));
+      }
+      final long deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : 0;
+      for (Future<?> future : futures) {
+        if (timeout == null) {
+          future.get();
+        } else {
+          future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+      }
+    } catch (ExecutionException e) {
+      throw new JedisException("Error trying to add idle objects", e.getCause());
+    } catch (TimeoutException e) {
+      throw new JedisException("Timeout while adding idle objects, timeout=" + timeout, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisException("Interrupted while adding idle objects", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Override
   public void addObjects(int count) {
     try {
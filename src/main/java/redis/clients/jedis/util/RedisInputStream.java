@@ -14,6 +14,7 @@ import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 
 /**
@@ -218,6 +219,21 @@ public class RedisInputStream extends FilterInputStream {
   }
 
   public double readDoubleCrLf() {
+    final byte[] buf = this.buf;
+
+    ensureFill();
+
+    // parse in place if the whole line is buffered already
+    for (int i = count; i < limit - 1; i++) {
+      if (buf[i] == '\r') {
+        if (buf[i + 1] != '\n') {
+          break;
+        }
+        final double value = NumericEncoder.decodeDouble(buf, count, i - count);
+        count = i + 2;
+        return value;
+      }
+    }
     return DoublePrecision.parseFloatingPointNumber(readLine());
   }
 
@@ -235,6 +251,28 @@ public class RedisInputStream extends FilterInputStream {
     return length;
   }
 
+  /**
+   * Reads up to {@code len} bytes into the buffer, which may be direct.
+   * @return number of bytes read
+   */
+  public int read(final ByteBuffer dst, final int len) throws JedisConnectionException {
+    ensureFill();
+
+    final int length = Math.min(limit - count, len);
+    dst.put(buf, count, length);
+    count += length;
+    return length;
+  }
+
+  /**
+   * @return number of buffered bytes plus the bytes which can be read from the underlying stream
+   * without blocking
+   */
+  @Override
+  public int available() throws IOException {
+    return Math.max(limit - count, 0) + in.available();
+  }
+
   /**
    * This method assumes there are required bytes to be read. If we cannot read anymore bytes an
    * exception is thrown to quickly ascertain that the stream was smaller than expected.
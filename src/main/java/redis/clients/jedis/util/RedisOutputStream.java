@@ -3,11 +3,17 @@ package redis.clients.jedis.util;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 
 /**
  * The class implements a buffered output stream without synchronization There are also special
  * operations like in-place string encoding. This stream fully ignore mark/reset and should not be
  * used outside Jedis
+ * <p>
+ * Arrays at least as large as the buffer are written through instead of being copied. Unless a
+ * fixed size is given, the buffer is resized on {@link #flush()} based on the average number of bytes written between
+ * flushes, within {@code jedis.bufferSize.output} and {@code jedis.bufferSize.output.max}.
  */
 public final class RedisOutputStream extends FilterOutputStream {
 
@@ -15,10 +21,18 @@ public final class RedisOutputStream extends FilterOutputStream {
       System.getProperty("jedis.bufferSize.output",
           System.getProperty("jedis.bufferSize", "8192")));
 
-  protected final byte[] buf;
+  private static final int MAX_OUTPUT_BUFFER_SIZE = Math.max(OUTPUT_BUFFER_SIZE, Integer.parseInt(
+      System.getProperty("jedis.bufferSize.output.max", "65536")));
+
+  protected byte[] buf;
 
   protected int count;
 
+  private final int minSize;
+  private final int maxSize;
+  private long bytesSinceFlush = 0;
+  private long averageFlushSize;
+
   private final static int[] sizeTable = { 9, 99, 999, 9999, 99999, 999999, 9999999, 99999999,
       999999999, Integer.MAX_VALUE };
 
@@ -41,24 +55,69 @@ public final class RedisOutputStream extends FilterOutputStream {
       't', 'u', 'v', 'w', 'x', 'y', 'z' };
 
   public RedisOutputStream(final OutputStream out) {
-    this(out, OUTPUT_BUFFER_SIZE);
+    this(out, OUTPUT_BUFFER_SIZE, MAX_OUTPUT_BUFFER_SIZE);
   }
 
+  /**
+   * Creates a stream with a buffer of fixed size.
+   */
   public RedisOutputStream(final OutputStream out, final int size) {
+    this(out, size, size);
+  }
+
+  private RedisOutputStream(final OutputStream out, final int size, final int maxSize) {
     super(out);
     if (size <= 0) {
       throw new IllegalArgumentException("Buffer size <= 0");
     }
     buf = new byte[size];
+    this.minSize = size;
+    this.maxSize = maxSize;
+    this.averageFlushSize = size;
   }
 
   private void flushBuffer() throws IOException {
     if (count > 0) {
       out.write(buf, 0, count);
+      bytesSinceFlush += count;
       count = 0;
     }
   }
 
+  private void writeThrough(final byte[] b, final int off, final int len) throws IOException {
+    flushBuffer();
+    out.write(b, off, len);
+    bytesSinceFlush += len;
+  }
+
+  /**
+   * Resizes the empty buffer towards the average number of bytes written between flushes.
+   */
+  private void adaptBufferSize() {
+    averageFlushSize = (averageFlushSize * 7 + bytesSinceFlush) >> 3;
+    bytesSinceFlush = 0;
+    if (minSize == maxSize) {
+      return;
+    }
+
+    int size = buf.length;
+    if (averageFlushSize > size && size < maxSize) {
+      size = (int) Math.min(maxSize, Long.highestOneBit(averageFlushSize - 1) << 1);
+    } else if (averageFlushSize < size >> 2 && size > minSize) {
+      size = Math.max(minSize, size >> 1);
+    }
+    if (size != buf.length) {
+      buf = new byte[size];
+    }
+  }
+
+  /**
+   * @return current size of the buffer
+   */
+  public int getBufferSize() {
+    return buf.length;
+  }
+
   public void write(final byte b) throws IOException {
     if (count == buf.length) {
       flushBuffer();
@@ -74,8 +133,7 @@ public final class RedisOutputStream extends FilterOutputStream {
   @Override
   public void write(final byte[] b, final int off, final int len) throws IOException {
     if (len >= buf.length) {
-      flushBuffer();
-      out.write(b, off, len);
+      writeThrough(b, off, len);
     } else {
       if (len >= buf.length - count) {
         flushBuffer();
@@ -86,6 +144,25 @@ public final class RedisOutputStream extends FilterOutputStream {
     }
   }
 
+  /**
+   * Writes the remaining bytes of the buffer, which may be direct, without an intermediate array.
+   */
+  public void write(final ByteBuffer src) throws IOException {
+    if (src.hasArray()) {
+      write(src.array(), src.arrayOffset() + src.position(), src.remaining());
+      ((Buffer) src).position(src.limit());
+      return;
+    }
+    while (src.hasRemaining()) {
+      if (count == buf.length) {
+        flushBuffer();
+      }
+      final int length = Math.min(buf.length - count, src.remaining());
+      src.get(buf, count, length);
+      count += length;
+    }
+  }
+
   public void writeCrLf() throws IOException {
     if (2 >= buf.length - count) {
       flushBuffer();
@@ -137,5 +214,8 @@ public final class RedisOutputStream extends FilterOutputStream {
   public void flush() throws IOException {
     flushBuffer();
     out.flush();
+    if (bytesSinceFlush > 0) {
+      adaptBufferSize();
+    }
   }
 }
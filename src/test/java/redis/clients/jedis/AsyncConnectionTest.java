@@ -0,0 +1,99 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class AsyncConnectionTest {
+
+  private FakeRedisServer server;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeRedisServer(command -> {
+      switch (command.get(0).toUpperCase()) {
+        case "GET":
+          return command.get(1).equals("missing") ? "$-1\r\n"
+              : "$" + command.get(1).length() + "\r\n" + command.get(1) + "\r\n";
+        case "MGET":
+          return "*2\r\n$1\r\na\r\n$-1\r\n";
+        case "INCR":
+          return ":42\r\n";
+        default:
+          return "-ERR unknown command\r\n";
+      }
+    });
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+  }
+
+  @Test
+  public void executesCommandObjects() throws Exception {
+    try (AsyncConnection connection = new AsyncConnection(server.getHostAndPort())) {
+      CommandObjects commandObjects = new CommandObjects();
+      assertEquals("foo", connection.executeCommand(commandObjects.get("foo")).get(5, TimeUnit.SECONDS));
+      assertNull(connection.executeCommand(commandObjects.get("missing")).get(5, TimeUnit.SECONDS));
+      assertEquals(Long.valueOf(42), connection.executeCommand(commandObjects.incr("k")).get(5, TimeUnit.SECONDS));
+      assertEquals(Arrays.asList("a", null),
+          connection.executeCommand(commandObjects.mget("a", "b")).get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void keepsReplyOrderWithManyInFlightCommands() throws Exception {
+    server.setFragmented(true);
+    try (AsyncConnection connection = new AsyncConnection(server.getHostAndPort())) {
+      CommandObjects commandObjects = new CommandObjects();
+      List<CompletableFuture<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        futures.add(connection.executeCommand(commandObjects.get("key" + i)));
+      }
+      for (int i = 0; i < 200; i++) {
+        assertEquals("key" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+      }
+    }
+  }
+
+  @Test
+  public void errorReplyCompletesExceptionally() throws Exception {
+    try (AsyncConnection connection = new AsyncConnection(server.getHostAndPort())) {
+      connection.executeCommand(Protocol.Command.PING).get(5, TimeUnit.SECONDS);
+      fail("Should have thrown");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof JedisDataException);
+    }
+  }
+
+  @Test
+  public void closeFailsPendingCommands() throws Exception {
+    AsyncConnection connection = new AsyncConnection(server.getHostAndPort());
+    assertTrue(connection.isConnected());
+    connection.close();
+    assertFalse(connection.isConnected());
+    try {
+      connection.executeCommand(Protocol.Command.PING).get(5, TimeUnit.SECONDS);
+      fail("Should have thrown");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof JedisConnectionException);
+    }
+  }
+}
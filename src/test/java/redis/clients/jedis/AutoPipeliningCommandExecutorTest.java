@@ -0,0 +1,77 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.executors.AutoPipeliningCommandExecutor;
+import redis.clients.jedis.providers.PooledConnectionProvider;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class AutoPipeliningCommandExecutorTest {
+
+  private FakeRedisServer server;
+  private UnifiedJedis jedis;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeRedisServer(command -> {
+      switch (command.get(0).toUpperCase()) {
+        case "GET":
+          return "$" + command.get(1).length() + "\r\n" + command.get(1) + "\r\n";
+        case "BLPOP":
+          return "*2\r\n$1\r\nl\r\n$1\r\nv\r\n";
+        default:
+          return "-ERR unknown command\r\n";
+      }
+    });
+    HostAndPort hnp = server.getHostAndPort();
+    PooledConnectionProvider provider = new PooledConnectionProvider(hnp);
+    jedis = new UnifiedJedis(provider, new AutoPipeliningCommandExecutor(provider, hnp,
+        DefaultJedisClientConfig.builder().build(), 2));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    jedis.close();
+    server.close();
+  }
+
+  @Test
+  public void concurrentCallers() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+        final String key = "key" + i;
+        futures.add(pool.submit(() -> jedis.get(key)));
+      }
+      for (int i = 0; i < 500; i++) {
+        assertEquals("key" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void blockingCommandUsesDedicatedConnection() {
+    assertEquals(Arrays.asList("l", "v"), jedis.blpop(1, "l"));
+    assertEquals("k", jedis.get("k"));
+  }
+
+  @Test(expected = JedisDataException.class)
+  public void errorReply() {
+    jedis.ping();
+  }
+}
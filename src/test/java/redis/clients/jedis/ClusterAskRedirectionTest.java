@@ -0,0 +1,96 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.util.FakeRedisServer;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class ClusterAskRedirectionTest {
+
+  private FakeRedisServer lowSlots;
+  private FakeRedisServer highSlots;
+  private volatile String askingReply = "+OK\r\n";
+
+  @Before
+  public void setUp() throws IOException {
+    lowSlots = new FakeRedisServer(command -> reply(command, true));
+    highSlots = new FakeRedisServer(command -> reply(command, false));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    lowSlots.close();
+    highSlots.close();
+  }
+
+  private String reply(List<String> command, boolean low) {
+    switch (command.get(0).toUpperCase()) {
+      case "CLUSTER":
+        if (command.get(1).equalsIgnoreCase("SHARDS")) {
+          return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+        }
+        return "*2\r\n" + slots(0, 8191, lowSlots) + slots(8192, 16383, highSlots);
+      case "ASKING":
+        return askingReply;
+      case "GET": {
+        String key = command.get(1);
+        if (low) {
+          return "-ASK " + JedisClusterCRC16.getSlot(key) + " " + highSlots.getHostAndPort() + "\r\n";
+        }
+        String value = "v:" + key;
+        return "$" + value.length() + "\r\n" + value + "\r\n";
+      }
+      default:
+        return "+OK\r\n";
+    }
+  }
+
+  private static String slots(int from, int to, FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*3\r\n:" + from + "\r\n:" + to + "\r\n*3\r\n$" + hp.getHost().length() + "\r\n"
+        + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n$2\r\nid\r\n";
+  }
+
+  private static String lowKey() {
+    for (int i = 0; ; i++) {
+      String key = "key:" + i;
+      if (JedisClusterCRC16.getSlot(key) < 8192) {
+        return key;
+      }
+    }
+  }
+
+  @Test
+  public void askingIsSentWithCommand() {
+    String key = lowKey();
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      assertEquals("v:" + key, cluster.get(key));
+      assertEquals("v:" + key, cluster.get(key));
+    }
+
+    List<List<String>> received = new ArrayList<>(highSlots.getReceivedCommands());
+    received.removeIf(command -> !command.get(0).equals("ASKING") && !command.get(0).equals("GET"));
+    assertEquals(Arrays.asList(Arrays.asList("ASKING"), Arrays.asList("GET", key),
+        Arrays.asList("ASKING"), Arrays.asList("GET", key)), received);
+  }
+
+  @Test
+  public void askingErrorIsDiscarded() {
+    askingReply = "-ERR unknown command\r\n";
+    String key = lowKey();
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      assertEquals("v:" + key, cluster.get(key));
+      // the connection is still in sync
+      assertTrue(cluster.get(key).startsWith("v:"));
+    }
+  }
+}
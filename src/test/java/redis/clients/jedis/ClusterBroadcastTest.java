@@ -0,0 +1,130 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class ClusterBroadcastTest {
+
+  private static final CommandObject<String> PING = new CommandObject<>(
+      new CommandArguments(Protocol.Command.PING), BuilderFactory.STRING);
+
+  private FakeRedisServer lowSlots;
+  private FakeRedisServer highSlots;
+  private FakeRedisServer replica;
+  private volatile long pingDelayMillis = 0;
+  private volatile FakeRedisServer slowNode;
+
+  @Before
+  public void setUp() throws IOException {
+    lowSlots = new FakeRedisServer(command -> reply(command, lowSlots));
+    highSlots = new FakeRedisServer(command -> reply(command, highSlots));
+    replica = new FakeRedisServer(command -> reply(command, replica));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    lowSlots.close();
+    highSlots.close();
+    replica.close();
+  }
+
+  private String reply(List<String> command, FakeRedisServer server) {
+    switch (command.get(0).toUpperCase()) {
+      case "CLUSTER":
+        if (command.get(1).equalsIgnoreCase("SHARDS")) {
+          return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+        }
+        return "*2\r\n*4\r\n:0\r\n:8191\r\n" + node(lowSlots) + node(replica)
+            + "*3\r\n:8192\r\n:16383\r\n" + node(highSlots);
+      case "PING":
+        if (slowNode == null || slowNode == server) {
+          try {
+            Thread.sleep(pingDelayMillis);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return "+PONG\r\n";
+      default:
+        return "+OK\r\n";
+    }
+  }
+
+  private static String node(FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*3\r\n$" + hp.getHost().length() + "\r\n" + hp.getHost() + "\r\n:" + hp.getPort()
+        + "\r\n$2\r\nid\r\n";
+  }
+
+  private static int pings(FakeRedisServer server) {
+    return (int) server.getReceivedCommands().stream()
+        .filter(command -> command.get(0).equals("PING")).count();
+  }
+
+  @Test
+  public void broadcastToAllNodes() {
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      assertEquals("PONG", cluster.broadcastCommand(PING));
+      assertEquals(1, pings(lowSlots));
+      assertEquals(1, pings(highSlots));
+      assertEquals(1, pings(replica));
+    }
+  }
+
+  @Test
+  public void broadcastToPrimaries() {
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      Map<HostAndPort, Object> replies = cluster.broadcastCommand(PING, true, null);
+      assertEquals(2, replies.size());
+      assertEquals("PONG", replies.get(lowSlots.getHostAndPort()));
+      assertEquals("PONG", replies.get(highSlots.getHostAndPort()));
+      assertEquals(0, pings(replica));
+    }
+  }
+
+  @Test
+  public void nodesAreCalledConcurrently() {
+    pingDelayMillis = 300;
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      long start = System.nanoTime();
+      Map<HostAndPort, Object> replies = cluster.broadcastCommand(PING, false, null);
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+      assertEquals(3, replies.size());
+      assertTrue(replies.values().stream().allMatch("PONG"::equals));
+      assertTrue("took " + elapsedMillis + "ms", elapsedMillis < 3 * pingDelayMillis);
+    }
+  }
+
+  @Test
+  public void slowNodeTimesOut() throws InterruptedException {
+    pingDelayMillis = 2000;
+    slowNode = highSlots;
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      long start = System.nanoTime();
+      Map<HostAndPort, Object> replies = cluster.broadcastCommand(PING, true, Duration.ofMillis(200));
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+      assertEquals("PONG", replies.get(lowSlots.getHostAndPort()));
+      assertTrue(replies.get(highSlots.getHostAndPort()) instanceof JedisClusterOperationException);
+      assertTrue("took " + elapsedMillis + "ms", elapsedMillis < pingDelayMillis);
+
+      // the connection which waits for the slow node is closed, not held until it replies
+      ConnectionPool pool = cluster.getClusterNodes().get(highSlots.getHostAndPort().toString());
+      long deadline = System.currentTimeMillis() + pingDelayMillis / 2;
+      while (pool.getNumActive() > 0) {
+        assertTrue("connection still in use", System.currentTimeMillis() < deadline);
+        Thread.sleep(10);
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.FakeRedisServer;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class ClusterMultiKeyCommandsTest {
+
+  private FakeRedisServer lowSlots;
+  private FakeRedisServer highSlots;
+  private volatile String movedKey;
+  private volatile boolean tryAgain = false;
+
+  @Before
+  public void setUp() throws IOException {
+    lowSlots = new FakeRedisServer(command -> reply(command, 0, 8191));
+    highSlots = new FakeRedisServer(command -> reply(command, 8192, 16383));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    lowSlots.close();
+    highSlots.close();
+  }
+
+  private String reply(List<String> command, int from, int to) {
+    switch (command.get(0).toUpperCase()) {
+      case "CLUSTER":
+        if (command.get(1).equalsIgnoreCase("SHARDS")) {
+          return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+        }
+        return "*2\r\n" + slots(0, 8191, lowSlots) + slots(8192, 16383, highSlots);
+      case "MGET": {
+        if (tryAgain) {
+          return "-TRYAGAIN Multiple keys request during rehashing of slot\r\n";
+        }
+        StringBuilder sb = new StringBuilder("*").append(command.size() - 1).append("\r\n");
+        for (String key : command.subList(1, command.size())) {
+          int slot = JedisClusterCRC16.getSlot(key);
+          if (key.equals(movedKey) && from == 0) {
+            return "-MOVED " + slot + " " + highSlots.getHostAndPort() + "\r\n";
+          }
+          assertTrue(key.equals(movedKey) || slot >= from && slot <= to);
+          String value = "v:" + key;
+          sb.append('$').append(value.length()).append("\r\n").append(value).append("\r\n");
+        }
+        return sb.toString();
+      }
+      case "MSET":
+        return "+OK\r\n";
+      default: // DEL, EXISTS, ...
+        return ":" + (command.size() - 1) + "\r\n";
+    }
+  }
+
+  private static String slots(int from, int to, FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*3\r\n:" + from + "\r\n:" + to + "\r\n*3\r\n$" + hp.getHost().length() + "\r\n"
+        + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n$2\r\nid\r\n";
+  }
+
+  private JedisCluster cluster() {
+    return new JedisCluster(lowSlots.getHostAndPort());
+  }
+
+  private static String[] keys(int count) {
+    String[] keys = new String[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = "key:" + i;
+    }
+    return keys;
+  }
+
+  @Test
+  public void mgetAcrossSlots() {
+    String[] keys = keys(100);
+    List<String> expected = new ArrayList<>();
+    for (String key : keys) {
+      expected.add("v:" + key);
+    }
+    try (JedisCluster cluster = cluster()) {
+      assertEquals(expected, cluster.mget(keys));
+    }
+    long mgets = lowSlots.getReceivedCommands().stream().filter(c -> c.get(0).equals("MGET")).count()
+        + highSlots.getReceivedCommands().stream().filter(c -> c.get(0).equals("MGET")).count();
+    assertEquals(Arrays.stream(keys).mapToInt(JedisClusterCRC16::getSlot).distinct().count(), mgets);
+  }
+
+  @Test
+  public void countingCommandsAcrossSlots() {
+    String[] keys = keys(50);
+    try (JedisCluster cluster = cluster()) {
+      assertEquals(50, cluster.del(keys));
+      assertEquals(50, cluster.exists(keys));
+      assertEquals(50, cluster.unlink(keys));
+      assertEquals(50, cluster.touch(keys));
+    }
+  }
+
+  @Test
+  public void msetAcrossSlots() {
+    String[] keysvalues = new String[20];
+    for (int i = 0; i < 10; i++) {
+      keysvalues[2 * i] = "key:" + i;
+      keysvalues[2 * i + 1] = "value:" + i;
+    }
+    try (JedisCluster cluster = cluster()) {
+      assertEquals("OK", cluster.mset(keysvalues));
+    }
+    Function<FakeRedisServer, Long> pairs = server -> server.getReceivedCommands().stream()
+        .filter(c -> c.get(0).equals("MSET")).mapToLong(c -> {
+          for (int i = 1; i < c.size(); i += 2) {
+            assertEquals(c.get(i).replace("key", "value"), c.get(i + 1));
+          }
+          return (c.size() - 1) / 2;
+        }).sum();
+    assertEquals(10, pairs.apply(lowSlots) + pairs.apply(highSlots));
+  }
+
+  @Test
+  public void redirectedCommandIsRetried() {
+    String[] keys = keys(20);
+    int i = 0;
+    while (JedisClusterCRC16.getSlot(keys[i]) > 8191) {
+      i++;
+    }
+    movedKey = keys[i];
+    try (JedisCluster cluster = cluster()) {
+      List<String> values = cluster.mget(keys);
+      assertEquals("v:" + movedKey, values.get(i));
+      assertNotNull(values.get(keys.length - 1));
+    }
+  }
+
+  @Test
+  public void errorReplyLeavesNoUnreadReplies() {
+    String[] keys = keys(20);
+    try (JedisCluster cluster = cluster()) {
+      tryAgain = true;
+      try {
+        cluster.mget(keys);
+        fail("Should throw the error reply");
+      } catch (JedisDataException e) {
+        assertTrue(e.getMessage().startsWith("TRYAGAIN"));
+      }
+
+      tryAgain = false;
+      List<String> values = cluster.mget(keys);
+      for (int i = 0; i < keys.length; i++) {
+        assertEquals("v:" + keys[i], values.get(i));
+      }
+    }
+  }
+}
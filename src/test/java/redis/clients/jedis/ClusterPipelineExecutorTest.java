@@ -0,0 +1,177 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class ClusterPipelineExecutorTest {
+
+  private FakeRedisServer lowSlots;
+  private FakeRedisServer highSlots;
+  private FakeRedisServer topSlots;
+  private volatile boolean withTopSlots = false;
+  private ClusterConnectionProvider provider;
+
+  @Before
+  public void setUp() throws IOException {
+    lowSlots = new FakeRedisServer(this::reply);
+    highSlots = new FakeRedisServer(this::reply);
+    topSlots = new FakeRedisServer(this::reply);
+    provider = new ClusterConnectionProvider(Collections.singleton(lowSlots.getHostAndPort()),
+        DefaultJedisClientConfig.builder().build());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    provider.close();
+    lowSlots.close();
+    highSlots.close();
+    topSlots.close();
+  }
+
+  private String reply(List<String> command) {
+    switch (command.get(0).toUpperCase()) {
+      case "CLUSTER":
+        if (command.get(1).equalsIgnoreCase("SHARDS")) {
+          return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+        }
+        return withTopSlots
+            ? "*3\r\n" + slots(0, 8191, lowSlots) + slots(8192, 12287, highSlots) + slots(12288, 16383, topSlots)
+            : "*2\r\n" + slots(0, 8191, lowSlots) + slots(8192, 16383, highSlots);
+      case "GET":
+        String value = "v:" + command.get(1);
+        return "$" + value.length() + "\r\n" + value + "\r\n";
+      default:
+        return "+OK\r\n";
+    }
+  }
+
+  private static String slots(int from, int to, FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*3\r\n:" + from + "\r\n:" + to + "\r\n*3\r\n$" + hp.getHost().length() + "\r\n"
+        + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n$2\r\nid\r\n";
+  }
+
+  private void assertPipelined(ClusterPipeline pipeline, int count) {
+    List<Response<String>> responses = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      responses.add(pipeline.get("key:" + i));
+    }
+    pipeline.sync();
+    for (int i = 0; i < count; i++) {
+      assertEquals("v:key:" + i, responses.get(i).get());
+    }
+  }
+
+  @Test
+  public void executorIsSharedAcrossSyncs() {
+    ExecutorService executor = provider.getPipelineExecutor();
+    for (int round = 0; round < 20; round++) {
+      try (ClusterPipeline pipeline = new ClusterPipeline(provider)) {
+        assertPipelined(pipeline, 50);
+        assertPipelined(pipeline, 10);
+      }
+    }
+    assertSame(executor, provider.getPipelineExecutor());
+
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+    assertEquals(2, pool.getMaximumPoolSize()); // one per node
+    assertTrue(pool.getCompletedTaskCount() > 0);
+    assertTrue(pool.getLargestPoolSize() <= 2);
+    assertTrue(lowSlots.getReceivedCommands().size() > 0);
+    assertTrue(highSlots.getReceivedCommands().size() > 0);
+  }
+
+  @Test
+  public void concurrentSyncsShareExecutor() throws Exception {
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(callers.submit(() -> {
+          for (int round = 0; round < 10; round++) {
+            try (ClusterPipeline pipeline = new ClusterPipeline(provider)) {
+              assertPipelined(pipeline, 30);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) provider.getPipelineExecutor();
+    assertTrue(pool.getLargestPoolSize() <= 2);
+  }
+
+  @Test
+  public void ownExecutorFollowsNodeCount() {
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) provider.getPipelineExecutor();
+    assertEquals(2, pool.getMaximumPoolSize());
+
+    withTopSlots = true;
+    provider.renewSlotCache();
+    assertSame(pool, provider.getPipelineExecutor());
+    assertEquals(3, pool.getMaximumPoolSize());
+    assertEquals(3, pool.getCorePoolSize());
+    try (ClusterPipeline pipeline = new ClusterPipeline(provider)) {
+      assertPipelined(pipeline, 30);
+    }
+    assertTrue(topSlots.getReceivedCommands().size() > 0);
+
+    withTopSlots = false;
+    provider.renewSlotCache();
+    assertEquals(2, ((ThreadPoolExecutor) provider.getPipelineExecutor()).getMaximumPoolSize());
+  }
+
+  @Test
+  public void ownExecutorIsShutDownOnClose() {
+    ExecutorService executor = provider.getPipelineExecutor();
+    provider.close();
+    assertTrue(executor.isShutdown());
+  }
+
+  @Test
+  public void suppliedExecutor() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ExecutorService created = provider.getPipelineExecutor();
+      provider.setPipelineExecutor(executor);
+      assertTrue(created.isShutdown());
+
+      try (ClusterPipeline pipeline = new ClusterPipeline(provider)) {
+        assertPipelined(pipeline, 20);
+      }
+      provider.close();
+      assertTrue(!executor.isShutdown());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void syncAfterExecutorIsShutDown() {
+    provider.getPipelineExecutor().shutdown();
+    try (ClusterPipeline pipeline = new ClusterPipeline(provider)) {
+      assertPipelined(pipeline, 20);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.util.FakeRedisServer;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class ClusterPipelineRedirectionTest {
+
+  private FakeRedisServer lowSlots;
+  private FakeRedisServer highSlots;
+  private final AtomicInteger slotsRequests = new AtomicInteger();
+  private volatile boolean movedAgain = false;
+
+  @Before
+  public void setUp() throws IOException {
+    lowSlots = new FakeRedisServer(command -> reply(command, true));
+    highSlots = new FakeRedisServer(command -> reply(command, false));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    lowSlots.close();
+    highSlots.close();
+  }
+
+  private String reply(List<String> command, boolean low) {
+    switch (command.get(0).toUpperCase()) {
+      case "CLUSTER":
+        if (command.get(1).equalsIgnoreCase("SHARDS")) {
+          return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+        }
+        slotsRequests.incrementAndGet();
+        return "*2\r\n" + slots(0, 8191, lowSlots) + slots(8192, 16383, highSlots);
+      case "ASKING":
+        return "+OK\r\n";
+      case "GET": {
+        String key = command.get(1);
+        int slot = JedisClusterCRC16.getSlot(key);
+        if (key.startsWith("moved") && (low || movedAgain)) {
+          FakeRedisServer target = low ? highSlots : lowSlots;
+          return "-MOVED " + slot + " " + target.getHostAndPort() + "\r\n";
+        }
+        if (key.startsWith("asked") && low) {
+          return "-ASK " + slot + " " + highSlots.getHostAndPort() + "\r\n";
+        }
+        String value = (low ? "low:" : "high:") + key;
+        return "$" + value.length() + "\r\n" + value + "\r\n";
+      }
+      default:
+        return "+OK\r\n";
+    }
+  }
+
+  private static String slots(int from, int to, FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*3\r\n:" + from + "\r\n:" + to + "\r\n*3\r\n$" + hp.getHost().length() + "\r\n"
+        + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n$2\r\nid\r\n";
+  }
+
+  /**
+   * @return a key with the given prefix which belongs to the slots of the first node
+   */
+  private static String lowKey(String prefix) {
+    for (int i = 0; ; i++) {
+      String key = prefix + i;
+      if (JedisClusterCRC16.getSlot(key) < 8192) {
+        return key;
+      }
+    }
+  }
+
+  @Test
+  public void movedCommandsAreReplayed() {
+    String moved = lowKey("moved");
+    String plain = lowKey("plain");
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      int before = slotsRequests.get();
+      Response<String> first;
+      Response<String> second;
+      Response<String> other;
+      try (ClusterPipeline pipeline = cluster.pipelined()) {
+        first = pipeline.get(moved);
+        other = pipeline.get(plain);
+        second = pipeline.get(moved);
+        pipeline.sync();
+      }
+      assertEquals("high:" + moved, first.get());
+      assertEquals("low:" + plain, other.get());
+      assertEquals("high:" + moved, second.get());
+      assertEquals(before + 1, slotsRequests.get()); // renewed once
+    }
+  }
+
+  @Test
+  public void askedCommandsAreReplayedWithAsking() {
+    String asked = lowKey("asked");
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      int before = slotsRequests.get();
+      Response<String> response;
+      try (ClusterPipeline pipeline = cluster.pipelined()) {
+        response = pipeline.get(asked);
+        pipeline.sync();
+      }
+      assertEquals("high:" + asked, response.get());
+      assertEquals(before, slotsRequests.get());
+
+      List<List<String>> received = new ArrayList<>(highSlots.getReceivedCommands());
+      int index = received.indexOf(Arrays.asList("GET", asked));
+      assertTrue(index > 0);
+      assertEquals(Arrays.asList("ASKING"), received.get(index - 1));
+    }
+  }
+
+  @Test
+  public void commandsAreReplayedOnlyOnce() {
+    String moved = lowKey("moved");
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      movedAgain = true;
+      Response<String> response;
+      try (ClusterPipeline pipeline = cluster.pipelined()) {
+        response = pipeline.get(moved);
+        pipeline.sync();
+      }
+      try {
+        response.get();
+        fail();
+      } catch (JedisMovedDataException expected) {
+        assertEquals(lowSlots.getHostAndPort(), expected.getTargetNode());
+      }
+    }
+  }
+
+  @Test
+  public void failedReplayDoesNotBlockNextSync() {
+    String moved = lowKey("moved");
+    String plain = lowKey("plain");
+    try (ClusterConnectionProvider provider = new ClusterConnectionProvider(
+        Collections.singleton(lowSlots.getHostAndPort()), DefaultJedisClientConfig.builder().build());
+        ClusterPipeline pipeline = new ClusterPipeline(provider) {
+          @Override
+          protected void renewSlotCache(List<JedisMovedDataException> redirections) {
+            throw new JedisClusterOperationException("No reachable node in cluster.");
+          }
+        }) {
+      pipeline.get(moved);
+      try {
+        pipeline.sync();
+        fail("Should not replay");
+      } catch (JedisClusterOperationException expected) {
+      }
+
+      Response<String> response = pipeline.get(plain);
+      pipeline.sync();
+      assertEquals("low:" + plain, response.get());
+    }
+  }
+}
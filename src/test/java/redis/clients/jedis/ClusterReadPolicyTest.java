@@ -0,0 +1,153 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class ClusterReadPolicyTest {
+
+  private FakeRedisServer master;
+  private FakeRedisServer replica1;
+  private FakeRedisServer replica2;
+  private volatile boolean withReplicas = true;
+
+  @Before
+  public void setUp() throws IOException {
+    master = new FakeRedisServer(command -> reply(command, "master"));
+    replica1 = new FakeRedisServer(command -> reply(command, "replica1"));
+    replica2 = new FakeRedisServer(command -> reply(command, "replica2"));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    master.close();
+    replica1.close();
+    replica2.close();
+  }
+
+  private String reply(List<String> command, String name) {
+    switch (command.get(0).toUpperCase()) {
+      case "CLUSTER":
+        if (command.get(1).equalsIgnoreCase("SHARDS")) {
+          return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+        }
+        return "*1\r\n*" + (withReplicas ? 5 : 3) + "\r\n:0\r\n:16383\r\n" + node(master)
+            + (withReplicas ? node(replica1) + node(replica2) : "");
+      case "GET":
+        return "$" + name.length() + "\r\n" + name + "\r\n";
+      case "PING":
+        if (name.equals("master")) {
+          try {
+            Thread.sleep(50);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return "+PONG\r\n";
+      default:
+        return "+OK\r\n";
+    }
+  }
+
+  private static String node(FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*2\r\n$" + hp.getHost().length() + "\r\n" + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n";
+  }
+
+  private JedisCluster cluster(ReadPolicy readPolicy) {
+    return new JedisCluster(Collections.singleton(master.getHostAndPort()),
+        DefaultJedisClientConfig.builder().build(), null, null, JedisCluster.DEFAULT_MAX_ATTEMPTS,
+        Duration.ofSeconds(2), readPolicy);
+  }
+
+  private static long count(FakeRedisServer server, String command) {
+    return server.getReceivedCommands().stream().filter(c -> c.get(0).equals(command)).count();
+  }
+
+  @Test
+  public void masterPolicy() {
+    try (JedisCluster cluster = cluster(ReadPolicy.MASTER)) {
+      assertEquals("master", cluster.get("foo"));
+    }
+    assertEquals(0, count(replica1, "READONLY") + count(replica2, "READONLY"));
+  }
+
+  @Test
+  public void replicaPolicy() {
+    try (JedisCluster cluster = cluster(ReadPolicy.REPLICA)) {
+      for (int i = 0; i < 10; i++) {
+        assertTrue(cluster.get("foo").startsWith("replica"));
+      }
+      assertEquals("OK", cluster.set("foo", "bar"));
+    }
+    assertEquals(1, count(master, "SET"));
+    assertEquals(0, count(master, "GET"));
+    assertTrue(count(replica1, "READONLY") + count(replica2, "READONLY") > 0);
+  }
+
+  @Test
+  public void replicaPreferredPolicyFallsBackToMaster() {
+    withReplicas = false;
+    try (JedisCluster cluster = cluster(ReadPolicy.REPLICA_PREFERRED)) {
+      assertEquals("master", cluster.get("foo"));
+    }
+  }
+
+  @Test
+  public void roundRobinPolicy() {
+    Set<String> servers = new HashSet<>();
+    try (JedisCluster cluster = cluster(ReadPolicy.ROUND_ROBIN)) {
+      for (int i = 0; i < 3; i++) {
+        servers.add(cluster.get("foo"));
+      }
+    }
+    assertEquals(3, servers.size());
+  }
+
+  @Test
+  public void lowestLatencyPolicy() throws InterruptedException {
+    try (JedisCluster cluster = cluster(ReadPolicy.LOWEST_LATENCY)) {
+      // the latencies are measured in the background
+      long deadline = System.currentTimeMillis() + 5000;
+      while (!cluster.get("foo").startsWith("replica")) {
+        assertTrue(System.currentTimeMillis() < deadline);
+        Thread.sleep(50);
+      }
+    }
+  }
+
+  @Test
+  public void movedSlotForgetsOldReplicas() {
+    JedisClusterInfoCache cache = new JedisClusterInfoCache(DefaultJedisClientConfig.builder().build(),
+        null, Collections.singleton(master.getHostAndPort()), null, ReadPolicy.REPLICA);
+    try (Connection connection = new Connection(master.getHostAndPort())) {
+      cache.discoverClusterNodesAndSlots(connection);
+      assertNotSame(cache.getSlotPool(0), cache.getSlotReadPool(0));
+
+      cache.assignSlotToNode(0, replica1.getHostAndPort());
+      try {
+        cache.getSlotReadPool(0);
+        fail("Should have no replica");
+      } catch (JedisClusterOperationException e) {
+        // the replicas of the new master are not known before the next refresh
+      }
+      assertNotSame(cache.getSlotPool(1), cache.getSlotReadPool(1));
+    } finally {
+      cache.close();
+    }
+  }
+}
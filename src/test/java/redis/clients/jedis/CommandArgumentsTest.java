@@ -0,0 +1,111 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static redis.clients.jedis.util.AssertUtil.assertByteArrayListEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Test;
+
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.util.RedisOutputStream;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class CommandArgumentsTest {
+
+  @Test
+  public void encodedArgumentsAreSentLikeRawables() throws IOException {
+    Function<CommandArguments, CommandArguments> fill = args -> args.key("key")
+        .add("v\u00e4l\u00fce \uD83D\uDE00").add(42).add(-7L).add(Long.MIN_VALUE).add(1.5).add(true)
+        .add(SafeEncoder.encode("bin")).add(Protocol.Keyword.EX).add(ByteBuffer.wrap(new byte[] { 1, 2 }))
+        .add(new GeoCoordinate(1, 2));
+
+    CommandArguments plain = fill.apply(new CommandArguments(Protocol.Command.SET, false));
+    CommandArguments encoded = fill.apply(new CommandArguments(Protocol.Command.SET, true));
+
+    assertEquals(plain.size(), encoded.size());
+    assertEquals(Protocol.Command.SET, encoded.getCommand());
+    assertEquals(encode(plain), encode(encoded));
+    assertByteArrayListEquals(raws(plain), raws(encoded));
+  }
+
+  @Test
+  public void encodedArgumentsGrowBeyondArena() throws IOException {
+    CommandArguments plain = new CommandArguments(Protocol.Command.MSET, false);
+    CommandArguments encoded = new CommandArguments(Protocol.Command.MSET, true);
+    CommandArguments interleaved = new CommandArguments(Protocol.Command.MSET, true);
+    byte[] big = new byte[20_000];
+    for (int i = 0; i < 500; i++) {
+      plain.key("key" + i).add(i % 100 == 0 ? big : SafeEncoder.encode("value" + i));
+      encoded.key("key" + i).add(i % 100 == 0 ? big : SafeEncoder.encode("value" + i));
+      interleaved.key("key" + i).add(i % 100 == 0 ? big : SafeEncoder.encode("value" + i));
+      new CommandArguments(Protocol.Command.GET, true).key("other" + i);
+    }
+    assertEquals(encode(plain), encode(encoded));
+    assertEquals(encode(plain), encode(interleaved));
+  }
+
+  @Test
+  public void largeArgumentsAreWrittenThrough() throws IOException {
+    byte[] value = new byte[100_000];
+    ByteBuffer direct = ByteBuffer.allocateDirect(30_000);
+    for (boolean encodedMode : new boolean[] { false, true }) {
+      CommandArguments args = new CommandArguments(Protocol.Command.MSET, encodedMode).key("a")
+          .add(value).key("b").add(direct).key("c").add(ByteBuffer.wrap(value));
+      List<byte[]> written = new ArrayList<>();
+      List<Integer> lengths = new ArrayList<>();
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream() {
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+          written.add(b);
+          lengths.add(len);
+          super.write(b, off, len);
+        }
+      };
+      RedisOutputStream ros = new RedisOutputStream(bytes);
+      Protocol.sendCommand(ros, args);
+      Protocol.sendCommand(ros, args);
+      ros.flush();
+
+      // large arguments are written in one piece, those of a heap buffer without a copy
+      assertEquals(4, lengths.stream().filter(len -> len == value.length).count());
+      assertEquals(2, written.stream().filter(b -> b == value).count());
+      assertEquals(encode(new CommandArguments(Protocol.Command.MSET, false).key("a").add(value)
+          .key("b").add(direct).key("c").add(value)), encode(args));
+      assertEquals(2 * encode(args).length(), bytes.size());
+      assertEquals(7, args.size());
+    }
+    CommandArguments encoded = new CommandArguments(Protocol.Command.SET, true).key("a").add(value);
+    assertByteArrayListEquals(raws(new CommandArguments(Protocol.Command.SET, false).key("a").add(value)),
+        raws(encoded));
+  }
+
+  @Test
+  public void encodedClusterArgumentsKeepHashSlot() {
+    ClusterCommandArguments plain = new ClusterCommandArguments(Protocol.Command.GET, false);
+    ClusterCommandArguments encoded = new ClusterCommandArguments(Protocol.Command.GET, true);
+    plain.key("{user1000}.following");
+    encoded.key("{user1000}.following");
+    assertEquals(plain.getCommandHashSlot(), encoded.getCommandHashSlot());
+  }
+
+  private static String encode(CommandArguments args) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(bytes);
+    Protocol.sendCommand(ros, args);
+    ros.flush();
+    return SafeEncoder.encode(bytes.toByteArray());
+  }
+
+  private static List<byte[]> raws(CommandArguments args) {
+    List<byte[]> list = new ArrayList<>();
+    for (Rawable raw : args) {
+      list.add(raw.getRaw());
+    }
+    return list;
+  }
+}
@@ -0,0 +1,101 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import org.apache.commons.pool2.PooledObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class ConnectionFactoryTest {
+
+  private FakeRedisServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new FakeRedisServer(command -> {
+      switch (command.get(0).toUpperCase()) {
+        case "PING":
+          return "+PONG\r\n";
+        case "GET":
+          return "$1\r\nv\r\n";
+        default:
+          return "+OK\r\n";
+      }
+    });
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    server.close();
+  }
+
+  private long pings() {
+    return server.getReceivedCommands().stream()
+        .filter(command -> command.get(0).equalsIgnoreCase("PING")).count();
+  }
+
+  @Test
+  public void pingsWithoutValidationWindow() throws Exception {
+    ConnectionFactory factory = new ConnectionFactory(server.getHostAndPort(),
+        DefaultJedisClientConfig.builder().build());
+    PooledObject<Connection> pooled = factory.makeObject();
+    try {
+      assertTrue(factory.validateObject(pooled));
+      assertTrue(factory.validateObject(pooled));
+      assertEquals(2, pings());
+    } finally {
+      factory.destroyObject(pooled);
+    }
+  }
+
+  @Test
+  public void skipsPingAfterRecentReply() throws Exception {
+    ConnectionFactory factory = new ConnectionFactory(server.getHostAndPort(),
+        DefaultJedisClientConfig.builder().validationWindowMillis(60_000).build());
+    PooledObject<Connection> pooled = factory.makeObject();
+    try {
+      assertEquals("v", pooled.getObject().executeCommand(new CommandObjects().get("key")));
+      assertTrue(factory.validateObject(pooled));
+      assertTrue(factory.validateObject(pooled));
+      assertEquals(0, pings());
+    } finally {
+      factory.destroyObject(pooled);
+    }
+  }
+
+  @Test
+  public void unreadReplyFailsValidationWithoutPing() throws Exception {
+    ConnectionFactory factory = new ConnectionFactory(server.getHostAndPort(),
+        DefaultJedisClientConfig.builder().validationWindowMillis(60_000).build());
+    PooledObject<Connection> pooled = factory.makeObject();
+    Connection conn = pooled.getObject();
+    try {
+      conn.sendCommand(Protocol.Command.GET, "key");
+      conn.flush();
+      long deadline = System.currentTimeMillis() + 5000;
+      while (conn.isHealthy() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+      assertFalse(factory.validateObject(pooled));
+      assertEquals(0, pings());
+    } finally {
+      factory.destroyObject(pooled);
+    }
+  }
+
+  @Test
+  public void disconnectedConnectionFailsValidation() throws Exception {
+    ConnectionFactory factory = new ConnectionFactory(server.getHostAndPort(),
+        DefaultJedisClientConfig.builder().build());
+    PooledObject<Connection> pooled = factory.makeObject();
+    pooled.getObject().disconnect();
+    assertFalse(factory.validateObject(pooled));
+    assertEquals(0, pings());
+  }
+}
@@ -0,0 +1,108 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisAccessControlException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class ConnectionHandshakeTest {
+
+  private static final DefaultJedisClientConfig CONFIG = DefaultJedisClientConfig.builder()
+      .password("secret").clientName("app").database(2).build();
+
+  @Test
+  public void sendsHandshakeInOneFlush() throws Exception {
+    try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      CompletableFuture<String> received = CompletableFuture.supplyAsync(() -> {
+        try (Socket socket = serverSocket.accept()) {
+          // nothing is replied before all commands are received
+          socket.setSoTimeout(5000);
+          InputStream in = socket.getInputStream();
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+          byte[] buf = new byte[1024];
+          while (!bytes.toString("UTF-8").contains("SELECT\r\n$1\r\n2\r\n")) {
+            int n = in.read(buf);
+            if (n < 0) {
+              break;
+            }
+            bytes.write(buf, 0, n);
+          }
+          String commands = bytes.toString("UTF-8");
+          OutputStream out = socket.getOutputStream();
+          for (int i = 0; i < commands.split("(^|\r\n)\\*").length - 1; i++) {
+            out.write("+OK\r\n".getBytes(StandardCharsets.UTF_8));
+          }
+          out.flush();
+          return commands;
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+
+      try (Connection conn = new Connection(new HostAndPort(
+          serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort()), CONFIG)) {
+        assertTrue(conn.isHealthy());
+      }
+
+      String commands = received.get(10, TimeUnit.SECONDS);
+      assertTrue(commands.startsWith("*2\r\n$4\r\nAUTH\r\n$6\r\nsecret\r\n"));
+      assertTrue(commands.contains("SETNAME\r\n$3\r\napp\r\n"));
+      assertTrue(commands.endsWith("SELECT\r\n$1\r\n2\r\n"));
+    }
+  }
+
+  private static void assertHandshakeFails(Function<List<String>, String> responder,
+      Class<? extends JedisDataException> expected) throws IOException {
+    try (FakeRedisServer server = new FakeRedisServer(responder)) {
+      new Connection(server.getHostAndPort(), CONFIG).close();
+      fail("Should not connect");
+    } catch (JedisDataException e) {
+      assertEquals(expected, e.getClass());
+    }
+  }
+
+  @Test
+  public void failsOnAuthError() throws IOException {
+    assertHandshakeFails(command -> command.get(0).equals("AUTH")
+        ? "-WRONGPASS invalid username-password pair or user is disabled.\r\n"
+        : "-NOAUTH Authentication required.\r\n", JedisAccessControlException.class);
+  }
+
+  @Test
+  public void failsOnSelectError() throws IOException {
+    assertHandshakeFails(command -> command.get(0).equals("SELECT")
+        ? "-ERR DB index is out of range\r\n" : "+OK\r\n", JedisDataException.class);
+  }
+
+  @Test
+  public void toleratesClientSetNameErrors() throws IOException {
+    try (FakeRedisServer server = new FakeRedisServer(command -> command.get(0).equals("CLIENT")
+        ? "-ERR unknown subcommand 'SETNAME'\r\n" : "+OK\r\n");
+        Connection conn = new Connection(server.getHostAndPort(), CONFIG)) {
+      assertTrue(conn.isHealthy());
+      List<List<String>> commands = new ArrayList<>(server.getReceivedCommands());
+      assertEquals(Arrays.asList("AUTH", "secret"), commands.get(0));
+      assertEquals(Arrays.asList("CLIENT", "SETNAME", "app"), commands.get(1));
+      assertEquals(Arrays.asList("SELECT", "2"), commands.get(commands.size() - 1));
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.resps.ClusterShardNodeInfo;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class JedisClusterInfoCacheTest {
+
+  private static final HostAndPort NODE_1 = new HostAndPort("127.0.0.1", 7379);
+  private static final HostAndPort NODE_2 = new HostAndPort("127.0.0.1", 7380);
+
+  private final JedisClusterInfoCache cache = new JedisClusterInfoCache(
+      DefaultJedisClientConfig.builder().build(), Collections.singleton(NODE_1));
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void assignSlots() {
+    cache.assignSlotsToNode(Arrays.asList(0, 1, 2), NODE_1);
+    cache.assignSlotToNode(2, NODE_2);
+
+    assertEquals(NODE_1, cache.getSlotNode(0));
+    assertEquals(NODE_1, cache.getSlotNode(1));
+    assertEquals(NODE_2, cache.getSlotNode(2));
+    assertNull(cache.getSlotNode(3));
+    assertSame(cache.getNode(NODE_1), cache.getSlotPool(1));
+    assertSame(cache.getNode(NODE_2), cache.getSlotPool(2));
+    assertEquals(2, cache.getNodes().size());
+
+    cache.reset();
+    assertNull(cache.getSlotNode(0));
+    assertNull(cache.getSlotPool(2));
+    assertEquals(0, cache.getNodes().size());
+  }
+
+  @Test
+  public void lookupsNeverSeePartialReassignment() throws InterruptedException {
+    cache.assignSlotsToNode(Arrays.asList(0, 1), NODE_1);
+    AtomicInteger inconsistent = new AtomicInteger();
+    Thread reader = new Thread(() -> {
+      for (int i = 0; i < 1_000_000; i++) {
+        if (cache.getSlotNode(0) == null || cache.getSlotPool(1) == null) {
+          inconsistent.incrementAndGet();
+        }
+      }
+    });
+    reader.start();
+    for (int i = 0; i < 1000; i++) {
+      cache.assignSlotsToNode(Arrays.asList(0, 1), i % 2 == 0 ? NODE_2 : NODE_1);
+    }
+    reader.join();
+    assertEquals(0, inconsistent.get());
+  }
+
+  @Test
+  public void movedSlotIsNotAssignedByDefault() {
+    cache.assignSlotToNode(0, NODE_1);
+    assertFalse(cache.assignMovedSlot(0, NODE_2));
+    assertEquals(NODE_1, cache.getSlotNode(0));
+  }
+
+  @Test
+  public void movedSlotsAreAssignedAndRefreshesCoalesced() throws Exception {
+    AtomicInteger slotsRequests = new AtomicInteger();
+    try (FakeRedisServer server = new FakeRedisServer(command -> {
+      if (command.get(1).equalsIgnoreCase("SHARDS")) {
+        return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+      }
+      slotsRequests.incrementAndGet();
+      return "*1\r\n*3\r\n:0\r\n:16383\r\n*2\r\n$9\r\n127.0.0.1\r\n:7379\r\n";
+    })) {
+      JedisClusterInfoCache cache = new JedisClusterInfoCache(
+          DefaultJedisClientConfig.builder().build(), Collections.singleton(server.getHostAndPort()));
+      try (Connection connection = new Connection(server.getHostAndPort())) {
+        cache.discoverClusterNodesAndSlots(connection);
+      }
+      slotsRequests.set(0);
+      cache.setMovedRefreshInterval(Duration.ofMillis(200));
+
+      for (int slot = 0; slot < 100; slot++) {
+        assertTrue(cache.assignMovedSlot(slot, NODE_2));
+        assertEquals(NODE_2, cache.getSlotNode(slot));
+      }
+      assertEquals(NODE_1, cache.getSlotNode(100));
+      assertEquals(0, slotsRequests.get());
+
+      long deadline = System.currentTimeMillis() + 5000;
+      while (slotsRequests.get() == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(100);
+      assertEquals(1, slotsRequests.get());
+      assertEquals(NODE_1, cache.getSlotNode(0));
+      cache.close();
+    }
+  }
+
+  private static String bulk(String value) {
+    return "$" + value.length() + "\r\n" + value + "\r\n";
+  }
+
+  private static String shardNode(String id, int port, String role, long offset, String health) {
+    return "*14\r\n" + bulk("id") + bulk(id) + bulk("port") + ":" + port + "\r\n"
+        + bulk("ip") + bulk("127.0.0.1") + bulk("endpoint") + bulk("127.0.0.1")
+        + bulk("role") + bulk(role) + bulk("replication-offset") + ":" + offset + "\r\n"
+        + bulk("health") + bulk(health);
+  }
+
+  @Test
+  public void discoverByClusterShards() throws Exception {
+    String shards = "*1\r\n*4\r\n" + bulk("slots") + "*2\r\n:0\r\n:16383\r\n" + bulk("nodes")
+        + "*3\r\n" + shardNode("a", 7379, "master", 100, "online")
+        + shardNode("b", 7380, "replica", 90, "online")
+        + shardNode("c", 7381, "replica", 0, "loading");
+    try (FakeRedisServer server = new FakeRedisServer(command -> shards)) {
+      JedisClusterInfoCache cache = new JedisClusterInfoCache(
+          DefaultJedisClientConfig.builder().build(), null,
+          Collections.singleton(server.getHostAndPort()), null, ReadPolicy.REPLICA);
+      try (Connection connection = new Connection(server.getHostAndPort())) {
+        cache.discoverClusterNodesAndSlots(connection);
+      }
+
+      assertEquals(NODE_1, cache.getSlotNode(0));
+      assertEquals(NODE_1, cache.getSlotNode(16383));
+      for (int i = 0; i < 20; i++) {
+        // the loading replica is skipped
+        assertSame(cache.getNode(NODE_2), cache.getSlotReadPool(i));
+      }
+
+      assertEquals(3, cache.getNodeInfos().size());
+      ClusterShardNodeInfo master = cache.getNodeInfo(NODE_1);
+      assertTrue(master.isMaster());
+      assertTrue(master.isOnline());
+      assertEquals(100, master.getReplicationOffset());
+      ClusterShardNodeInfo loading = cache.getNodeInfo(new HostAndPort("127.0.0.1", 7381));
+      assertFalse(loading.isMaster());
+      assertEquals(ClusterShardNodeInfo.HEALTH_LOADING, loading.getHealth());
+      assertEquals("c", loading.getId());
+      cache.close();
+    }
+  }
+
+  @Test
+  public void transientShardsErrorDoesNotDisableShards() throws Exception {
+    String shards = "*1\r\n*4\r\n" + bulk("slots") + "*2\r\n:0\r\n:16383\r\n" + bulk("nodes")
+        + "*1\r\n" + shardNode("a", 7379, "master", 100, "online");
+    AtomicInteger shardsRequests = new AtomicInteger();
+    try (FakeRedisServer server = new FakeRedisServer(command -> {
+      if (!command.get(1).equalsIgnoreCase("SHARDS")) {
+        return "*1\r\n*3\r\n:0\r\n:16383\r\n*2\r\n$9\r\n127.0.0.1\r\n:7379\r\n";
+      }
+      return shardsRequests.incrementAndGet() == 1
+          ? "-LOADING Redis is loading the dataset in memory\r\n" : shards;
+    })) {
+      JedisClusterInfoCache cache = new JedisClusterInfoCache(
+          DefaultJedisClientConfig.builder().build(), Collections.singleton(server.getHostAndPort()));
+      try (Connection connection = new Connection(server.getHostAndPort())) {
+        cache.discoverClusterNodesAndSlots(connection);
+        assertEquals(NODE_1, cache.getSlotNode(0));
+        assertTrue(cache.getNodeInfos().isEmpty());
+
+        cache.discoverClusterNodesAndSlots(connection);
+        assertEquals(2, shardsRequests.get());
+        assertEquals(1, cache.getNodeInfos().size());
+      }
+      cache.close();
+    }
+  }
+}
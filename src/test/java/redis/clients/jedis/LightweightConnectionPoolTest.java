@@ -0,0 +1,298 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class LightweightConnectionPoolTest {
+
+  private FakeRedisServer server;
+  private volatile boolean pingFails = false;
+  private volatile CountDownLatch pingReceived = new CountDownLatch(0);
+  private volatile CountDownLatch pongAllowed = new CountDownLatch(0);
+  private final GenericObjectPoolConfig<Connection> poolConfig = new GenericObjectPoolConfig<>();
+
+  @Before
+  public void setUp() throws IOException {
+    server = new FakeRedisServer(command -> {
+      switch (command.get(0).toUpperCase()) {
+        case "PING":
+          pingReceived.countDown();
+          try {
+            pongAllowed.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return pingFails ? "-LOADING Redis is loading the dataset in memory\r\n" : "+PONG\r\n";
+        case "GET":
+          return "$1\r\nv\r\n";
+        default:
+          return "+OK\r\n";
+      }
+    });
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    server.close();
+  }
+
+  private LightweightConnectionPool createPool() {
+    return new LightweightConnectionPool(server.getHostAndPort(),
+        DefaultJedisClientConfig.builder().build(), poolConfig);
+  }
+
+  @Test
+  public void threadGetsBackItsConnection() {
+    try (LightweightConnectionPool pool = createPool()) {
+      Connection first = pool.getResource();
+      Connection second = pool.getResource();
+      assertNotSame(first, second);
+      assertEquals(2, pool.getNumActive());
+
+      second.close();
+      first.close();
+      assertEquals(0, pool.getNumActive());
+      assertEquals(2, pool.getNumIdle());
+
+      for (int i = 0; i < 10; i++) {
+        try (Connection conn = pool.getResource()) {
+          assertSame(first, conn);
+        }
+      }
+      assertEquals(2, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void brokenConnectionIsReplaced() {
+    try (LightweightConnectionPool pool = createPool()) {
+      Connection broken = pool.getResource();
+      pool.returnBrokenResource(broken);
+      assertFalse(broken.isConnected());
+      assertEquals(0, pool.getNumActive() + pool.getNumIdle());
+
+      try (Connection conn = pool.getResource()) {
+        assertNotSame(broken, conn);
+        assertTrue(conn.ping());
+      }
+    }
+  }
+
+  @Test
+  public void failsWhenExhausted() {
+    poolConfig.setMaxTotal(1);
+    poolConfig.setMaxWait(Duration.ofMillis(50));
+    try (LightweightConnectionPool pool = createPool()) {
+      try (Connection conn = pool.getResource()) {
+        pool.getResource();
+        fail("Should not get a second connection");
+      } catch (JedisException e) {
+        assertTrue(e.getCause() instanceof NoSuchElementException);
+      }
+      assertEquals(0, pool.getNumWaiters());
+
+      pool.setBlockWhenExhausted(false);
+      try (Connection conn = pool.getResource()) {
+        pool.getResource();
+        fail("Should not get a second connection");
+      } catch (JedisException e) {
+        assertTrue(e.getCause() instanceof NoSuchElementException);
+      }
+    }
+  }
+
+  @Test
+  public void boundsConnectionsOfConcurrentThreads() throws Exception {
+    poolConfig.setMaxTotal(3);
+    AtomicInteger inUse = new AtomicInteger();
+    AtomicInteger maxInUse = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try (LightweightConnectionPool pool = createPool()) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 16; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 200; i++) {
+            try (Connection conn = pool.getResource()) {
+              maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+              assertEquals("v", conn.executeCommand(new CommandObjects().get("key")));
+              inUse.decrementAndGet();
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+      assertTrue(maxInUse.get() <= 3);
+      assertEquals(0, pool.getNumActive());
+      assertEquals(3, pool.getNumIdle());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void closeDestroysIdleConnections() {
+    LightweightConnectionPool pool = createPool();
+    pool.addObjects(2);
+    assertEquals(2, pool.getNumIdle());
+    Connection active = pool.getResource();
+
+    pool.close();
+    assertEquals(0, pool.getNumIdle());
+    active.close();
+    assertFalse(active.isConnected());
+    try {
+      pool.getResource();
+      fail("Should not get a connection from a closed pool");
+    } catch (JedisException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void validatesIdleConnectionsInOneBatch() throws InterruptedException {
+    try (LightweightConnectionPool pool = createPool()) {
+      List<Connection> connections = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        Connection conn = pool.getResource();
+        conn.executeCommand(new CommandObject<>(new CommandArguments(Protocol.Command.GET).add("k"),
+            BuilderFactory.STRING));
+        connections.add(conn);
+      }
+      Connection active = connections.get(0);
+      connections.get(1).close();
+      connections.get(2).close();
+
+      pool.validateIdle(60_000);
+      assertEquals(0, pings()); // all of them read a reply just now
+
+      Thread.sleep(20);
+      pool.validateIdle(10);
+      assertEquals(2, pings());
+      assertEquals(2, pool.getNumIdle());
+      assertEquals(1, pool.getNumActive());
+
+      pingFails = true;
+      pool.validateIdle(0);
+      assertEquals(0, pool.getNumIdle());
+      assertEquals(1, pool.getNumActive());
+      active.close();
+    }
+  }
+
+  @Test
+  public void closeDuringValidationDestroysValidatedConnections() throws Exception {
+    LightweightConnectionPool pool = createPool();
+    Connection conn = pool.getResource();
+    conn.close();
+    pingReceived = new CountDownLatch(1);
+    pongAllowed = new CountDownLatch(1);
+    Thread validator = new Thread(() -> pool.validateIdle(0));
+    validator.start();
+
+    assertTrue(pingReceived.await(10, TimeUnit.SECONDS));
+    pool.close();
+    pongAllowed.countDown();
+    validator.join(10_000);
+    assertFalse(conn.isConnected());
+    assertEquals(0, pool.getNumIdle() + pool.getNumActive());
+  }
+
+  @Test
+  public void destroysReturnedConnectionsBeyondMaxIdle() {
+    poolConfig.setMaxIdle(1);
+    try (LightweightConnectionPool pool = createPool()) {
+      Connection first = pool.getResource();
+      Connection second = pool.getResource();
+      first.close();
+      second.close();
+      assertEquals(1, pool.getNumIdle());
+      assertTrue(first.isConnected());
+      assertFalse(second.isConnected());
+    }
+  }
+
+  @Test
+  public void evictsIdleConnectionsDownToMinIdle() throws InterruptedException {
+    poolConfig.setMinIdle(1);
+    try (LightweightConnectionPool pool = createPool()) {
+      pool.addObjects(3);
+      Connection active = pool.getResource();
+      active.close();
+
+      pool.evictIdle(60_000);
+      assertEquals(3, pool.getNumIdle());
+
+      Thread.sleep(20);
+      pool.evictIdle(10);
+      assertEquals(1, pool.getNumIdle());
+      pool.evictIdle(0);
+      assertEquals(1, pool.getNumIdle());
+    }
+  }
+
+  private long pings() {
+    return server.getReceivedCommands().stream()
+        .filter(command -> command.get(0).equalsIgnoreCase("PING")).count();
+  }
+
+  @Test
+  public void objectPoolMethodsActOnConnections() {
+    poolConfig.setMaxTotal(2);
+    try (LightweightConnectionPool pool = createPool()) {
+      Connection first = pool.borrowObject();
+      Connection second = pool.borrowObject(Duration.ofMillis(50));
+      assertEquals(2, pool.getNumActive());
+      try {
+        pool.borrowObject(50);
+        fail("Should not get a third connection");
+      } catch (JedisException e) {
+        assertTrue(e.getCause() instanceof NoSuchElementException);
+      }
+
+      pool.returnObject(first);
+      pool.invalidateObject(second);
+      assertEquals(0, pool.getNumActive());
+      assertEquals(1, pool.getNumIdle());
+      assertTrue(second.isBroken() || !second.isConnected());
+
+      pool.clear();
+      assertEquals(0, pool.getNumIdle());
+      assertFalse(first.isConnected());
+    }
+  }
+
+  @Test
+  public void jedisPooled() {
+    try (JedisPooled jedis = new JedisPooled(createPool())) {
+      assertEquals("OK", jedis.set("key", "v"));
+      assertEquals("v", jedis.get("key"));
+      assertEquals(1, jedis.getPool().getNumIdle());
+    }
+  }
+}
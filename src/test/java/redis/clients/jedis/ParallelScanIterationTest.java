@@ -0,0 +1,179 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.search.FTSearchParams;
+import redis.clients.jedis.search.FtSearchIteration;
+import redis.clients.jedis.util.FakeRedisServer;
+
+public class ParallelScanIterationTest {
+
+  private static final int BATCHES = 5;
+  private static final int BATCH_SIZE = 10;
+
+  private FakeRedisServer lowSlots;
+  private FakeRedisServer highSlots;
+  private volatile boolean failing = false;
+
+  @Before
+  public void setUp() throws IOException {
+    lowSlots = new FakeRedisServer(command -> reply(command, "low"));
+    highSlots = new FakeRedisServer(command -> reply(command, "high"));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    lowSlots.close();
+    highSlots.close();
+  }
+
+  private String reply(List<String> command, String node) {
+    switch (command.get(0).toUpperCase()) {
+      case "CLUSTER":
+        if (command.get(1).equalsIgnoreCase("SHARDS")) {
+          return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+        }
+        return "*2\r\n" + slots(0, 8191, lowSlots) + slots(8192, 16383, highSlots);
+      case "SCAN": {
+        if (failing && node.equals("high")) {
+          return "-ERR scan failed\r\n";
+        }
+        int cursor = Integer.parseInt(command.get(1));
+        String next = String.valueOf(cursor + 1 == BATCHES ? 0 : cursor + 1);
+        StringBuilder sb = new StringBuilder("*2\r\n$").append(next.length()).append("\r\n")
+            .append(next).append("\r\n*").append(BATCH_SIZE).append("\r\n");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          String key = node + ":" + cursor + ":" + i;
+          sb.append('$').append(key.length()).append("\r\n").append(key).append("\r\n");
+        }
+        return sb.toString();
+      }
+      default:
+        return "+OK\r\n";
+    }
+  }
+
+  private static String slots(int from, int to, FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*3\r\n:" + from + "\r\n:" + to + "\r\n*3\r\n$" + hp.getHost().length() + "\r\n"
+        + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n$2\r\nid\r\n";
+  }
+
+  @Test
+  public void scanAllNodes() {
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      Set<String> keys;
+      try (Stream<String> stream = cluster.scanIteration(BATCH_SIZE, "*").parallelStream(2)) {
+        keys = stream.collect(Collectors.toSet());
+      }
+      assertEquals(2 * BATCHES * BATCH_SIZE, keys.size());
+
+      Set<String> serial = new HashSet<>();
+      cluster.scanIteration(BATCH_SIZE, "*").collect(serial);
+      assertEquals(serial, keys);
+    }
+  }
+
+  @Test
+  public void closeBeforeEnd() throws InterruptedException {
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      try (Stream<String> stream = cluster.scanIteration(BATCH_SIZE, "*").parallelStream(1)) {
+        assertEquals(3, stream.limit(3).count());
+      }
+      // the worker stops, and holds no connection
+      Thread.sleep(100);
+      long scans = scans();
+      Thread.sleep(100);
+      assertEquals(scans, scans());
+      assertTrue(scans < 2 * BATCHES);
+      for (ConnectionPool pool : cluster.getClusterNodes().values()) {
+        assertEquals(0, pool.getNumActive());
+      }
+    }
+  }
+
+  @Test
+  public void closeManyShortCircuitedStreams() {
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      for (int i = 0; i < 50; i++) {
+        try (Stream<String> stream = cluster.scanIteration(BATCH_SIZE, "*").parallelStream(2)) {
+          assertTrue(stream.findFirst().isPresent());
+        }
+      }
+      try (Stream<String> stream = cluster.scanIteration(BATCH_SIZE, "*").parallelStream(2)) {
+        assertEquals(2 * BATCHES * BATCH_SIZE, stream.count());
+      }
+    }
+  }
+
+  private long scans() {
+    return lowSlots.getReceivedCommands().stream().filter(c -> c.get(0).equals("SCAN")).count()
+        + highSlots.getReceivedCommands().stream().filter(c -> c.get(0).equals("SCAN")).count();
+  }
+
+  @Test
+  public void errorIsThrownToConsumer() {
+    failing = true;
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort());
+        Stream<String> stream = cluster.scanIteration(BATCH_SIZE, "*").parallelStream(2)) {
+      stream.count();
+      fail();
+    } catch (JedisDataException expected) {
+      assertEquals("ERR scan failed", expected.getMessage());
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void statefulIterationIsNotParallel() {
+    try (JedisCluster cluster = new JedisCluster(lowSlots.getHostAndPort())) {
+      new FtSearchIteration(cluster.provider, BATCH_SIZE, "idx", "*", new FTSearchParams())
+          .parallelStream(2);
+    }
+  }
+
+  @Test
+  public void scanSentinelMasterRepeatedly() throws IOException {
+    HostAndPort master = lowSlots.getHostAndPort();
+    try (FakeRedisServer sentinel = new FakeRedisServer(command -> {
+      switch (command.get(0).toUpperCase()) {
+        case "SENTINEL":
+          String port = String.valueOf(master.getPort());
+          return "*2\r\n$" + master.getHost().length() + "\r\n" + master.getHost() + "\r\n$"
+              + port.length() + "\r\n" + port + "\r\n";
+        case "SUBSCRIBE":
+          return "*3\r\n$9\r\nsubscribe\r\n$14\r\n+switch-master\r\n:1\r\n";
+        default:
+          return "+OK\r\n";
+      }
+    })) {
+      ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+      poolConfig.setMaxTotal(2);
+      poolConfig.setMaxWait(Duration.ofMillis(500));
+      try (JedisSentineled jedis = new JedisSentineled("mymaster",
+          DefaultJedisClientConfig.builder().build(), poolConfig,
+          Collections.singleton(sentinel.getHostAndPort()), DefaultJedisClientConfig.builder().build())) {
+        // a connection borrowed for each stream would exhaust the pool
+        for (int i = 0; i < 5; i++) {
+          try (Stream<String> stream = jedis.scanIteration(BATCH_SIZE, "*").parallelStream(1)) {
+            assertEquals(BATCHES * BATCH_SIZE, stream.count());
+          }
+        }
+      }
+    }
+  }
+}
@@ -9,13 +9,18 @@ import static redis.clients.jedis.util.AssertUtil.assertByteArrayListEquals;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -139,4 +144,158 @@ public class ProtocolTest {
     }
     fail("Expected a JedisBusyException to be thrown.");
   }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void flatMultiBulkReply() {
+    FragmentedByteArrayInputStream fis = new FragmentedByteArrayInputStream(
+        "*4\r\n$3\r\nfoo\r\n$-1\r\n:-42\r\n*2\r\n+OK\r\n-ERR nested\r\n".getBytes());
+    FlatReply reply = new FlatReply();
+    Protocol.read(new RedisInputStream(fis), reply);
+
+    assertEquals(7, reply.size());
+    assertEquals(4, reply.getElementCount(0));
+    assertEquals("foo", reply.getString(1));
+    assertNull(reply.getString(reply.next(1)));
+    assertEquals(-42L, reply.getLong(3));
+    assertEquals(7, reply.next(4));
+    assertEquals("OK", reply.getString(5));
+    assertEquals(Protocol.MINUS_BYTE, reply.getType(6));
+
+    List<Object> list = (List<Object>) reply.toObject(0);
+    assertArrayEquals(SafeEncoder.encode("foo"), (byte[]) list.get(0));
+    assertNull(list.get(1));
+    assertEquals(-42L, list.get(2));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void flatReplyIsReused() {
+    InputStream is = new ByteArrayInputStream(
+        "*2\r\n$1\r\na\r\n$1\r\nb\r\n%1\r\n$1\r\nk\r\n$1\r\nv\r\n".getBytes());
+    RedisInputStream ris = new RedisInputStream(is);
+    FlatReply reply = new FlatReply();
+
+    Protocol.read(ris, reply);
+    assertEquals(Arrays.asList("a", "b"),
+        ((FlatReplyBuilder<List<String>>) BuilderFactory.STRING_LIST).build(reply, 0));
+
+    Protocol.read(ris, reply);
+    assertEquals(3, reply.size());
+    assertEquals(Collections.singletonMap("k", "v"),
+        ((FlatReplyBuilder<Map<String, String>>) BuilderFactory.STRING_MAP).build(reply, 0));
+  }
+
+  @Test
+  public void flatLargeBulkReply() {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      value.append(i % 10);
+    }
+    InputStream is = new ByteArrayInputStream(
+        ("$" + value.length() + "\r\n" + value + "\r\n").getBytes());
+    FlatReply reply = new FlatReply();
+    Protocol.read(new RedisInputStream(is, 64), reply);
+    assertEquals(value.toString(), reply.getString(0));
+  }
+
+  @Test
+  public void flatBusyReply() {
+    final String busyMessage = "BUSY Redis is busy running a script.";
+    final InputStream is = new ByteArrayInputStream(('-' + busyMessage + "\r\n").getBytes());
+    try {
+      Protocol.read(new RedisInputStream(is), new FlatReply());
+    } catch (final JedisBusyException e) {
+      assertEquals(busyMessage, e.getMessage());
+      return;
+    }
+    fail("Expected a JedisBusyException to be thrown.");
+  }
+
+  @Test
+  public void sendDirectByteBufferArgument() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(bytes, 8);
+    ByteBuffer value = ByteBuffer.allocateDirect(32);
+    value.put(SafeEncoder.encode("0123456789abcdef")).flip();
+
+    Protocol.sendCommand(ros, new CommandArguments(Protocol.Command.SET).key("k").add(value));
+    Protocol.sendCommand(ros, new CommandArguments(Protocol.Command.SET).key("k").add(value));
+    ros.flush();
+
+    String expected = "*3\r\n$3\r\nSET\r\n$1\r\nk\r\n$16\r\n0123456789abcdef\r\n";
+    assertEquals(expected + expected, SafeEncoder.encode(bytes.toByteArray()));
+    assertEquals(16, value.remaining());
+  }
+
+  @Test
+  public void readBulkRepliesIntoDirectBuffer() {
+    FragmentedByteArrayInputStream fis = new FragmentedByteArrayInputStream(
+        "*3\r\n$3\r\nfoo\r\n$-1\r\n$6\r\nbarbaz\r\n".getBytes());
+    ByteBuffer arena = ByteBuffer.allocateDirect(64);
+    List<ByteBuffer> values = new ArrayList<>();
+
+    assertEquals(3, Protocol.readBulkReplies(new RedisInputStream(fis), len -> arena, values::add));
+    assertEquals(ByteBuffer.wrap(SafeEncoder.encode("foo")), values.get(0));
+    assertNull(values.get(1));
+    assertEquals(ByteBuffer.wrap(SafeEncoder.encode("barbaz")), values.get(2));
+    assertEquals(9, arena.position());
+  }
+
+  @Test
+  public void readBulkRepliesOfMissingKeysInResp3() {
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream(
+        "_\r\n*2\r\n$3\r\nfoo\r\n_\r\n".getBytes()));
+    ByteBuffer arena = ByteBuffer.allocate(64);
+    List<ByteBuffer> values = new ArrayList<>();
+
+    assertEquals(1, Protocol.readBulkReplies(is, len -> arena, values::add));
+    assertNull(values.get(0));
+    assertEquals(2, Protocol.readBulkReplies(is, len -> arena, values::add));
+    assertEquals(ByteBuffer.wrap(SafeEncoder.encode("foo")), values.get(1));
+    assertNull(values.get(2));
+  }
+
+  @Test
+  public void readBulkRepliesDrainsReplyIfBufferIsTooSmall() {
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream(
+        "*3\r\n$6\r\nbarbaz\r\n$3\r\nfoo\r\n_\r\n$3\r\nbar\r\n".getBytes()));
+    ByteBuffer small = ByteBuffer.allocate(4);
+    List<ByteBuffer> values = new ArrayList<>();
+
+    try {
+      Protocol.readBulkReplies(is, len -> small, values::add);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+      // the rest of the reply was skipped
+    }
+    assertEquals(1, Protocol.readBulkReplies(is, len -> small, values::add));
+    assertEquals(Collections.singletonList(ByteBuffer.wrap(SafeEncoder.encode("bar"))), values);
+  }
+
+  @Test
+  public void preparedCommandEncodesLikeArguments() throws IOException {
+    PreparedCommand setEx = new PreparedCommand(Protocol.Command.SET, PreparedCommand.VARIABLE,
+        PreparedCommand.VARIABLE, Protocol.Keyword.EX, PreparedCommand.VARIABLE);
+    CommandArguments args = new CommandArguments(Protocol.Command.SET).key("key").add("value")
+        .add(Protocol.Keyword.EX).add(10);
+    CommandArguments moreArgs = new CommandArguments(Protocol.Command.SET).key("key").add("value")
+        .add(Protocol.Keyword.EX).add(10).add(Protocol.Keyword.NX);
+
+    assertEquals(encode(args), encode(new CommandArguments(Protocol.Command.SET).key("key").add("value")
+        .add(Protocol.Keyword.EX).add(10).prepared(setEx)));
+    // arguments which don't fit the template are encoded as usual
+    assertEquals(encode(moreArgs), encode(new CommandArguments(Protocol.Command.SET).key("key").add("value")
+        .add(Protocol.Keyword.EX).add(10).add(Protocol.Keyword.NX).prepared(setEx)));
+    assertEquals("*2\r\n$3\r\nGET\r\n$3\r\nkey\r\n",
+        encode(new CommandObjects().get("key").getArguments()));
+  }
+
+  private static String encode(CommandArguments args) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(bytes);
+    Protocol.sendCommand(ros, args);
+    ros.flush();
+    return SafeEncoder.encode(bytes.toByteArray());
+  }
 }
@@ -0,0 +1,187 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.executors.AutoPipeliningCommandExecutor;
+import redis.clients.jedis.executors.CircuitBreakerCommandExecutor;
+import redis.clients.jedis.executors.CommandExecutor;
+import redis.clients.jedis.executors.DefaultCommandExecutor;
+import redis.clients.jedis.executors.RetryableCommandExecutor;
+import redis.clients.jedis.executors.SimpleCommandExecutor;
+import redis.clients.jedis.providers.MultiClusterPooledConnectionProvider;
+import redis.clients.jedis.providers.PooledConnectionProvider;
+import redis.clients.jedis.resps.Tuple;
+import redis.clients.jedis.util.FakeRedisServer;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class StreamingBuilderTest {
+
+  private FakeRedisServer server;
+  private Connection connection;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeRedisServer(command -> {
+      switch (command.get(0).toUpperCase()) {
+        case "LRANGE":
+          return "*3\r\n$1\r\na\r\n$1\r\nb\r\n$1\r\nc\r\n";
+        case "HGETALL":
+          return command.get(1).equals("resp3") ? "%2\r\n$1\r\nf\r\n$1\r\n1\r\n$1\r\ng\r\n$1\r\n2\r\n"
+              : "*4\r\n$1\r\nf\r\n$1\r\n1\r\n$1\r\ng\r\n$1\r\n2\r\n";
+        case "ZRANGE":
+          return command.get(1).equals("resp3") ? "*2\r\n*2\r\n$1\r\na\r\n,1.5\r\n*2\r\n$1\r\nb\r\n,2\r\n"
+              : "*4\r\n$1\r\na\r\n$3\r\n1.5\r\n$1\r\nb\r\n$1\r\n2\r\n";
+        case "GET":
+          return "$3\r\nfoo\r\n";
+        case "ECHO":
+          return "$" + command.get(1).length() + "\r\n" + command.get(1) + "\r\n";
+        default:
+          return "-WRONGTYPE Operation against a key holding the wrong kind of value\r\n";
+      }
+    });
+    connection = new Connection(server.getHostAndPort(), DefaultJedisClientConfig.builder().build());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    connection.close();
+    server.close();
+  }
+
+  @Test
+  public void streamList() {
+    List<String> items = new ArrayList<>();
+    int count = connection.executeCommand(new CommandArguments(Protocol.Command.LRANGE).key("l").add(0).add(-1),
+        BuilderFactory.STRING_STREAM, items::add);
+    assertEquals(3, count);
+    assertEquals(Arrays.asList("a", "b", "c"), items);
+  }
+
+  @Test
+  public void streamPairs() {
+    for (String key : Arrays.asList("resp2", "resp3")) {
+      Map<String, String> map = new LinkedHashMap<>();
+      connection.executeCommand(new CommandArguments(Protocol.Command.HGETALL).key(key),
+          BuilderFactory.STRING_PAIR_STREAM, kv -> map.put(kv.getKey(), kv.getValue()));
+      assertEquals(2, map.size());
+      assertEquals("1", map.get("f"));
+      assertEquals("2", map.get("g"));
+    }
+  }
+
+  @Test
+  public void streamTuples() {
+    for (String key : Arrays.asList("resp2", "resp3")) {
+      List<Tuple> tuples = new ArrayList<>();
+      connection.executeCommand(new CommandArguments(Protocol.Command.ZRANGE).key(key).add(0).add(-1),
+          BuilderFactory.TUPLE_STREAM, tuples::add);
+      assertEquals(Arrays.asList(new Tuple("a", 1.5), new Tuple("b", 2d)), tuples);
+    }
+  }
+
+  @Test
+  public void errorReply() {
+    try {
+      connection.executeCommand(new CommandArguments(Protocol.Command.LPOP).key("k"),
+          BuilderFactory.STRING_STREAM, s -> fail("Should not be called"));
+      fail("Should have thrown");
+    } catch (JedisDataException e) {
+      assertTrue(e.getMessage().startsWith("WRONGTYPE"));
+    }
+    assertEquals("ok", connection.executeCommand(new CommandObject<>(
+        new CommandArguments(Protocol.Command.ECHO).add("ok"), BuilderFactory.STRING)));
+  }
+
+  @Test
+  public void failingConsumerBreaksConnection() {
+    try {
+      connection.executeCommand(new CommandArguments(Protocol.Command.LRANGE).key("l").add(0).add(-1),
+          BuilderFactory.STRING_STREAM, s -> {
+            throw new IllegalStateException();
+          });
+      fail("Should have thrown");
+    } catch (IllegalStateException e) {
+      assertTrue(connection.isBroken());
+    }
+  }
+
+  @Test
+  public void readThroughExecutor() {
+    try (UnifiedJedis jedis = new UnifiedJedis(new SimpleCommandExecutor(
+        new Connection(server.getHostAndPort(), DefaultJedisClientConfig.builder().build())))) {
+      List<String> items = new ArrayList<>();
+      jedis.lrange("l", 0, -1, items::add);
+      assertEquals(Arrays.asList("a", "b", "c"), items);
+      assertEquals(ByteBuffer.wrap(SafeEncoder.encode("foo")),
+          jedis.get(SafeEncoder.encode("k"), ByteBuffer::allocate));
+    }
+  }
+
+  @Test
+  public void readThroughEveryExecutor() {
+    HostAndPort hp = server.getHostAndPort();
+    JedisClientConfig config = DefaultJedisClientConfig.builder().build();
+    MultiClusterClientConfig.ClusterConfig[] clusterConfigs = {
+        new MultiClusterClientConfig.ClusterConfig(hp, config) };
+    List<CommandExecutor> executors = Arrays.asList(
+        new DefaultCommandExecutor(new PooledConnectionProvider(hp, config)),
+        new RetryableCommandExecutor(new PooledConnectionProvider(hp, config), 3, Duration.ofSeconds(1)),
+        new AutoPipeliningCommandExecutor(new PooledConnectionProvider(hp, config), hp, config),
+        new CircuitBreakerCommandExecutor(new MultiClusterPooledConnectionProvider(
+            new MultiClusterClientConfig.Builder(clusterConfigs).build())));
+    for (CommandExecutor executor : executors) {
+      try (UnifiedJedis jedis = new UnifiedJedis(executor)) {
+        List<String> items = new ArrayList<>();
+        jedis.lrange("l", 0, -1, items::add);
+        assertEquals(executor.getClass().getSimpleName(), Arrays.asList("a", "b", "c"), items);
+        assertEquals(ByteBuffer.wrap(SafeEncoder.encode("foo")),
+            jedis.get(SafeEncoder.encode("k"), ByteBuffer::allocate));
+      }
+    }
+  }
+
+  @Test
+  public void streamFollowsClusterRedirection() throws IOException {
+    FakeRedisServer[] origin = new FakeRedisServer[1];
+    try (FakeRedisServer target = new FakeRedisServer(command -> command.get(0).equals("LRANGE")
+            ? "*2\r\n$1\r\nx\r\n$1\r\ny\r\n" : "+OK\r\n");
+        FakeRedisServer redirecting = new FakeRedisServer(command -> {
+          switch (command.get(0).toUpperCase()) {
+            case "CLUSTER":
+              if (command.get(1).equalsIgnoreCase("SHARDS")) {
+                return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+              }
+              HostAndPort hp = origin[0].getHostAndPort();
+              return "*1\r\n*3\r\n:0\r\n:16383\r\n*3\r\n$" + hp.getHost().length() + "\r\n"
+                  + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n$2\r\nid\r\n";
+            case "LRANGE":
+              return "-MOVED " + JedisClusterCRC16.getSlot("l") + " " + target.getHostAndPort() + "\r\n";
+            default:
+              return "+OK\r\n";
+          }
+        })) {
+      origin[0] = redirecting;
+      List<String> items = new ArrayList<>();
+      try (JedisCluster cluster = new JedisCluster(redirecting.getHostAndPort())) {
+        cluster.lrange("l", 0, -1, items::add);
+      }
+      assertEquals(Arrays.asList("x", "y"), items);
+    }
+  }
+}
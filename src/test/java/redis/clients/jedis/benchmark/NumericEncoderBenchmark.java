@@ -0,0 +1,76 @@
+package redis.clients.jedis.benchmark;
+
+import java.util.Calendar;
+
+import redis.clients.jedis.util.DoublePrecision;
+import redis.clients.jedis.util.NumericEncoder;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class NumericEncoderBenchmark {
+
+  private static final int TOTAL_OPERATIONS = 10000000;
+
+  public static void main(String[] args) {
+    long begin = Calendar.getInstance().getTimeInMillis();
+
+    for (int n = 0; n <= TOTAL_OPERATIONS; n++) {
+      SafeEncoder.encode(String.valueOf(n * 0.25 + 0.01));
+    }
+
+    long elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println(((1000 * TOTAL_OPERATIONS) / elapsed) + " ops to encode doubles through String");
+
+    begin = Calendar.getInstance().getTimeInMillis();
+
+    for (int n = 0; n <= TOTAL_OPERATIONS; n++) {
+      NumericEncoder.encode(n * 0.25 + 0.01);
+    }
+
+    elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println(((1000 * TOTAL_OPERATIONS) / elapsed) + " ops to encode doubles directly");
+
+    begin = Calendar.getInstance().getTimeInMillis();
+
+    for (long n = 0; n <= TOTAL_OPERATIONS; n++) {
+      SafeEncoder.encode(String.valueOf(n * 1000003));
+    }
+
+    elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println(((1000 * TOTAL_OPERATIONS) / elapsed) + " ops to encode longs through String");
+
+    begin = Calendar.getInstance().getTimeInMillis();
+
+    for (long n = 0; n <= TOTAL_OPERATIONS; n++) {
+      NumericEncoder.encode(n * 1000003);
+    }
+
+    elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println(((1000 * TOTAL_OPERATIONS) / elapsed) + " ops to encode longs directly");
+
+    byte[] bytes = SafeEncoder.encode("1234.5625");
+
+    begin = Calendar.getInstance().getTimeInMillis();
+
+    for (int n = 0; n <= TOTAL_OPERATIONS; n++) {
+      DoublePrecision.parseFloatingPointNumber(SafeEncoder.encode(bytes));
+    }
+
+    elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println(((1000 * TOTAL_OPERATIONS) / elapsed) + " ops to decode doubles through String");
+
+    begin = Calendar.getInstance().getTimeInMillis();
+
+    for (int n = 0; n <= TOTAL_OPERATIONS; n++) {
+      NumericEncoder.decodeDouble(bytes, 0, bytes.length);
+    }
+
+    elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println(((1000 * TOTAL_OPERATIONS) / elapsed) + " ops to decode doubles directly");
+  }
+}
@@ -0,0 +1,108 @@
+package redis.clients.jedis.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.net.ServerSocketFactory;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Protocol;
+
+/**
+ * A minimal in-process RESP server for tests which don't need a real Redis server. Every received
+ * command is passed to the responder as a list of strings and the returned raw RESP bytes are sent
+ * back. CLIENT SETINFO commands are answered with +OK by default.
+ */
+public class FakeRedisServer implements AutoCloseable {
+
+  private final ServerSocket serverSocket;
+  private final Function<List<String>, String> responder;
+  private final Queue<List<String>> received = new ConcurrentLinkedQueue<>();
+  private final Queue<Socket> clients = new ConcurrentLinkedQueue<>();
+  private volatile boolean fragmented = false;
+
+  public FakeRedisServer(Function<List<String>, String> responder) throws IOException {
+    this(ServerSocketFactory.getDefault(), responder);
+  }
+
+  /**
+   * @param serverSocketFactory e.g. of an {@code SSLContext} to accept TLS connections
+   */
+  public FakeRedisServer(ServerSocketFactory serverSocketFactory,
+      Function<List<String>, String> responder) throws IOException {
+    this.serverSocket = serverSocketFactory.createServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    this.responder = responder;
+    Thread acceptor = new Thread(this::accept, "fake-redis-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  public HostAndPort getHostAndPort() {
+    return new HostAndPort(serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort());
+  }
+
+  /**
+   * @param fragmented if true, replies are flushed byte by byte
+   */
+  public void setFragmented(boolean fragmented) {
+    this.fragmented = fragmented;
+  }
+
+  public Queue<List<String>> getReceivedCommands() {
+    return received;
+  }
+
+  private void accept() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        clients.add(socket);
+        Thread handler = new Thread(() -> serve(socket), "fake-redis-client");
+        handler.setDaemon(true);
+        handler.start();
+      } catch (IOException e) {
+        // closed
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void serve(Socket socket) {
+    try {
+      RedisInputStream in = new RedisInputStream(socket.getInputStream());
+      OutputStream out = socket.getOutputStream();
+      while (true) {
+        List<String> command = ((List<byte[]>) Protocol.read(in)).stream()
+            .map(SafeEncoder::encode).collect(Collectors.toList());
+        received.add(command);
+        String reply = command.size() > 1 && command.get(0).equalsIgnoreCase("CLIENT")
+            && command.get(1).equalsIgnoreCase("SETINFO") ? "+OK\r\n" : responder.apply(command);
+        byte[] bytes = SafeEncoder.encode(reply);
+        if (fragmented) {
+          for (byte b : bytes) {
+            out.write(b);
+            out.flush();
+          }
+        } else {
+          out.write(bytes);
+          out.flush();
+        }
+      }
+    } catch (Exception e) {
+      IOUtils.closeQuietly(socket);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    clients.forEach(IOUtils::closeQuietly);
+  }
+}
@@ -0,0 +1,83 @@
+package redis.clients.jedis.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import org.junit.Test;
+
+public class NumericEncoderTest {
+
+  @Test
+  public void encodeLong() {
+    for (long value : new long[] { 0, 1, -1, 9, 10, -10, 123456789, Integer.MAX_VALUE,
+        Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE }) {
+      assertEquals(String.valueOf(value), SafeEncoder.encode(NumericEncoder.encode(value)));
+    }
+  }
+
+  @Test
+  public void encodeDouble() {
+    assertEquals("0", encode(0.0));
+    assertEquals("-0", encode(-0.0));
+    assertEquals("3", encode(3.0));
+    assertEquals("-1.5", encode(-1.5));
+    assertEquals("0.1", encode(0.1));
+    assertEquals("0.015", encode(0.015));
+    assertEquals("13.361389", encode(13.361389));
+    assertEquals("1.0E20", encode(1e20));
+    assertEquals("NaN", encode(Double.NaN));
+  }
+
+  @Test
+  public void encodedDoublesRoundTrip() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      double value;
+      switch (i % 4) {
+        case 0: value = random.nextDouble(); break;
+        case 1: value = (random.nextInt(2_000_000) - 1_000_000) / 100.0; break;
+        case 2: value = random.nextGaussian() * 1e6; break;
+        default: value = Double.longBitsToDouble(random.nextLong()); break;
+      }
+      if (Double.isNaN(value)) {
+        continue;
+      }
+      assertEquals(value, Double.parseDouble(encode(value)), 0);
+    }
+  }
+
+  @Test
+  public void decodeDouble() {
+    for (String str : new String[] { "0", "-0", "1", "-1.5", "0.1", ".5", "3.14159", "+7",
+        "123456789.123456", "1e10", "1.7976931348623157E308", "4.9E-324", "0.00000000000000000000001",
+        "12345678901234567890" }) {
+      byte[] bytes = SafeEncoder.encode(str);
+      assertEquals(str, Double.parseDouble(str), NumericEncoder.decodeDouble(bytes, 0, bytes.length), 0);
+    }
+    assertEquals(Double.POSITIVE_INFINITY, decode("inf"), 0);
+    assertEquals(Double.NEGATIVE_INFINITY, decode("-inf"), 0);
+    assertEquals(Double.NaN, decode("nan"), 0);
+  }
+
+  @Test
+  public void readDoubleCrLf() {
+    for (int size : new int[] { 3, 1024 }) {
+      RedisInputStream in = new RedisInputStream(new ByteArrayInputStream(
+          SafeEncoder.encode("1.25\r\n-3\r\ninf\r\n2.5e3\r\n")), size);
+      assertEquals(1.25, in.readDoubleCrLf(), 0);
+      assertEquals(-3, in.readDoubleCrLf(), 0);
+      assertEquals(Double.POSITIVE_INFINITY, in.readDoubleCrLf(), 0);
+      assertEquals(2500, in.readDoubleCrLf(), 0);
+    }
+  }
+
+  private static String encode(double value) {
+    return SafeEncoder.encode(NumericEncoder.encode(value));
+  }
+
+  private static double decode(String str) {
+    byte[] bytes = SafeEncoder.encode(str);
+    return NumericEncoder.decodeDouble(bytes, 0, bytes.length);
+  }
+}
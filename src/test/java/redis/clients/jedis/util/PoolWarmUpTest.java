@@ -0,0 +1,185 @@
+package redis.clients.jedis.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.Test;
+
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.exceptions.JedisException;
+
+public class PoolWarmUpTest {
+
+  private static class SlowFactory extends BasePooledObjectFactory<String> {
+
+    private final long delayMillis;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+
+    SlowFactory(long delayMillis) {
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public String create() throws Exception {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(delayMillis);
+        return "object-" + created.incrementAndGet();
+      } finally {
+        running.decrementAndGet();
+      }
+    }
+
+    @Override
+    public PooledObject<String> wrap(String obj) {
+      return new DefaultPooledObject<>(obj);
+    }
+  }
+
+  private static GenericObjectPoolConfig<String> minIdle(int minIdle) {
+    GenericObjectPoolConfig<String> config = new GenericObjectPoolConfig<>();
+    config.setMinIdle(minIdle);
+    return config;
+  }
+
+  @Test
+  public void createsUpToMinIdleWithBoundedParallelism() {
+    SlowFactory factory = new SlowFactory(50);
+    List<Pool<String>> pools = Arrays.asList(new Pool<>(factory, minIdle(4)),
+        new Pool<>(factory, minIdle(4)), new Pool<>(factory, minIdle(0)));
+    try {
+      pools.get(1).addObjects(1);
+      Pool.warmUp(pools, 3, Duration.ofSeconds(10));
+      assertEquals(4, pools.get(0).getNumIdle());
+      assertEquals(4, pools.get(1).getNumIdle());
+      assertEquals(0, pools.get(2).getNumIdle());
+      assertEquals(8, factory.created.get());
+      assertTrue(factory.maxRunning.get() <= 3);
+      assertTrue(factory.maxRunning.get() > 1);
+    } finally {
+      pools.forEach(Pool::close);
+    }
+  }
+
+  @Test
+  public void failsIfAnObjectCannotBeCreated() {
+    Pool<String> pool = new Pool<>(new SlowFactory(0) {
+      @Override
+      public String create() {
+        throw new JedisException("unreachable");
+      }
+    }, minIdle(2));
+    try {
+      Pool.warmUp(Collections.singleton(pool), 2, Duration.ofSeconds(10));
+      fail("Should not warm up the pool");
+    } catch (JedisException e) {
+      assertEquals("unreachable", e.getCause().getMessage());
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void failsOnTimeout() {
+    Pool<String> pool = new Pool<>(new SlowFactory(2000), minIdle(2));
+    try {
+      Pool.warmUp(Collections.singleton(pool), 2, Duration.ofMillis(50));
+      fail("Should not warm up the pool");
+    } catch (JedisException e) {
+      assertTrue(e.getMessage().startsWith("Timeout"));
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNonPositiveParallelism() {
+    Pool<String> pool = new Pool<>(new SlowFactory(0), minIdle(0));
+    try {
+      Pool.warmUp(Collections.singleton(pool), 0, Duration.ofSeconds(10));
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void waitsWithoutTimeout() {
+    Pool<String> pool = new Pool<>(new SlowFactory(10), minIdle(3));
+    try {
+      Pool.warmUp(Collections.singleton(pool), 2, null);
+      assertEquals(3, pool.getNumIdle());
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void warmUpJedisPooled() throws IOException {
+    try (FakeRedisServer server = new FakeRedisServer(command -> "+OK\r\n")) {
+      ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+      poolConfig.setMinIdle(5);
+      try (JedisPooled jedis = new JedisPooled(server.getHostAndPort(),
+          DefaultJedisClientConfig.builder().build(), poolConfig)) {
+        jedis.warmUp(4, Duration.ofSeconds(10));
+        assertEquals(5, jedis.getPool().getNumIdle());
+      }
+    }
+  }
+
+  @Test
+  public void warmUpJedisCluster() throws IOException {
+    FakeRedisServer[] nodes = new FakeRedisServer[2];
+    try (FakeRedisServer first = new FakeRedisServer(command -> clusterReply(command, nodes));
+        FakeRedisServer second = new FakeRedisServer(command -> clusterReply(command, nodes))) {
+      nodes[0] = first;
+      nodes[1] = second;
+      GenericObjectPoolConfig<Connection> poolConfig = new GenericObjectPoolConfig<>();
+      poolConfig.setMinIdle(3);
+      try (JedisCluster cluster = new JedisCluster(Collections.singleton(first.getHostAndPort()),
+          DefaultJedisClientConfig.builder().build(), 5, poolConfig)) {
+        cluster.warmUp(4, Duration.ofSeconds(10));
+        Map<String, ConnectionPool> pools = cluster.getClusterNodes();
+        assertEquals(2, pools.size());
+        for (ConnectionPool pool : pools.values()) {
+          assertEquals(3, pool.getNumIdle());
+        }
+      }
+    }
+  }
+
+  private static String clusterReply(List<String> command, FakeRedisServer[] nodes) {
+    if (command.get(0).equalsIgnoreCase("CLUSTER")) {
+      if (command.get(1).equalsIgnoreCase("SHARDS")) {
+        return "-ERR unknown subcommand 'SHARDS'\r\n"; // before Redis 7
+      }
+      return "*2\r\n" + slots(0, 8191, nodes[0]) + slots(8192, 16383, nodes[1]);
+    }
+    return "+OK\r\n";
+  }
+
+  private static String slots(int from, int to, FakeRedisServer server) {
+    HostAndPort hp = server.getHostAndPort();
+    return "*3\r\n:" + from + "\r\n:" + to + "\r\n*3\r\n$" + hp.getHost().length() + "\r\n"
+        + hp.getHost() + "\r\n:" + hp.getPort() + "\r\n$2\r\nid\r\n";
+  }
+}
@@ -0,0 +1,65 @@
+package redis.clients.jedis.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class RedisOutputStreamTest {
+
+  @Test
+  public void bufferGrowsAndShrinksWithFlushSize() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(bytes);
+    final int initial = ros.getBufferSize();
+
+    byte[] chunk = new byte[initial / 2];
+    for (int i = 0; i < 64; i++) {
+      for (int j = 0; j < 6; j++) {
+        ros.write(chunk);
+      }
+      ros.flush();
+    }
+    assertTrue(ros.getBufferSize() > initial);
+
+    for (int i = 0; i < 64; i++) {
+      ros.write((byte) 1);
+      ros.flush();
+    }
+    assertEquals(initial, ros.getBufferSize());
+    assertEquals(64 * 6 * chunk.length + 64, bytes.size());
+  }
+
+  @Test
+  public void fixedSizeBufferIsNotResized() throws IOException {
+    RedisOutputStream ros = new RedisOutputStream(new ByteArrayOutputStream(), 16);
+    for (int i = 0; i < 32; i++) {
+      ros.write(new byte[15]);
+      ros.write(new byte[15]);
+      ros.flush();
+    }
+    assertEquals(16, ros.getBufferSize());
+  }
+
+  @Test
+  public void largeArrayIsWrittenAfterBufferedHeader() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(bytes);
+
+    byte[] value = new byte[ros.getBufferSize() * 3];
+    Arrays.fill(value, (byte) 'v');
+
+    ros.write((byte) '$');
+    ros.writeCrLf();
+    ros.write(value);
+    ros.flush();
+
+    byte[] written = bytes.toByteArray();
+    assertArrayEquals(new byte[] { '$', '\r', '\n' }, Arrays.copyOf(written, 3));
+    assertArrayEquals(value, Arrays.copyOfRange(written, 3, written.length));
+  }
+}